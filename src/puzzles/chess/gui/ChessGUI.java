@@ -1,6 +1,7 @@
 package puzzles.chess.gui;
 
 import javafx.application.Application;
+import javafx.application.Platform;
 import javafx.geometry.Pos;
 import javafx.scene.Scene;
 import javafx.scene.control.Button;
@@ -257,6 +258,11 @@ public class ChessGUI extends Application implements Observer<ChessModel, String
 
     @Override
     public void update(ChessModel chessModel, String msg) {
+        // hints report from the solver thread
+        if (!Platform.isFxApplicationThread()) {
+            Platform.runLater(() -> update(chessModel, msg));
+            return;
+        }
 
         board = board();
         borderPane.setCenter(board);
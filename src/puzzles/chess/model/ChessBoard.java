@@ -0,0 +1,222 @@
+package puzzles.chess.model;
+
+import puzzles.common.solver.Configuration;
+import puzzles.common.solver.MoveBoard;
+
+/**
+ * A chess board that captures are made and taken back on in place, for the
+ * DepthFirstSolver. Squares are numbered row by row and a move is its from
+ * square times the number of squares plus its to square. Moves come out in
+ * the same order ChessConfig.getNeighbors() makes them.
+ *
+ * @author Teju Rajbabu
+ */
+public class ChessBoard implements MoveBoard {
+    /** An empty square */
+    private static final char EMPTY = '.';
+    /** Row and column steps of a rook, in the order ChessConfig tries them */
+    static final int[][] ROOK_LINES = {{-1, 0}, {1, 0}, {0, -1}, {0, 1}};
+    /** Row and column steps of a bishop, in the order ChessConfig tries them */
+    static final int[][] BISHOP_LINES = {{-1, 1}, {-1, -1}, {1, 1}, {1, -1}};
+    /** Row and column steps of a queen, in the order ChessConfig tries them */
+    static final int[][] QUEEN_LINES =
+            {{-1, 0}, {1, 0}, {0, -1}, {0, 1}, {-1, 1}, {-1, -1}, {1, 1}, {1, -1}};
+    /** Row and column jumps of a knight, in the order ChessConfig tries them */
+    static final int[][] KNIGHT_JUMPS =
+            {{-1, -2}, {-2, -1}, {-1, 2}, {-2, 1}, {1, -2}, {2, -1}, {1, 2}, {2, 1}};
+    /** Row and column steps of a king, in the order ChessConfig tries them */
+    static final int[][] KING_STEPS =
+            {{1, -1}, {1, 1}, {-1, -1}, {-1, 1}, {0, 1}, {0, -1}, {1, 0}, {-1, 0}};
+    /** Row and column steps of a pawn, which only captures forward */
+    static final int[][] PAWN_STEPS = {{-1, -1}, {-1, 1}};
+
+    /** the configuration copied to make snapshots */
+    private final ChessConfig template;
+    /** number of rows */
+    private final int rows;
+    /** number of columns */
+    private final int columns;
+    /** the squares, row by row */
+    private final char[] squares;
+    /** the pieces captured so far, last capture on top */
+    private final char[] captured;
+    /** number of captured pieces */
+    private int captures;
+    /** Zobrist key of the squares, the same as ChessConfig's, kept up to date by make and unmake */
+    private long key;
+
+    /**
+     * Sets up a board from a configuration
+     * @param config the configuration to start from
+     */
+    public ChessBoard(ChessConfig config) {
+        this.template = new ChessConfig(config);
+        this.rows = config.getRowDIM();
+        this.columns = config.getColumnDIM();
+        this.squares = new char[rows * columns];
+        for (int r = 0; r < rows; r++) {
+            for (int c = 0; c < columns; c++) {
+                squares[r * columns + c] = config.getCell(r, c);
+                key ^= ChessConfig.zobrist(r * columns + c, squares[r * columns + c]);
+            }
+        }
+        this.captured = new char[squares.length];
+        this.captures = 0;
+    }
+
+    /**
+     * Copy constructor, makes a full copy of another board
+     * @param other the board to copy
+     */
+    private ChessBoard(ChessBoard other) {
+        this.template = other.template;
+        this.rows = other.rows;
+        this.columns = other.columns;
+        this.squares = other.squares.clone();
+        this.captured = other.captured.clone();
+        this.captures = other.captures;
+        this.key = other.key;
+    }
+
+    @Override
+    public int moves(int[] out) {
+        int count = 0;
+        for (int r = 0; r < rows; r++) {
+            for (int c = 0; c < columns; c++) {
+                switch (squares[r * columns + c]) {
+                    case 'B' -> count = slides(r, c, BISHOP_LINES, out, count);
+                    case 'R' -> count = slides(r, c, ROOK_LINES, out, count);
+                    case 'Q' -> count = slides(r, c, QUEEN_LINES, out, count);
+                    case 'N' -> count = steps(r, c, KNIGHT_JUMPS, out, count);
+                    case 'P' -> count = steps(r, c, PAWN_STEPS, out, count);
+                    case 'K' -> count = steps(r, c, KING_STEPS, out, count);
+                    default -> { }
+                }
+            }
+        }
+        return count;
+    }
+
+    /**
+     * Writes the captures of a piece that slides until it meets another piece
+     * @param r row of the piece
+     * @param c column of the piece
+     * @param lines row and column steps of the lines it slides along
+     * @param out gets the moves
+     * @param count moves already in out
+     * @return moves in out now
+     */
+    private int slides(int r, int c, int[][] lines, int[] out, int count) {
+        for (int[] line : lines) {
+            int row = r + line[0];
+            int column = c + line[1];
+            while (row >= 0 && row < rows && column >= 0 && column < columns) {
+                if (squares[row * columns + column] != EMPTY) {
+                    out[count++] = move(r, c, row, column);
+                    break;
+                }
+                row += line[0];
+                column += line[1];
+            }
+        }
+        return count;
+    }
+
+    /**
+     * Writes the captures of a piece that jumps or steps straight to its square
+     * @param r row of the piece
+     * @param c column of the piece
+     * @param reach row and column offsets of the squares it can reach
+     * @param out gets the moves
+     * @param count moves already in out
+     * @return moves in out now
+     */
+    private int steps(int r, int c, int[][] reach, int[] out, int count) {
+        for (int[] step : reach) {
+            int row = r + step[0];
+            int column = c + step[1];
+            if (row >= 0 && row < rows && column >= 0 && column < columns
+                    && squares[row * columns + column] != EMPTY) {
+                out[count++] = move(r, c, row, column);
+            }
+        }
+        return count;
+    }
+
+    /**
+     * Numbers a move
+     * @param r row the piece leaves
+     * @param c column the piece leaves
+     * @param row row of the piece captured
+     * @param column column of the piece captured
+     * @return the move number
+     */
+    private int move(int r, int c, int row, int column) {
+        return (r * columns + c) * squares.length + row * columns + column;
+    }
+
+    @Override
+    public void make(int move) {
+        int from = move / squares.length;
+        int to = move % squares.length;
+        char piece = squares[from];
+        key ^= ChessConfig.zobrist(from, piece) ^ ChessConfig.zobrist(to, squares[to])
+                ^ ChessConfig.zobrist(to, piece);
+        captured[captures++] = squares[to];
+        squares[to] = piece;
+        squares[from] = EMPTY;
+    }
+
+    @Override
+    public void unmake(int move) {
+        int from = move / squares.length;
+        int to = move % squares.length;
+        char piece = squares[to];
+        squares[from] = piece;
+        squares[to] = captured[--captures];
+        key ^= ChessConfig.zobrist(from, piece) ^ ChessConfig.zobrist(to, squares[to])
+                ^ ChessConfig.zobrist(to, piece);
+    }
+
+    @Override
+    public boolean isSolution() {
+        int pieces = 0;
+        for (char square : squares) {
+            if (square != EMPTY) {
+                pieces += 1;
+            }
+        }
+        return pieces == 1;
+    }
+
+    @Override
+    public long key() {
+        return key;
+    }
+
+    @Override
+    public int maxMoves() {
+        return squares.length * QUEEN_LINES.length;
+    }
+
+    @Override
+    public int moveIds() {
+        return squares.length * squares.length;
+    }
+
+    @Override
+    public MoveBoard copy() {
+        return new ChessBoard(this);
+    }
+
+    @Override
+    public Configuration toConfiguration() {
+        ChessConfig config = new ChessConfig(template);
+        for (int r = 0; r < rows; r++) {
+            for (int c = 0; c < columns; c++) {
+                config.set(r, c, squares[r * columns + c]);
+            }
+        }
+        return config;
+    }
+}
@@ -0,0 +1,77 @@
+package puzzles.chess.model;
+
+import puzzles.common.solver.CodecFactory;
+import puzzles.common.solver.Configuration;
+import puzzles.common.solver.ConfigurationCodec;
+
+import java.io.IOException;
+
+/**
+ * Packs chess boards into bytes, four bits per square in row order, using the
+ * position of the square's character in ".BKNPQR"
+ *
+ * @author Teju Rajbabu
+ */
+public class ChessCodec implements ConfigurationCodec {
+    /** The character of each four-bit code */
+    private static final String CODES = ".BKNPQR";
+
+    /** the loaded board, copied to decode states */
+    private final ChessConfig board;
+    /** number of rows on the board */
+    private final int rows;
+    /** number of columns on the board */
+    private final int columns;
+
+    /**
+     * Creates a codec for boards shaped like the loaded one
+     * @param config the loaded board
+     */
+    public ChessCodec(ChessConfig config) {
+        this.board = new ChessConfig(config);
+        this.rows = config.getRowDIM();
+        this.columns = config.getColumnDIM();
+    }
+
+    @Override
+    public int width() {
+        return (rows * columns + 1) / 2;
+    }
+
+    @Override
+    public void encode(Configuration config, byte[] out) {
+        ChessConfig chess = (ChessConfig) config;
+        for (int i = 0; i < width(); i++) {
+            out[i] = 0;
+        }
+        for (int r = 0; r < rows; r++) {
+            for (int c = 0; c < columns; c++) {
+                int square = r * columns + c;
+                int code = CODES.indexOf(chess.getCell(r, c));
+                out[square >> 1] |= (byte) (code << ((square & 1) * 4));
+            }
+        }
+    }
+
+    @Override
+    public Configuration decode(byte[] in) {
+        ChessConfig config = new ChessConfig(this.board);
+        for (int r = 0; r < rows; r++) {
+            for (int c = 0; c < columns; c++) {
+                int square = r * columns + c;
+                config.set(r, c, CODES.charAt((in[square >> 1] >> ((square & 1) * 4)) & 15));
+            }
+        }
+        return config;
+    }
+
+    /**
+     * Sets up the codec in a worker process from the puzzle's file name
+     */
+    public static class Factory implements CodecFactory {
+        @Override
+        public ConfigurationCodec codec(String[] args) throws IOException {
+            return new ChessCodec(new ChessConfig(args[0]));
+        }
+    }
+}
@@ -1,7 +1,10 @@
 package puzzles.chess.model;
 
 import puzzles.clock.ClockConfig;
+import puzzles.common.solver.BackwardConfiguration;
 import puzzles.common.solver.Configuration;
+import puzzles.common.solver.MoveBoard;
+import puzzles.common.solver.SymmetricConfiguration;
 
 import java.io.BufferedInputStream;
 import java.io.BufferedReader;
@@ -11,14 +14,19 @@ import java.util.Arrays;
 import java.util.Collection;
 import java.util.LinkedList;
 import java.util.List;
+import java.util.function.Predicate;
 
 /**
- * The Chess configuration object for the chess puzzle. Implements Configuration
+ * The Chess configuration object for the chess puzzle. Implements BackwardConfiguration.
+ * Every board keeps a Zobrist key, the xor of one random number per occupied
+ * (square, piece); a move only xors its changed squares into the key of the
+ * board it came from. The key is the hash code, and boards with different
+ * keys are unequal without comparing the grids.
  *
  * @author Teju Rajbabu
  */
 
-public class ChessConfig implements Configuration {
+public class ChessConfig implements BackwardConfiguration, SymmetricConfiguration {
     /** number of columns in grid */
     private static int columnDIM;
     /** number of rows in grid */
@@ -26,6 +34,8 @@ public class ChessConfig implements Configuration {
     /** grid of characters, represents chess board */
 
     private char[][] grid;
+    /** Zobrist key of the grid, kept up to date by set() */
+    private long key;
 
     /**
      * An empty cell
@@ -37,6 +47,41 @@ public class ChessConfig implements Configuration {
      */
     private static final Character[] pieces =
             {'B', 'K', 'N', 'P', 'Q', 'R'};
+    /**
+     * How many of each piece, in the order of pieces, the loaded board started with
+     */
+    private static int[] pieceCounts = new int[pieces.length];
+    /**
+     * The pieces in the order their Zobrist numbers go, the same as ChessBoard's
+     */
+    private static final String ZOBRIST_PIECES = "BKNPQR";
+    /**
+     * The Zobrist number of each (square, piece), square row by row times the
+     * number of pieces plus the piece
+     */
+    private static long[] zobrist = new long[0];
+    /**
+     * Row and column steps of the straight lines a rook walks along
+     */
+    private static final int[][] STRAIGHT = {{-1, 0}, {1, 0}, {0, -1}, {0, 1}};
+    /**
+     * Row and column steps of the diagonals a bishop walks along
+     */
+    private static final int[][] DIAGONAL = {{-1, -1}, {-1, 1}, {1, -1}, {1, 1}};
+    /**
+     * Row and column jumps of a knight
+     */
+    private static final int[][] KNIGHT_JUMPS =
+            {{-1, -2}, {-2, -1}, {-1, 2}, {-2, 1}, {1, -2}, {2, -1}, {1, 2}, {2, 1}};
+    /**
+     * Row and column steps of a king
+     */
+    private static final int[][] KING_STEPS =
+            {{1, -1}, {1, 1}, {-1, -1}, {-1, 1}, {0, 1}, {0, -1}, {1, 0}, {-1, 0}};
+    /**
+     * Row and column steps back to where a pawn captured from, pawns only capture north
+     */
+    private static final int[][] PAWN_ORIGINS = {{1, 1}, {1, -1}};
     /**
      * A cell occupied with a bishop
      */
@@ -88,7 +133,16 @@ public class ChessConfig implements Configuration {
                 rowtick += 1;
             }
         }
-
+        pieceCounts = countPieces();
+        zobrist = new long[rowDIM * columnDIM * ZOBRIST_PIECES.length()];
+        for (int i = 0; i < zobrist.length; i++) {
+            zobrist[i] = MoveBoard.mix(i);
+        }
+        for (int r = 0; r < rowDIM; r++) {
+            for (int c = 0; c < columnDIM; c++) {
+                key ^= zobrist(r * columnDIM + c, grid[r][c]);
+            }
+        }
     }
 
     /**
@@ -96,11 +150,78 @@ public class ChessConfig implements Configuration {
      * of its instance data.
      * @param other the config to copy
      */
-    private ChessConfig(ChessConfig other) {
+    ChessConfig(ChessConfig other) {
         this.grid = new char[rowDIM][columnDIM];
         for (int r = 0; r < rowDIM; r++) {
             System.arraycopy(other.grid[r], 0, this.grid[r], 0, columnDIM);  
         }
+        this.key = other.key;
+    }
+
+    /**
+     * Gets the Zobrist number of a piece on a square
+     * @param square row times the number of columns plus column
+     * @param piece the piece, or EMPTY
+     * @return its number, 0 for an empty square
+     */
+    static long zobrist(int square, char piece) {
+        int p = ZOBRIST_PIECES.indexOf(piece);
+        return p < 0 ? 0 : zobrist[square * ZOBRIST_PIECES.length() + p];
+    }
+
+    /**
+     * Puts a piece on a square, or empties it, and xors the change into the key
+     * @param r row of the square
+     * @param c column of the square
+     * @param piece the piece, or EMPTY
+     */
+    void set(int r, int c, char piece) {
+        int square = r * columnDIM + c;
+        key ^= zobrist(square, grid[r][c]) ^ zobrist(square, piece);
+        grid[r][c] = piece;
+    }
+
+    /**
+     * Picks this board or its left-right mirror, whichever has the smaller
+     * key, and the smaller grid if the keys are the same. Pawns only move
+     * north, so the mirror is the only symmetry every move keeps
+     * @return the canonical board, this one if the mirror does not come first
+     */
+    @Override
+    public Configuration canonical() {
+        long mirrored = 0;
+        for (int r = 0; r < rowDIM; r++) {
+            for (int c = 0; c < columnDIM; c++) {
+                mirrored ^= zobrist(r * columnDIM + columnDIM - 1 - c, grid[r][c]);
+            }
+        }
+        if (mirrored > key) {
+            return this;
+        }
+        ChessConfig mirror = new ChessConfig(this);
+        for (int r = 0; r < rowDIM; r++) {
+            for (int c = 0; c < columnDIM; c++) {
+                mirror.grid[r][c] = grid[r][columnDIM - 1 - c];
+            }
+        }
+        mirror.key = mirrored;
+        if (mirrored == key && Arrays.compare(flatten(mirror.grid), flatten(grid)) >= 0) {
+            return this;
+        }
+        return mirror;
+    }
+
+    /**
+     * Lays a grid out row by row, to order grids
+     * @param grid the grid
+     * @return its squares in one array
+     */
+    private static char[] flatten(char[][] grid) {
+        char[] squares = new char[rowDIM * columnDIM];
+        for (int r = 0; r < rowDIM; r++) {
+            System.arraycopy(grid[r], 0, squares, r * columnDIM, columnDIM);
+        }
+        return squares;
     }
 
     @Override
@@ -117,6 +238,19 @@ public class ChessConfig implements Configuration {
         return counter == 1;
     }
 
+    /**
+     * Every move captures exactly one piece and the puzzle ends with one left
+     * @return number of captures left
+     */
+    @Override
+    public int heuristic() {
+        int counter = 0;
+        for (int count : countPieces()) {
+            counter += count;
+        }
+        return Math.max(counter - 1, 0);
+    }
+
     /**
      * Gets the piece/empty from the grid given a row and column
      * @param row row of the board
@@ -130,141 +264,220 @@ public class ChessConfig implements Configuration {
 
     @Override
     public Collection<Configuration> getNeighbors() {
-        // different possible moves
         LinkedList<Configuration> successors = new LinkedList<>();
+        forEachNeighbor(successors::add);
+        return successors;
+    }
+
+    /**
+     * Hands every possible move to the visitor, in getNeighbors() order,
+     * without building any list
+     * @param visitor gets each neighbor, returns false to stop
+     * @return false if the visitor stopped early; true otherwise
+     */
+    @Override
+    public boolean forEachNeighbor(Predicate<Configuration> visitor) {
         for (int r = 0; r < rowDIM; r++) {
             for (int c = 0; c < columnDIM; c++) {
-                Character cell = getCell(r, c);
-                if (cell.equals(BISHOP)) {
-                    ChessConfig BishopNE = NE(r, c, BISHOP);
-                    if (BishopNE != null) {
-                        successors.add(BishopNE);
-                    }
-                    ChessConfig BishopNW = NW(r, c, BISHOP);
-                    if (BishopNW != null) {
-                        successors.add(BishopNW);
-                    }
-                    ChessConfig BishopSE = SE(r, c, BISHOP);
-                    if (BishopSE != null) {
-                        successors.add(BishopSE);
-                    }
-                    ChessConfig BishopSW = SW(r, c, BISHOP);
-                    if (BishopSW != null) {
-                        successors.add(BishopSW);
+                char cell = getCell(r, c);
+                if (cell == BISHOP) {
+                    if (!visit(visitor, NE(r, c, BISHOP)) || !visit(visitor, NW(r, c, BISHOP)) ||
+                            !visit(visitor, SE(r, c, BISHOP)) || !visit(visitor, SW(r, c, BISHOP))) {
+                        return false;
                     }
                 }
-                if (cell.equals(ROOK)) {
-                    ChessConfig RookUp = VerticalUp(r, c, ROOK);
-                    if (RookUp != null) {
-                        successors.add(RookUp);
-                    }
-                    ChessConfig RookDown = VerticalDown(r, c, ROOK);
-                    if (RookDown != null) {
-                        successors.add(RookDown);
-                    }
-                    ChessConfig RookLeft = HorizontalLeft(r, c, ROOK);
-                    if (RookLeft != null) {
-                        successors.add(RookLeft);
-                    }
-                    ChessConfig RookRight = HorizontalRight(r, c, ROOK);
-                    if (RookRight != null) {
-                        successors.add(RookRight);
+                if (cell == ROOK) {
+                    if (!visit(visitor, VerticalUp(r, c, ROOK)) || !visit(visitor, VerticalDown(r, c, ROOK)) ||
+                            !visit(visitor, HorizontalLeft(r, c, ROOK)) ||
+                            !visit(visitor, HorizontalRight(r, c, ROOK))) {
+                        return false;
                     }
                 }
-                if (cell.equals(KNIGHT)) {
-                    LinkedList<ChessConfig> HorsieList = Horsie(r, c, KNIGHT);
-                    if (!HorsieList.isEmpty()) {
-                        for (ChessConfig config : HorsieList) {
-                            if (config != null) {
-                                successors.add(config);
-                            }
+                if (cell == KNIGHT) {
+                    for (int[] jump : KNIGHT_JUMPS) {
+                        if (!visit(visitor, leap(r, c, jump, KNIGHT))) {
+                            return false;
                         }
                     }
                 }
-                if (cell.equals(PAWN)) {
-                    ChessConfig NWPawn = NW1(r, c, PAWN);
-                    if (NWPawn != null) {
-                        successors.add(NWPawn);
-                    }
-                    ChessConfig NEPawn = NE1(r, c, PAWN);
-                    if (NEPawn != null) {
-                        successors.add(NEPawn);
+                if (cell == PAWN) {
+                    if (!visit(visitor, NW1(r, c, PAWN)) || !visit(visitor, NE1(r, c, PAWN))) {
+                        return false;
                     }
                 }
-                if (cell.equals(QUEEN)) {
-                    ChessConfig QueenUp = VerticalUp(r, c, QUEEN);
-                    if (QueenUp != null) {
-                        successors.add(QueenUp);
+                if (cell == QUEEN) {
+                    if (!visit(visitor, VerticalUp(r, c, QUEEN)) || !visit(visitor, VerticalDown(r, c, QUEEN)) ||
+                            !visit(visitor, HorizontalLeft(r, c, QUEEN)) ||
+                            !visit(visitor, HorizontalRight(r, c, QUEEN)) ||
+                            !visit(visitor, NE(r, c, QUEEN)) || !visit(visitor, NW(r, c, QUEEN)) ||
+                            !visit(visitor, SE(r, c, QUEEN)) || !visit(visitor, SW(r, c, QUEEN))) {
+                        return false;
                     }
-                    ChessConfig QueenDown = VerticalDown(r, c, QUEEN);
-                    if (QueenDown != null) {
-                        successors.add(QueenDown);
-                    }
-                    ChessConfig QueenLeft = HorizontalLeft(r, c, QUEEN);
-                    if (QueenLeft != null) {
-                        successors.add(QueenLeft);
-                    }
-                    ChessConfig QueenRight = HorizontalRight(r, c, QUEEN);
-                    if (QueenRight != null) {
-                        successors.add(QueenRight);
-                    }
-                    ChessConfig QueenNE = NE(r, c, QUEEN);
-                    if (QueenNE != null) {
-                        successors.add(QueenNE);
-                    }
-                    ChessConfig QueenNW = NW(r, c, QUEEN);
-                    if (QueenNW != null) {
-                        successors.add(QueenNW);
+                }
+                if (cell == KING) {
+                    if (!visit(visitor, SW1(r, c, KING)) || !visit(visitor, SE1(r, c, KING)) ||
+                            !visit(visitor, NW1(r, c, KING)) || !visit(visitor, NE1(r, c, KING)) ||
+                            !visit(visitor, E1(r, c, KING)) || !visit(visitor, W1(r, c, KING)) ||
+                            !visit(visitor, S1(r, c, KING)) || !visit(visitor, N1(r, c, KING))) {
+                        return false;
                     }
-                    ChessConfig QueenSE = SE(r, c, QUEEN);
-                    if (QueenSE != null) {
-                        successors.add(QueenSE);
+                }
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Hands a move to the visitor if there is one
+     * @param visitor gets the neighbor, returns false to stop
+     * @param config the moved board, or null if the move can't be made
+     * @return false if the visitor wants to stop
+     */
+    private static boolean visit(Predicate<Configuration> visitor, ChessConfig config) {
+        return config == null || visitor.test(config);
+    }
+
+
+    /**
+     * Counts the pieces on the board
+     * @return how many of each piece, in the order of pieces
+     */
+    private int[] countPieces() {
+        int[] counts = new int[pieces.length];
+        for (int r = 0; r < rowDIM; r++) {
+            for (int c = 0; c < columnDIM; c++) {
+                for (int p = 0; p < pieces.length; p++) {
+                    if (pieces[p] == grid[r][c]) {
+                        counts[p] += 1;
                     }
-                    ChessConfig QueenSW = SW(r, c, QUEEN);
-                    if (QueenSW != null) {
-                        successors.add(QueenSW);
+                }
+            }
+        }
+        return counts;
+    }
+
+    /**
+     * Every board the puzzle can end on: one piece of a kind the loaded board
+     * started with, alone on any square
+     * @return all goal configurations
+     */
+    @Override
+    public Collection<Configuration> getGoals() {
+        LinkedList<Configuration> goals = new LinkedList<>();
+        for (int p = 0; p < pieces.length; p++) {
+            if (pieceCounts[p] > 0) {
+                for (int r = 0; r < rowDIM; r++) {
+                    for (int c = 0; c < columnDIM; c++) {
+                        ChessConfig config = new ChessConfig(this);
+                        for (char[] row : config.grid) {
+                            Arrays.fill(row, EMPTY);
+                        }
+                        // an empty board has no bits in its key
+                        config.key = 0;
+                        config.set(r, c, pieces[p]);
+                        goals.add(config);
                     }
+                }
+            }
+        }
+        return goals;
+    }
 
+    /**
+     * Undoes every capture that could have led to this board. The capturing
+     * piece goes back to a square it could have moved from, and the square it
+     * stands on gets back a captured piece of any kind the loaded board still
+     * has more of.
+     * @return all configurations one capture before this one
+     */
+    @Override
+    public Collection<Configuration> getPredecessors() {
+        LinkedList<Configuration> predecessors = new LinkedList<>();
+        int[] counts = countPieces();
+        for (int r = 0; r < rowDIM; r++) {
+            for (int c = 0; c < columnDIM; c++) {
+                char cell = getCell(r, c);
+                if (cell == BISHOP || cell == QUEEN) {
+                    unslide(r, c, DIAGONAL, counts, predecessors);
                 }
-                if (cell.equals(KING)) {
-                    ChessConfig KingSW = SW1(r, c, KING);
-                    if (KingSW != null) {
-                        successors.add(KingSW);
-                    }
-                    ChessConfig KingSE = SE1(r, c, KING);
-                    if (KingSE != null) {
-                        successors.add(KingSE);
-                    }
-                    ChessConfig KingNW = NW1(r, c, KING);
-                    if (KingNW != null) {
-                        successors.add(KingNW);
-                    }
-                    ChessConfig KingNE = NE1(r, c, KING);
-                    if (KingNE != null) {
-                        successors.add(KingNE);
-                    }
-                    ChessConfig KingE = E1(r, c, KING);
-                    if (KingE != null) {
-                        successors.add(KingE);
-                    }
-                    ChessConfig KingW = W1(r, c, KING);
-                    if (KingW != null) {
-                        successors.add(KingW);
-                    }
-                    ChessConfig KingS = S1(r, c, KING);
-                    if (KingS != null) {
-                        successors.add(KingS);
-                    }
-                    ChessConfig KingN = N1(r, c, KING);
-                    if (KingN != null) {
-                        successors.add(KingN);
-                    }
+                if (cell == ROOK || cell == QUEEN) {
+                    unslide(r, c, STRAIGHT, counts, predecessors);
+                }
+                if (cell == KNIGHT) {
+                    unstep(r, c, KNIGHT_JUMPS, counts, predecessors);
+                }
+                if (cell == KING) {
+                    unstep(r, c, KING_STEPS, counts, predecessors);
+                }
+                if (cell == PAWN) {
+                    unstep(r, c, PAWN_ORIGINS, counts, predecessors);
                 }
             }
         }
-        return successors;
+        return predecessors;
     }
 
+    /**
+     * Undoes a capture by a sliding piece, which came from any empty square
+     * along a line with nothing in between
+     * @param r row position of the piece
+     * @param c column position of the piece
+     * @param lines row and column steps of the lines the piece walks along
+     * @param counts how many of each piece the board has now
+     * @param predecessors where the undone boards are added
+     */
+    private void unslide(int r, int c, int[][] lines, int[] counts, Collection<Configuration> predecessors) {
+        for (int[] line : lines) {
+            int moveRow = r + line[0];
+            int moveCol = c + line[1];
+            while (moveRow >= 0 & moveRow < rowDIM & moveCol >= 0 & moveCol < columnDIM &&
+                    getCell(moveRow, moveCol) == EMPTY) {
+                uncapture(r, c, moveRow, moveCol, counts, predecessors);
+                moveRow += line[0];
+                moveCol += line[1];
+            }
+        }
+    }
+
+    /**
+     * Undoes a capture by a piece that moves a fixed step
+     * @param r row position of the piece
+     * @param c column position of the piece
+     * @param steps row and column steps back to where the piece could have been
+     * @param counts how many of each piece the board has now
+     * @param predecessors where the undone boards are added
+     */
+    private void unstep(int r, int c, int[][] steps, int[] counts, Collection<Configuration> predecessors) {
+        for (int[] step : steps) {
+            int moveRow = r + step[0];
+            int moveCol = c + step[1];
+            if (moveRow >= 0 & moveRow < rowDIM & moveCol >= 0 & moveCol < columnDIM &&
+                    getCell(moveRow, moveCol) == EMPTY) {
+                uncapture(r, c, moveRow, moveCol, counts, predecessors);
+            }
+        }
+    }
+
+    /**
+     * Moves the piece back and puts every possible captured piece where it stood
+     * @param r row the piece captured on
+     * @param c column the piece captured on
+     * @param fromRow row the piece captured from
+     * @param fromCol column the piece captured from
+     * @param counts how many of each piece the board has now
+     * @param predecessors where the undone boards are added
+     */
+    private void uncapture(int r, int c, int fromRow, int fromCol, int[] counts,
+                           Collection<Configuration> predecessors) {
+        for (int p = 0; p < pieces.length; p++) {
+            if (counts[p] < pieceCounts[p]) {
+                ChessConfig config = new ChessConfig(this);
+                config.set(fromRow, fromCol, grid[r][c]);
+                config.set(r, c, pieces[p]);
+                predecessors.add(config);
+            }
+        }
+    }
 
     /**
      * Straight line up movement for Queen and Rook
@@ -283,8 +496,8 @@ public class ChessConfig implements Configuration {
             Character cell = getCell(moveRow, c);
             if (cellCheck(cell)) {
                 ChessConfig config = new ChessConfig(this);
-                config.grid[moveRow][c] = piece;
-                config.grid[r][c] = EMPTY;
+                config.set(moveRow, c, piece);
+                config.set(r, c, EMPTY);
                 return config;
             }
         }
@@ -308,8 +521,8 @@ public class ChessConfig implements Configuration {
             Character cell = getCell(moveRow, c);
             if (cellCheck(cell)) {
                 ChessConfig config = new ChessConfig(this);
-                config.grid[moveRow][c] = piece;
-                config.grid[r][c] = EMPTY;
+                config.set(moveRow, c, piece);
+                config.set(r, c, EMPTY);
                 return config;
             }
         }
@@ -333,8 +546,8 @@ public class ChessConfig implements Configuration {
             Character cell = getCell(r, moveCol);
             if (cellCheck(cell)) {
                 ChessConfig config = new ChessConfig(this);
-                config.grid[r][moveCol] = piece;
-                config.grid[r][c] = EMPTY;
+                config.set(r, moveCol, piece);
+                config.set(r, c, EMPTY);
                 return config;
             }
         }
@@ -358,8 +571,8 @@ public class ChessConfig implements Configuration {
             Character cell = getCell(r, moveCol);
             if (cellCheck(cell)) {
                 ChessConfig config = new ChessConfig(this);
-                config.grid[r][moveCol] = piece;
-                config.grid[r][c] = EMPTY;
+                config.set(r, moveCol, piece);
+                config.set(r, c, EMPTY);
                 return config;
             }
         }
@@ -385,8 +598,8 @@ public class ChessConfig implements Configuration {
             Character cell = getCell(moveRow, moveCol);
             if (cellCheck(cell)) {
                 ChessConfig config = new ChessConfig(this);
-                config.grid[moveRow][moveCol] = piece;
-                config.grid[r][c] = EMPTY;
+                config.set(moveRow, moveCol, piece);
+                config.set(r, c, EMPTY);
                 return config;
             }
         }
@@ -412,8 +625,8 @@ public class ChessConfig implements Configuration {
             Character cell = getCell(moveRow, moveCol);
             if (cellCheck(cell)) {
                 ChessConfig config = new ChessConfig(this);
-                config.grid[moveRow][moveCol] = piece;
-                config.grid[r][c] = EMPTY;
+                config.set(moveRow, moveCol, piece);
+                config.set(r, c, EMPTY);
                 return config;
             }
         }
@@ -439,8 +652,8 @@ public class ChessConfig implements Configuration {
             Character cell = getCell(moveRow, moveCol);
             if (cellCheck(cell)) {
                 ChessConfig config = new ChessConfig(this);
-                config.grid[moveRow][moveCol] = piece;
-                config.grid[r][c] = EMPTY;
+                config.set(moveRow, moveCol, piece);
+                config.set(r, c, EMPTY);
                 return config;
             }
         }
@@ -466,8 +679,8 @@ public class ChessConfig implements Configuration {
             Character cell = getCell(moveRow, moveCol);
             if (cellCheck(cell)) {
                 ChessConfig config = new ChessConfig(this);
-                config.grid[moveRow][moveCol] = piece;
-                config.grid[r][c] = EMPTY;
+                config.set(moveRow, moveCol, piece);
+                config.set(r, c, EMPTY);
                 return config;
             }
 
@@ -487,79 +700,39 @@ public class ChessConfig implements Configuration {
      */
     public LinkedList<ChessConfig> Horsie(int r, int c, char piece) {
         LinkedList<ChessConfig> HorsieList = new LinkedList<>();
-        if (r - 1 >= 0 & c - 2 >= 0) {
-            Character cell = getCell(r - 1, c - 2);
-            if (cellCheck(cell)) {
-                ChessConfig config = new ChessConfig(this);
-                config.grid[r - 1][c - 2] = piece;
-                config.grid[r][c] = EMPTY;
-                HorsieList.add(config);
-            }
-        }
-        if (r - 2 >= 0 & c - 1 >= 0) {
-            Character cell = getCell(r - 2, c - 1);
-            if (cellCheck(cell)) {
-                ChessConfig config = new ChessConfig(this);
-                config.grid[r - 2][c - 1] = piece;
-                config.grid[r][c] = EMPTY;
-                HorsieList.add(config);
-            }
-        }
-        if (r - 1 >= 0 & c + 2 < columnDIM) {
-            Character cell = getCell(r - 1, c + 2);
-            if (cellCheck(cell)) {
-                ChessConfig config = new ChessConfig(this);
-                config.grid[r - 1][c + 2] = piece;
-                config.grid[r][c] = EMPTY;
-                HorsieList.add(config);
-            }
-        }
-        if (r - 2 >= 0 & c + 1 < columnDIM) {
-            Character cell = getCell(r - 2, c + 1);
-            if (cellCheck(cell)) {
-                ChessConfig config = new ChessConfig(this);
-                config.grid[r - 2][c + 1] = piece;
-                config.grid[r][c] = EMPTY;
-                HorsieList.add(config);
-            }
-        }
-        if (r + 1 < rowDIM & c - 2 >= 0) {
-            Character cell = getCell(r + 1, c - 2);
-            if (cellCheck(cell)) {
-                ChessConfig config = new ChessConfig(this);
-                config.grid[r + 1][c - 2] = piece;
-                config.grid[r][c] = EMPTY;
+        for (int[] jump : KNIGHT_JUMPS) {
+            ChessConfig config = leap(r, c, jump, piece);
+            if (config != null) {
                 HorsieList.add(config);
             }
         }
-        if (r + 2 < rowDIM & c - 1 >= 0) {
-            Character cell = getCell(r + 2, c - 1);
-            if (cellCheck(cell)) {
-                ChessConfig config = new ChessConfig(this);
-                config.grid[r + 2][c - 1] = piece;
-                config.grid[r][c] = EMPTY;
-                HorsieList.add(config);
-            }
-        }
-        if (r + 1 < rowDIM & c + 2 < columnDIM) {
-            Character cell = getCell(r + 1, c + 2);
-            if (cellCheck(cell)) {
-                ChessConfig config = new ChessConfig(this);
-                config.grid[r + 1][c + 2] = piece;
-                config.grid[r][c] = EMPTY;
-                HorsieList.add(config);
-            }
-        }
-        if (r + 2 < rowDIM & c + 1 < columnDIM) {
-            Character cell = getCell(r + 2, c + 1);
+        return HorsieList;
+    }
+
+    /**
+     * One knight jump, capturing whatever stands where it lands
+     * Directly moves the piece on the board
+     * and returns a new configuration for the moved state
+     *
+     * @param r row position of the piece
+     * @param c column position of the piece
+     * @param jump row and column distance of the jump
+     * @param piece the piece being moved
+     * @return Configuration of moved board, or null if the jump can't be made
+     */
+    private ChessConfig leap(int r, int c, int[] jump, char piece) {
+        int moveRow = r + jump[0];
+        int moveCol = c + jump[1];
+        if (moveRow >= 0 & moveRow < rowDIM & moveCol >= 0 & moveCol < columnDIM) {
+            Character cell = getCell(moveRow, moveCol);
             if (cellCheck(cell)) {
                 ChessConfig config = new ChessConfig(this);
-                config.grid[r + 2][c + 1] = piece;
-                config.grid[r][c] = EMPTY;
-                HorsieList.add(config);
+                config.set(moveRow, moveCol, piece);
+                config.set(r, c, EMPTY);
+                return config;
             }
         }
-        return HorsieList;
+        return null;
     }
 
     /**
@@ -577,8 +750,8 @@ public class ChessConfig implements Configuration {
             Character cell = getCell(r - 1, c - 1);
             if (cellCheck(cell)) {
                 ChessConfig config = new ChessConfig(this);
-                config.grid[r - 1][c - 1] = piece;
-                config.grid[r][c] = EMPTY;
+                config.set(r - 1, c - 1, piece);
+                config.set(r, c, EMPTY);
                 return config;
             }
         }
@@ -600,8 +773,8 @@ public class ChessConfig implements Configuration {
             Character cell = getCell(r - 1, c + 1);
             if (cellCheck(cell)) {
                 ChessConfig config = new ChessConfig(this);
-                config.grid[r - 1][c + 1] = piece;
-                config.grid[r][c] = EMPTY;
+                config.set(r - 1, c + 1, piece);
+                config.set(r, c, EMPTY);
                 return config;
             }
         }
@@ -623,8 +796,8 @@ public class ChessConfig implements Configuration {
             Character cell = getCell(r + 1, c - 1);
             if (cellCheck(cell)) {
                 ChessConfig config = new ChessConfig(this);
-                config.grid[r + 1][c - 1] = piece;
-                config.grid[r][c] = EMPTY;
+                config.set(r + 1, c - 1, piece);
+                config.set(r, c, EMPTY);
                 return config;
             }
         }
@@ -647,8 +820,8 @@ public class ChessConfig implements Configuration {
             Character cell = getCell(r + 1, c + 1);
             if (cellCheck(cell)) {
                 ChessConfig config = new ChessConfig(this);
-                config.grid[r + 1][c + 1] = piece;
-                config.grid[r][c] = EMPTY;
+                config.set(r + 1, c + 1, piece);
+                config.set(r, c, EMPTY);
                 return config;
             }
         }
@@ -671,8 +844,8 @@ public class ChessConfig implements Configuration {
             Character cell = getCell(r - 1, c);
             if (cellCheck(cell)) {
                 ChessConfig config = new ChessConfig(this);
-                config.grid[r - 1][c] = piece;
-                config.grid[r][c] = EMPTY;
+                config.set(r - 1, c, piece);
+                config.set(r, c, EMPTY);
                 return config;
             }
         }
@@ -694,8 +867,8 @@ public class ChessConfig implements Configuration {
             Character cell = getCell(r + 1, c);
             if (cellCheck(cell)) {
                 ChessConfig config = new ChessConfig(this);
-                config.grid[r + 1][c] = piece;
-                config.grid[r][c] = EMPTY;
+                config.set(r + 1, c, piece);
+                config.set(r, c, EMPTY);
                 return config;
             }
         }
@@ -717,8 +890,8 @@ public class ChessConfig implements Configuration {
             Character cell = getCell(r, c - 1);
             if (cellCheck(cell)) {
                 ChessConfig config = new ChessConfig(this);
-                config.grid[r][c -1] = piece;
-                config.grid[r][c] = EMPTY;
+                config.set(r, c -1, piece);
+                config.set(r, c, EMPTY);
                 return config;
             }
         }
@@ -740,8 +913,8 @@ public class ChessConfig implements Configuration {
             Character cell = getCell(r, c + 1);
             if (cellCheck(cell)) {
                 ChessConfig config = new ChessConfig(this);
-                config.grid[r][c + 1] = piece;
-                config.grid[r][c] = EMPTY;
+                config.set(r, c + 1, piece);
+                config.set(r, c, EMPTY);
                 return config;
             }
         }
@@ -773,11 +946,11 @@ public class ChessConfig implements Configuration {
     }
 
     /**
-     * gives a hashcode for the grid
+     * gives a hashcode for the grid, folded from its Zobrist key
      * @return integer hashcode
      */
     public int hashCode() {
-        return Arrays.deepHashCode(grid);
+        return (int) (key ^ (key >>> 32));
     }
     /**
      * Checks if two grids are the same
@@ -786,7 +959,7 @@ public class ChessConfig implements Configuration {
     public boolean equals(Object other) {
         if (other instanceof Configuration) {
             ChessConfig otherconfig = (ChessConfig) other;
-            if (Arrays.deepEquals(otherconfig.grid, this.grid)){
+            if (otherconfig.key == this.key && Arrays.deepEquals(otherconfig.grid, this.grid)){
                 return true;
             } else {
                 return false;
@@ -796,7 +969,8 @@ public class ChessConfig implements Configuration {
     }
 
     /**
-     * Gets the config grid or chess board
+     * Gets the config grid or chess board. Writing to it leaves the key
+     * stale, so squares are changed with set()
      * @return the chess board
      */
     public char[][] getGrid(){
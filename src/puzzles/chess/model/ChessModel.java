@@ -2,23 +2,30 @@ package puzzles.chess.model;
 
 import puzzles.chess.solver.Chess;
 import puzzles.common.Observer;
+import puzzles.common.solver.AsyncSolver;
 import puzzles.common.solver.Configuration;
 import puzzles.common.solver.Solver;
 
 import java.io.File;
 import java.io.IOException;
+import java.time.Instant;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.LinkedList;
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
 
 /**
- * The model for the chess solitaire puzzle
+ * The model for the chess solitaire puzzle. Hints are solved on another
+ * thread, so every method that reads or changes the board holds the lock of
+ * the model, and a board is never changed in place, a move makes a new one.
  *
  * @author Teju Rajbabu
  */
 public class ChessModel {
 
+    /** most seconds a hint may search before giving up */
+    private static final long HINT_SECONDS = 10;
     /** grid of characters, represents chess board */
     private char[][] grid;
     /** The starting configuration of the loaded file */
@@ -37,6 +44,10 @@ public class ChessModel {
     private int rows;
     /** the current configuration */
     private ChessConfig config;
+    /** the hint being solved, done once the observers heard the result, or null */
+    private CompletableFuture<Void> pending;
+    /** the search of the hint being solved, or null */
+    private AsyncSolver.Solve search;
 
     /** the non-path file name */
     private String filepath;
@@ -123,8 +134,11 @@ public class ChessModel {
      */
 
     public void load(String filepath) throws IOException{
-        config = new ChessConfig(filepath);
-        this.filepath = filepath;
+        stopHint();
+        synchronized (this) {
+            config = new ChessConfig(filepath);
+            this.filepath = filepath;
+        }
         String[] filename = filepath.split("/");
         alertObservers("Loaded: " + filename[2]);
     }
@@ -136,8 +150,11 @@ public class ChessModel {
      * @throws IOException if the file is not found or there are errors reading
      */
     public void load(File filepath) throws IOException{
-        config = new ChessConfig(filepath.getPath());
-        this.filepath = filepath.getName();
+        stopHint();
+        synchronized (this) {
+            config = new ChessConfig(filepath.getPath());
+            this.filepath = filepath.getName();
+        }
         alertObservers("Loaded: " + filepath.getName());
     }
 
@@ -148,7 +165,7 @@ public class ChessModel {
      * @param y1 y coordinate of piece
      */
 
-    public void waitingRoom (int x1, int y1){
+    public synchronized void waitingRoom (int x1, int y1){
         if (firstRow == -1 & firstCol == -1){
             validSelection(x1, y1);
 
@@ -169,19 +186,19 @@ public class ChessModel {
      * @param x2 x coordinate of second piece
      * @param y2 y coordinate of second piece
      */
-    public void enterMove(int x1, int y1, int x2, int y2){
+    public synchronized void enterMove(int x1, int y1, int x2, int y2){
         nextmoves = config.getNeighbors();
         char piece = config.getGrid()[x1][y1];
-        char piece2 = config.getGrid()[x2][y2];
         if (config.cellCheck(piece)){
-            config.getGrid()[x1][y1] = EMPTY;
-            config.getGrid()[x2][y2] = piece;
-            if (nextmoves.contains(config)){
+            // a new board, a hint may be searching from the current one
+            ChessConfig moved = new ChessConfig(config);
+            moved.set(x1, y1, EMPTY);
+            moved.set(x2, y2, piece);
+            if (nextmoves.contains(moved)){
                 // successful capture
+                config = moved;
                 alertObservers("Captured from (" + x1 + ", " + y1 + ")  to (" + x2 + ", " + y2 + ")");
             } else {
-                config.getGrid()[x1][y1] = piece;
-                config.getGrid()[x2][y2] = piece2;
                 alertObservers("Can't capture from (" + x1 + ", " + y1 + ")  to (" + x2 + ", " + y2 + ")");
             }
         } else {
@@ -195,7 +212,7 @@ public class ChessModel {
      * @param x1 x coordinate of piece
      * @param y1 y coordinate of piece
      */
-    public void validSelection(int x1, int y1) {
+    public synchronized void validSelection(int x1, int y1) {
         char piece = this.config.getGrid()[x1][y1];
         if (!config.isSolution()){
             if( this.config.cellCheck(piece)){
@@ -226,7 +243,7 @@ public class ChessModel {
      * @return config's columns
      */
 
-    public int getColumns() {
+    public synchronized int getColumns() {
         return config.getColumnDIM();
     }
 
@@ -234,7 +251,7 @@ public class ChessModel {
      * Gets the rows of the current config
      * @return config's rows
      */
-    public int getRows() {
+    public synchronized int getRows() {
         return config.getRowDIM();
     }
 
@@ -242,30 +259,72 @@ public class ChessModel {
      * Gets the grid of the current config
      * @return config's grid
      */
-    public char[][] getGrid() {
+    public synchronized char[][] getGrid() {
         return config.getGrid();
     }
 
     /**
-     * Solves the configuration to get a list of the path to the solution.
-     * uses the path to get the most efficient next step of the puzzle and
-     * changes the current configuration to that step.
+     * starts a solver on another thread for the current configuration and
+     * reports its progress to the observers. Once it finds the shortest path
+     * it changes the current configuration to the next step, unless the board
+     * changed meanwhile. The search gives up after HINT_SECONDS, and loading
+     * a board cancels it.
+     *
+     * @return the hint, done once the observers heard the result
      */
+    public synchronized CompletableFuture<Void> solving(){
+        if (config.isSolution()){
+            this.alertObservers("Already solved!");
+            return CompletableFuture.completedFuture(null);
+        }
+        if (pending != null && !pending.isDone()){
+            this.alertObservers("Already solving...");
+            return pending;
+        }
+        ChessConfig start = this.config;
+        this.alertObservers("Solving...");
+        search = AsyncSolver.solve(start, Solver.Mode.SEQUENTIAL, 0, Instant.now().plusSeconds(HINT_SECONDS),
+                progress -> this.alertObservers("Solving... " + progress));
+        pending = search.thenAccept(solver -> solved(start, solver));
+        return pending;
+    }
+
+    /**
+     * cancels the hint being solved, if any, and waits for its search to
+     * stop, since loading a board rewrites the board tables it reads. Called
+     * without the lock, the search may still be reporting its progress.
+     */
+    private void stopHint(){
+        AsyncSolver.Solve running;
+        synchronized (this) {
+            running = search;
+            search = null;
+        }
+        if (running != null) {
+            running.stop();
+        }
+    }
 
-    public void solving(){
-        Solver solver = new Solver(this.config);
+    /**
+     * called on the solver thread once a hint is done, moves to the next
+     * step if the board is still the one the hint started from
+     *
+     * @param start the configuration the hint started from
+     * @param solver the finished search
+     */
+    private synchronized void solved(ChessConfig start, Solver solver){
+        if (this.config != start){
+            return;
+        }
         shortestlist = solver.getShortestlist();
-        if (!config.isSolution()){
-            if (!shortestlist.isEmpty()){
-                this.config = (ChessConfig) shortestlist.get(1);
-                this.alertObservers("Next step!");
-            } else {
-                this.alertObservers("No solution");
-            }
+        if (solver.getStatus() == Solver.Status.CUT_OFF) {
+            this.alertObservers("No hint found in time!");
+        } else if (!shortestlist.isEmpty()){
+            this.config = (ChessConfig) shortestlist.get(1);
+            this.alertObservers("Next step!");
         } else {
-            this.alertObservers("Already solved!");
+            this.alertObservers("No solution");
         }
-
     }
 
     /**
@@ -276,7 +335,7 @@ public class ChessModel {
     }
 
     @Override
-    public String toString() {
+    public synchronized String toString() {
         StringBuilder string = new StringBuilder();
         string.append("   ");
         for (int c= 0; c < this.config.getColumnDIM(); c++){
@@ -0,0 +1,207 @@
+package puzzles.chess.model;
+
+import puzzles.common.solver.Combinations;
+import puzzles.common.solver.Configuration;
+import puzzles.common.solver.ConfigurationRanker;
+
+/**
+ * Numbers chess boards densely for the RankedSolver. Every move is a capture,
+ * so a board of the puzzle holds at most as many of each piece as the loaded
+ * one, and only on squares the loaded one has a piece on. Boards are grouped
+ * by how many of each piece they hold; within a group the rank is the rank of
+ * the set of occupied squares among the loaded ones times the number of ways
+ * to lay the pieces out, plus the rank of the pieces in row order among
+ * those layouts.
+ *
+ * @author Teju Rajbabu
+ */
+public class ChessRanker implements ConfigurationRanker {
+    /** The pieces in the order their counts and layouts are ranked */
+    private static final String PIECES = "BKNPQR";
+
+    /** the loaded board, copied to unrank boards */
+    private final ChessConfig board;
+    /** number of rows on the board */
+    private final int rows;
+    /** number of columns on the board */
+    private final int columns;
+    /** the squares the loaded board has a piece on, row by row */
+    private final int[] occupied;
+    /** the place of each square in occupied, or -1 if the loaded board has it empty */
+    private final int[] places;
+    /** how many of each piece the loaded board holds */
+    private final int[] bounds;
+    /** the group number step of one more of each piece */
+    private final int[] strides;
+    /** binomial coefficients up to the number of squares */
+    private final long[][] binomials;
+    /** the first rank of each group, and the size at the end */
+    private final long[] offsets;
+
+    /**
+     * Creates a ranker for boards made from the loaded one
+     * @param config the loaded board
+     */
+    public ChessRanker(ChessConfig config) {
+        this.board = new ChessConfig(config);
+        this.rows = config.getRowDIM();
+        this.columns = config.getColumnDIM();
+        this.bounds = new int[PIECES.length()];
+        this.places = new int[rows * columns];
+        int taken = 0;
+        for (int r = 0; r < rows; r++) {
+            for (int c = 0; c < columns; c++) {
+                int p = PIECES.indexOf(config.getCell(r, c));
+                places[r * columns + c] = p >= 0 ? taken++ : -1;
+                if (p >= 0) {
+                    bounds[p] += 1;
+                }
+            }
+        }
+        this.occupied = new int[taken];
+        for (int square = 0; square < places.length; square++) {
+            if (places[square] >= 0) {
+                occupied[places[square]] = square;
+            }
+        }
+        this.strides = new int[PIECES.length()];
+        int groups = 1;
+        for (int p = 0; p < PIECES.length(); p++) {
+            strides[p] = groups;
+            groups *= bounds[p] + 1;
+        }
+        this.binomials = Combinations.binomials(occupied.length);
+        this.offsets = new long[groups + 1];
+        int[] counts = new int[PIECES.length()];
+        for (int group = 0; group < groups; group++) {
+            int pieces = 0;
+            for (int p = 0; p < PIECES.length(); p++) {
+                counts[p] = group / strides[p] % (bounds[p] + 1);
+                pieces += counts[p];
+            }
+            long size = Combinations.multiply(Combinations.choose(binomials, occupied.length, pieces), layouts(counts));
+            offsets[group + 1] = Combinations.add(offsets[group], size);
+        }
+    }
+
+    @Override
+    public long size() {
+        return offsets[offsets.length - 1];
+    }
+
+    @Override
+    public long rank(Configuration config) {
+        ChessConfig chess = (ChessConfig) config;
+        int[] squares = new int[occupied.length];
+        int[] layout = new int[occupied.length];
+        int[] counts = new int[PIECES.length()];
+        int pieces = 0;
+        for (int r = 0; r < rows; r++) {
+            for (int c = 0; c < columns; c++) {
+                int p = PIECES.indexOf(chess.getCell(r, c));
+                if (p >= 0) {
+                    if (counts[p] == bounds[p] || places[r * columns + c] < 0) {
+                        return NONE;
+                    }
+                    counts[p] += 1;
+                    squares[pieces] = places[r * columns + c];
+                    layout[pieces++] = p;
+                }
+            }
+        }
+        int group = 0;
+        for (int p = 0; p < PIECES.length(); p++) {
+            group += counts[p] * strides[p];
+        }
+        long layoutRank = 0;
+        for (int i = 0; i < pieces; i++) {
+            // every layout with a smaller piece here comes first
+            for (int p = 0; p < layout[i]; p++) {
+                if (counts[p] > 0) {
+                    counts[p] -= 1;
+                    layoutRank += layouts(counts);
+                    counts[p] += 1;
+                }
+            }
+            counts[layout[i]] -= 1;
+        }
+        return offsets[group] + Combinations.rank(squares, pieces, binomials) * layouts(group) + layoutRank;
+    }
+
+    @Override
+    public Configuration unrank(long rank) {
+        int low = 0;
+        int high = offsets.length - 2;
+        // the last group whose first rank is not past the rank
+        while (low < high) {
+            int middle = (low + high + 1) >>> 1;
+            if (offsets[middle] <= rank) {
+                low = middle;
+            } else {
+                high = middle - 1;
+            }
+        }
+        int group = low;
+        rank -= offsets[group];
+        int[] counts = new int[PIECES.length()];
+        int pieces = 0;
+        for (int p = 0; p < PIECES.length(); p++) {
+            counts[p] = group / strides[p] % (bounds[p] + 1);
+            pieces += counts[p];
+        }
+        long ways = layouts(counts);
+        int[] squares = new int[pieces];
+        Combinations.unrank(rank / ways, pieces, occupied.length, binomials, squares);
+        long layoutRank = rank % ways;
+        ChessConfig config = new ChessConfig(this.board);
+        for (int r = 0; r < rows; r++) {
+            for (int c = 0; c < columns; c++) {
+                config.set(r, c, config.EMPTY);
+            }
+        }
+        for (int i = 0; i < pieces; i++) {
+            for (int p = 0; p < PIECES.length(); p++) {
+                if (counts[p] > 0) {
+                    counts[p] -= 1;
+                    long before = layouts(counts);
+                    if (layoutRank < before) {
+                        int square = occupied[squares[i]];
+                        config.set(square / columns, square % columns, PIECES.charAt(p));
+                        break;
+                    }
+                    layoutRank -= before;
+                    counts[p] += 1;
+                }
+            }
+        }
+        return config;
+    }
+
+    /**
+     * Counts the ways to lay out the pieces of a group
+     * @param group the group number
+     * @return the multinomial coefficient of its piece counts
+     */
+    private long layouts(int group) {
+        int[] counts = new int[PIECES.length()];
+        for (int p = 0; p < PIECES.length(); p++) {
+            counts[p] = group / strides[p] % (bounds[p] + 1);
+        }
+        return layouts(counts);
+    }
+
+    /**
+     * Counts the ways to lay out pieces in a row
+     * @param counts how many of each piece
+     * @return the multinomial coefficient of the counts
+     */
+    private long layouts(int[] counts) {
+        long ways = 1;
+        int pieces = 0;
+        for (int count : counts) {
+            pieces += count;
+            ways = Combinations.multiply(ways, Combinations.choose(binomials, pieces, count));
+        }
+        return ways;
+    }
+}
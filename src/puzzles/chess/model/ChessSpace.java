@@ -0,0 +1,252 @@
+package puzzles.chess.model;
+
+import puzzles.common.solver.Configuration;
+import puzzles.common.solver.LongStateSpace;
+
+import java.util.Arrays;
+
+/**
+ * Packs chess boards into longs for the long-based solvers. Every move
+ * captures, so a piece only ever lands on a square that was taken, and the
+ * taken squares of any board are some of the squares taken at the start.
+ * Those starting squares, numbered row by row, each get three bits: 0 when
+ * empty, otherwise one more than the position of the piece in "BKNPQR".
+ *
+ * @author Teju Rajbabu
+ */
+public class ChessSpace implements LongStateSpace {
+    /** The pieces, a piece's code is one more than its place in this string */
+    private static final String PIECES = "BKNPQR";
+    /** Bits per starting square */
+    private static final int BITS = 3;
+
+    /** the loaded board, copied to decode states */
+    private final ChessConfig board;
+    /** number of rows */
+    private final int rows;
+    /** number of columns */
+    private final int columns;
+    /** row of each starting square */
+    private final int[] slotRow;
+    /** column of each starting square */
+    private final int[] slotColumn;
+    /** per starting square and queen line, the starting squares along it, nearest first */
+    private final int[][][] rays;
+    /** per starting square and knight jump, the starting square landed on or -1 */
+    private final int[][] knightTo;
+    /** per starting square and king step, the starting square landed on or -1 */
+    private final int[][] kingTo;
+    /** per starting square and pawn step, the starting square landed on or -1 */
+    private final int[][] pawnTo;
+
+    /**
+     * Numbers the starting squares of a board and works out every move between them
+     * @param config the loaded board
+     */
+    public ChessSpace(ChessConfig config) {
+        if (!fits(config)) {
+            throw new IllegalArgumentException("Board has too many pieces to encode");
+        }
+        this.board = new ChessConfig(config);
+        this.rows = config.getRowDIM();
+        this.columns = config.getColumnDIM();
+        int[][] slotAt = new int[rows][columns];
+        int slots = 0;
+        for (int r = 0; r < rows; r++) {
+            for (int c = 0; c < columns; c++) {
+                slotAt[r][c] = config.getCell(r, c) == '.' ? -1 : slots++;
+            }
+        }
+        this.slotRow = new int[slots];
+        this.slotColumn = new int[slots];
+        this.rays = new int[slots][ChessBoard.QUEEN_LINES.length][];
+        this.knightTo = new int[slots][];
+        this.kingTo = new int[slots][];
+        this.pawnTo = new int[slots][];
+        for (int r = 0; r < rows; r++) {
+            for (int c = 0; c < columns; c++) {
+                int slot = slotAt[r][c];
+                if (slot == -1) {
+                    continue;
+                }
+                slotRow[slot] = r;
+                slotColumn[slot] = c;
+                for (int l = 0; l < ChessBoard.QUEEN_LINES.length; l++) {
+                    int[] line = ChessBoard.QUEEN_LINES[l];
+                    int[] ray = new int[Math.max(rows, columns)];
+                    int length = 0;
+                    for (int row = r + line[0], column = c + line[1];
+                         row >= 0 && row < rows && column >= 0 && column < columns;
+                         row += line[0], column += line[1]) {
+                        if (slotAt[row][column] != -1) {
+                            ray[length++] = slotAt[row][column];
+                        }
+                    }
+                    rays[slot][l] = Arrays.copyOf(ray, length);
+                }
+                knightTo[slot] = targets(slotAt, r, c, ChessBoard.KNIGHT_JUMPS);
+                kingTo[slot] = targets(slotAt, r, c, ChessBoard.KING_STEPS);
+                pawnTo[slot] = targets(slotAt, r, c, ChessBoard.PAWN_STEPS);
+            }
+        }
+    }
+
+    /**
+     * Finds the starting squares a jumping or stepping piece can land on
+     * @param slotAt the starting square number of every square, or -1
+     * @param r row of the piece
+     * @param c column of the piece
+     * @param reach row and column offsets of the squares it can reach
+     * @return per offset, the starting square there or -1
+     */
+    private int[] targets(int[][] slotAt, int r, int c, int[][] reach) {
+        int[] to = new int[reach.length];
+        for (int i = 0; i < reach.length; i++) {
+            int row = r + reach[i][0];
+            int column = c + reach[i][1];
+            boolean onBoard = row >= 0 && row < rows && column >= 0 && column < columns;
+            to[i] = onBoard ? slotAt[row][column] : -1;
+        }
+        return to;
+    }
+
+    /**
+     * Checks if a board can be packed: three bits per piece must fit in 63 bits
+     * @param config the loaded board
+     * @return true if the board fits in a long
+     */
+    public static boolean fits(ChessConfig config) {
+        int pieces = 0;
+        for (int r = 0; r < config.getRowDIM(); r++) {
+            for (int c = 0; c < config.getColumnDIM(); c++) {
+                if (config.getCell(r, c) != '.') {
+                    pieces += 1;
+                }
+            }
+        }
+        return pieces * BITS <= 63;
+    }
+
+    @Override
+    public long encode(Configuration config) {
+        ChessConfig chess = (ChessConfig) config;
+        long state = 0;
+        for (int slot = 0; slot < slotRow.length; slot++) {
+            long code = PIECES.indexOf(chess.getCell(slotRow[slot], slotColumn[slot])) + 1;
+            state |= code << (BITS * slot);
+        }
+        return state;
+    }
+
+    @Override
+    public Configuration decode(long state) {
+        ChessConfig config = new ChessConfig(this.board);
+        for (int slot = 0; slot < slotRow.length; slot++) {
+            int code = code(state, slot);
+            config.set(slotRow[slot], slotColumn[slot], code == 0 ? '.' : PIECES.charAt(code - 1));
+        }
+        return config;
+    }
+
+    @Override
+    public boolean isSolution(long state) {
+        int pieces = 0;
+        for (int slot = 0; slot < slotRow.length; slot++) {
+            if (code(state, slot) != 0) {
+                pieces += 1;
+            }
+        }
+        return pieces == 1;
+    }
+
+    @Override
+    public int successors(long state, long[] out) {
+        int count = 0;
+        for (int slot = 0; slot < slotRow.length; slot++) {
+            int code = code(state, slot);
+            if (code == 0) {
+                continue;
+            }
+            switch (PIECES.charAt(code - 1)) {
+                case 'B' -> count = slides(state, slot, 4, 8, out, count);
+                case 'R' -> count = slides(state, slot, 0, 4, out, count);
+                case 'Q' -> count = slides(state, slot, 0, 8, out, count);
+                case 'N' -> count = steps(state, slot, knightTo[slot], out, count);
+                case 'K' -> count = steps(state, slot, kingTo[slot], out, count);
+                case 'P' -> count = steps(state, slot, pawnTo[slot], out, count);
+                default -> { }
+            }
+        }
+        return count;
+    }
+
+    /**
+     * Writes the captures of a piece sliding along some of the queen lines
+     * @param state an encoded board
+     * @param slot starting square the piece is on
+     * @param first the first queen line it slides along
+     * @param last one past the last queen line it slides along
+     * @param out gets the captures
+     * @param count captures already in out
+     * @return captures in out now
+     */
+    private int slides(long state, int slot, int first, int last, long[] out, int count) {
+        for (int l = first; l < last; l++) {
+            for (int to : rays[slot][l]) {
+                if (code(state, to) != 0) {
+                    out[count++] = capture(state, slot, to);
+                    break;
+                }
+            }
+        }
+        return count;
+    }
+
+    /**
+     * Writes the captures of a piece that jumps or steps straight to its square
+     * @param state an encoded board
+     * @param slot starting square the piece is on
+     * @param reach the starting squares it can land on, or -1
+     * @param out gets the captures
+     * @param count captures already in out
+     * @return captures in out now
+     */
+    private int steps(long state, int slot, int[] reach, long[] out, int count) {
+        for (int to : reach) {
+            if (to != -1 && code(state, to) != 0) {
+                out[count++] = capture(state, slot, to);
+            }
+        }
+        return count;
+    }
+
+    /**
+     * Moves a piece onto another, taking it
+     * @param state an encoded board
+     * @param from starting square the piece leaves
+     * @param to starting square of the piece taken
+     * @return the encoded board after the capture
+     */
+    private long capture(long state, int from, int to) {
+        long mask = (1L << BITS) - 1;
+        long code = state >>> (BITS * from) & mask;
+        state &= ~(mask << (BITS * from));
+        state &= ~(mask << (BITS * to));
+        return state | code << (BITS * to);
+    }
+
+    /**
+     * Gets the code of a starting square
+     * @param state an encoded board
+     * @param slot the starting square
+     * @return 0 if empty, otherwise one more than the piece's place in PIECES
+     */
+    private static int code(long state, int slot) {
+        return (int) (state >>> (BITS * slot)) & ((1 << BITS) - 1);
+    }
+
+    @Override
+    public int maxSuccessors() {
+        return slotRow.length * ChessBoard.QUEEN_LINES.length;
+    }
+}
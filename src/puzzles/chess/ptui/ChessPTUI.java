@@ -75,7 +75,7 @@ public class ChessPTUI implements Observer<ChessModel, String> {
                     } catch (IOException e){};
                 }
                 else if (words[0].startsWith("h")){
-                    this.model.solving();
+                    this.model.solving().join();
                 } else if (words[0].startsWith("l")) {
                     try {
                         this.model.load(words[1]);
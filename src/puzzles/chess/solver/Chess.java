@@ -3,6 +3,7 @@ package puzzles.chess.solver;
 import puzzles.chess.model.ChessConfig;
 import puzzles.clock.ClockConfig;
 import puzzles.common.solver.Configuration;
+import puzzles.common.solver.QuerySolver;
 import puzzles.common.solver.Solver;
 
 import java.io.IOException;
@@ -14,8 +15,10 @@ import java.io.IOException;
  */
 public class Chess {
     public static void main(String[] args) {
-        if (args.length != 1) {
-            System.out.println("Usage: java Chess filename");
+        if (args.length == 2 && (args[0].equals("--solvable") || args[0].equals("--distance"))) {
+            verdict(args[0], args[1]);
+        } else if (args.length != 1) {
+            System.out.println("Usage: java Chess [--solvable | --distance] filename");
         } else {
             try {
                 ChessConfig init = new ChessConfig(args[0]);
@@ -39,4 +42,21 @@ public class Chess {
             }
         }
     }
+
+    /**
+     * prints on one line whether the puzzle can be solved, or in how many
+     * moves, without the boards along the way
+     * @param flag "--solvable" or "--distance"
+     * @param filename the puzzle file
+     */
+    private static void verdict(String flag, String filename) {
+        try {
+            ChessConfig init = new ChessConfig(filename);
+            QuerySolver solve = new QuerySolver(init,
+                    flag.equals("--solvable") ? QuerySolver.Query.SOLVABLE : QuerySolver.Query.DISTANCE);
+            System.out.println(filename + ": " + solve.getVerdict());
+        } catch (IOException ioe){
+            System.out.println("IOException");
+        }
+    }
 }
@@ -1,7 +1,7 @@
 package puzzles.clock;
 
 import puzzles.common.solver.Configuration;
-import puzzles.common.solver.Solver;
+import puzzles.common.solver.LongSolver;
 
 /**
  * The main program for the clock puzzle
@@ -22,7 +22,7 @@ public class Clock {
             int end = Integer.parseInt(args[2]);
             Configuration starter = new ClockConfig(hours, start, end);
             System.out.println(starter);
-            Solver solve = new Solver(starter);
+            LongSolver solve = new LongSolver(new ClockSpace(hours, end), starter);
             int step = 0;
             System.out.println("Total configs: " + solve.getTotalConfigs());
             System.out.println("Unique configs: " + solve.getUniqueConfigs());
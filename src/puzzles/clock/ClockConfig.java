@@ -1,16 +1,18 @@
 package puzzles.clock;
 
+import puzzles.common.solver.BackwardConfiguration;
 import puzzles.common.solver.Configuration;
 
 import java.util.Collection;
 import java.util.LinkedList;
+import java.util.function.Predicate;
 
 /**
- * The Clock configuration object for the clock puzzle. Implements Configuration
+ * The Clock configuration object for the clock puzzle. Implements BackwardConfiguration
  *
  * @author Teju Rajbabu
  */
-public class ClockConfig implements Configuration {
+public class ClockConfig implements BackwardConfiguration {
     /** hour to start at or current hour */
     private int start;
     /** hour to end at */
@@ -38,6 +40,16 @@ public class ClockConfig implements Configuration {
         return (this.start == this.end);
     }
 
+    /**
+     * Ring distance between the current hour and the end hour, each move turns the hand by one
+     * @return fewest moves left
+     */
+    @Override
+    public int heuristic() {
+        int distance = Math.abs(this.start - end);
+        return Math.min(distance, hours - distance);
+    }
+
     @Override
     public Collection<Configuration> getNeighbors() {
         LinkedList<Configuration> successors = new LinkedList<Configuration>();
@@ -48,6 +60,28 @@ public class ClockConfig implements Configuration {
         return successors;
     }
 
+    @Override
+    public boolean forEachNeighbor(Predicate<Configuration> visitor) {
+        return visitor.test(new ClockConfig(hours, decrement(start), end)) &&
+                visitor.test(new ClockConfig(hours, increment(start), end));
+    }
+
+    @Override
+    public Collection<Configuration> getGoals() {
+        LinkedList<Configuration> goals = new LinkedList<Configuration>();
+        goals.add(new ClockConfig(hours, end, end));
+        return goals;
+    }
+
+    /**
+     * The hand can go both ways, so the moves that lead here are the moves from here
+     * @return All the predecessors
+     */
+    @Override
+    public Collection<Configuration> getPredecessors() {
+        return getNeighbors();
+    }
+
     /**
      * increased hour by one. If it is at max hours, then it turns it back to 1
      * @param hour given integer hour
@@ -0,0 +1,66 @@
+package puzzles.clock;
+
+import puzzles.common.solver.CodecFactory;
+import puzzles.common.solver.Configuration;
+import puzzles.common.solver.ConfigurationCodec;
+import puzzles.common.solver.LongCodec;
+import puzzles.common.solver.LongStateSpace;
+
+/**
+ * The clock puzzle as encoded states for the LongSolver. A state is just the current hour.
+ *
+ * @author Teju Rajbabu
+ */
+public class ClockSpace implements LongStateSpace {
+    /** number of hours on clock from 1 */
+    private final int hours;
+    /** hour to end at */
+    private final int end;
+
+    /**
+     * Creates the encoding of a clock puzzle
+     * @param hours number of hours on clock from 1
+     * @param end hour to end at
+     */
+    public ClockSpace(int hours, int end) {
+        this.hours = hours;
+        this.end = end;
+    }
+
+    @Override
+    public long encode(Configuration config) {
+        return ((ClockConfig) config).getStart();
+    }
+
+    @Override
+    public Configuration decode(long state) {
+        return new ClockConfig(hours, (int) state, end);
+    }
+
+    @Override
+    public boolean isSolution(long state) {
+        return state == end;
+    }
+
+    @Override
+    public int successors(long state, long[] out) {
+        out[0] = state == 1 ? hours : state - 1;
+        out[1] = state == hours ? 1 : state + 1;
+        return 2;
+    }
+
+    @Override
+    public int maxSuccessors() {
+        return 2;
+    }
+
+    /**
+     * Sets up the codec in a worker process from the hours and the end hour
+     */
+    public static class Factory implements CodecFactory {
+        @Override
+        public ConfigurationCodec codec(String[] args) {
+            return new LongCodec(new ClockSpace(Integer.parseInt(args[0]), Integer.parseInt(args[1])));
+        }
+    }
+}
@@ -0,0 +1,219 @@
+package puzzles.common.solver;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+
+/**
+ * A best-first Solver that always expands the configuration with the lowest
+ * moves-so-far plus Configuration.heuristic(). With a heuristic that never
+ * overestimates, the path it finds is as short as the BFS one.
+ *
+ * @author Teju Rajbabu & Jamie Antal
+ */
+public class AStarSolver {
+    /** Hashmap of every configuration made and its search node */
+    private HashMap<Configuration, Node> map;
+    /** Binary heap of the open nodes, ordered by f then by deepest first */
+    private Node[] heap;
+    /** Number of nodes in the heap */
+    private int size;
+    /** Array list of configurations, makes the list of the shortest path */
+    private ArrayList<Configuration> shortestlist;
+    /** Total number of configurations made */
+    private int TotalConfigs;
+    /** Total number of unique configurations made */
+    private int UniqueConfigs;
+
+    /**
+     * Starts up the A* Solver
+     * @param Config configuration of the puzzle to solve
+     */
+    public AStarSolver(Configuration Config) {
+        map = new HashMap<Configuration, Node>();
+        heap = new Node[16];
+        size = 0;
+        shortestlist = new ArrayList<Configuration>();
+        Node start = new Node(Config, null, 0, Config.heuristic());
+        map.put(Config, start);
+        push(start);
+        TotalConfigs = 1;
+        UniqueConfigs = 1;
+        while (size > 0) {
+            Node removed = pop();
+            if (removed.config.isSolution()) {
+                buildPath(removed);
+                break;
+            }
+            for (Configuration fig : removed.config.getNeighbors()) {
+                TotalConfigs += 1;
+                Node node = map.get(fig);
+                if (node == null) {
+                    UniqueConfigs += 1;
+                    node = new Node(fig, removed, removed.g + 1, removed.g + 1 + fig.heuristic());
+                    map.put(fig, node);
+                    push(node);
+                } else if (node.index >= 0 && removed.g + 1 < node.g) {
+                    // a shorter way into a node still in the heap
+                    node.f -= node.g - (removed.g + 1);
+                    node.g = removed.g + 1;
+                    node.parent = removed;
+                    siftUp(node.index);
+                }
+            }
+        }
+    }
+
+    /**
+     * Walks the parent nodes back from the solution and stores the path
+     * from start to solution in the shortest list
+     * @param removed the solution node
+     */
+    private void buildPath(Node removed) {
+        ArrayList<Configuration> fliplist = new ArrayList<Configuration>();
+        while (removed != null) {
+            fliplist.add(removed.config);
+            removed = removed.parent;
+        }
+        for (int i = fliplist.size(); i-- > 0;){
+            shortestlist.add(fliplist.get(i));
+        }
+    }
+
+    /**
+     * Adds a node to the heap
+     * @param node the new node
+     */
+    private void push(Node node) {
+        if (size == heap.length) {
+            heap = Arrays.copyOf(heap, size * 2);
+        }
+        heap[size] = node;
+        node.index = size;
+        size += 1;
+        siftUp(node.index);
+    }
+
+    /**
+     * Removes the best node from the heap and marks it closed
+     * @return the node with the lowest f
+     */
+    private Node pop() {
+        Node best = heap[0];
+        size -= 1;
+        heap[0] = heap[size];
+        heap[0].index = 0;
+        heap[size] = null;
+        if (size > 0) {
+            siftDown(0);
+        }
+        best.index = -1;
+        return best;
+    }
+
+    /**
+     * Moves a node up until its parent in the heap is no worse
+     * @param i heap index of the node
+     */
+    private void siftUp(int i) {
+        Node node = heap[i];
+        while (i > 0) {
+            int up = (i - 1) >>> 1;
+            if (!node.before(heap[up])) {
+                break;
+            }
+            heap[i] = heap[up];
+            heap[i].index = i;
+            i = up;
+        }
+        heap[i] = node;
+        node.index = i;
+    }
+
+    /**
+     * Moves a node down until both its children in the heap are no better
+     * @param i heap index of the node
+     */
+    private void siftDown(int i) {
+        Node node = heap[i];
+        while (2 * i + 1 < size) {
+            int down = 2 * i + 1;
+            if (down + 1 < size && heap[down + 1].before(heap[down])) {
+                down += 1;
+            }
+            if (!heap[down].before(node)) {
+                break;
+            }
+            heap[i] = heap[down];
+            heap[i].index = i;
+            i = down;
+        }
+        heap[i] = node;
+        node.index = i;
+    }
+
+    /**
+     * A configuration in the search with its cost so far and estimated total
+     */
+    private static class Node {
+        /** the configuration this node stands for */
+        private final Configuration config;
+        /** node this one was reached from */
+        private Node parent;
+        /** moves from the start */
+        private int g;
+        /** moves from the start plus the heuristic */
+        private int f;
+        /** position in the heap, -1 once expanded */
+        private int index;
+
+        /**
+         * Creates a search node
+         * @param config the configuration
+         * @param parent node it was reached from
+         * @param g moves from the start
+         * @param f moves from the start plus the heuristic
+         */
+        Node(Configuration config, Node parent, int g, int f) {
+            this.config = config;
+            this.parent = parent;
+            this.g = g;
+            this.f = f;
+            this.index = -1;
+        }
+
+        /**
+         * Should this node be expanded before the other one? Lowest f first, and
+         * on a tie the deeper node, which is closer to a solution.
+         * @param other the other node
+         * @return true if this node comes first
+         */
+        boolean before(Node other) {
+            return f < other.f || (f == other.f && g > other.g);
+        }
+    }
+
+    /**
+     * gets the list of shortest path to result
+     * @return ArrayList of configurations of shortest path
+     */
+    public ArrayList<Configuration> getShortestlist(){
+        return shortestlist;
+    }
+
+    /**
+     * gets number of total configurations
+     * @return integer total configurations made
+     */
+    public int getTotalConfigs() {
+        return TotalConfigs;
+    }
+
+    /**
+     * gets number of unique configurations
+     * @return integer unique configurations made
+     */
+    public int getUniqueConfigs(){
+        return UniqueConfigs;
+    }
+}
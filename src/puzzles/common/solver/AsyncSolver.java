@@ -0,0 +1,117 @@
+package puzzles.common.solver;
+
+import java.time.Instant;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.function.Consumer;
+
+/**
+ * Runs Solvers off the caller's thread, so a UI stays responsive while it
+ * searches. Solves share a small fixed pool of daemon threads; cancelling the
+ * returned future stops its search at the next budget check, and stop() also
+ * waits for the search to leave its thread. The future
+ * completes, and progress is reported, on the solving thread, so a UI must
+ * hand them over to its own thread.
+ *
+ * @author Teju Rajbabu & Jamie Antal
+ */
+public class AsyncSolver {
+    /** Most solves running at once */
+    public static final int THREADS = 2;
+    /** Least milliseconds between two progress reports */
+    public static final long PROGRESS_MILLIS = 250;
+
+    /** The threads the solves run on */
+    private static final ExecutorService EXECUTOR = Executors.newFixedThreadPool(THREADS, task -> {
+        Thread thread = new Thread(task, "solver");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    /**
+     * Not made, it only has static methods
+     */
+    private AsyncSolver() {
+    }
+
+    /**
+     * Starts a solve on the solver threads
+     * @param Config configuration of the puzzle to solve
+     * @param mode how to search
+     * @param maxStates most unique configurations, 0 for no limit
+     * @param deadline when to give up, null for never
+     * @param progress gets a progress report every PROGRESS_MILLIS or so, null for none
+     * @return the finished Solver; cancelling it cuts the search off
+     */
+    public static Solve solve(Configuration Config, Solver.Mode mode, long maxStates,
+                              Instant deadline, Consumer<SolveProgress> progress) {
+        CancelToken token = new CancelToken();
+        SolveLimits limits = new SolveLimits(maxStates, deadline, 0, token, progress, PROGRESS_MILLIS);
+        Solve future = new Solve(token);
+        EXECUTOR.execute(() -> {
+            try {
+                if (!token.isCancelled()) {
+                    future.complete(new Solver(Config, mode, limits));
+                }
+            } catch (RuntimeException | Error e) {
+                future.completeExceptionally(e);
+            } finally {
+                future.stopped.countDown();
+            }
+        });
+        return future;
+    }
+
+    /**
+     * A solve started by solve(), completed with the finished Solver
+     */
+    public static class Solve extends CompletableFuture<Solver> {
+        /** the token the search checks at every budget check */
+        private final CancelToken token;
+        /** counted down once the search has left its thread, finished or not */
+        private final CountDownLatch stopped;
+
+        /**
+         * Creates the future of a solve
+         * @param token the token the search checks
+         */
+        private Solve(CancelToken token) {
+            this.token = token;
+            this.stopped = new CountDownLatch(1);
+        }
+
+        /**
+         * Cancels the search too, it stops at its next budget check
+         * @param mayInterruptIfRunning ignored, the search is never interrupted
+         * @return true if the future was not done yet
+         */
+        @Override
+        public boolean cancel(boolean mayInterruptIfRunning) {
+            token.cancel();
+            return super.cancel(mayInterruptIfRunning);
+        }
+
+        /**
+         * Cancels the solve and waits until its search is no longer running,
+         * so whatever it reads can be changed safely. A solve still waiting
+         * for a thread is waited for until it gets one and gives up at once.
+         */
+        public void stop() {
+            cancel(false);
+            boolean interrupted = false;
+            while (true) {
+                try {
+                    stopped.await();
+                    break;
+                } catch (InterruptedException e) {
+                    interrupted = true;
+                }
+            }
+            if (interrupted) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+}
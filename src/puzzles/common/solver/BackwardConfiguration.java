@@ -0,0 +1,23 @@
+package puzzles.common.solver;
+
+import java.util.Collection;
+
+/**
+ * A configuration whose puzzle can also be searched backward, from the goals
+ * toward the start. The bidirectional solver uses these methods on top of the
+ * ones from Configuration.
+ */
+public interface BackwardConfiguration extends Configuration {
+    /**
+     * Get every configuration that solves the puzzle this configuration belongs to.
+     * @return All the goal configurations
+     */
+    Collection<Configuration> getGoals();
+
+    /**
+     * Get the collection of configurations that have the current configuration
+     * as one of their neighbors. It is the inverse of getNeighbors().
+     * @return All the predecessors
+     */
+    Collection<Configuration> getPredecessors();
+}
@@ -0,0 +1,143 @@
+package puzzles.common.solver;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedList;
+
+/**
+ * A Solver that searches forward from the start and backward from the goals at
+ * the same time, always growing the smaller of the two frontiers by one whole
+ * layer, and joins the two halves of the path where they meet
+ *
+ * @author Teju Rajbabu & Jamie Antal
+ */
+public class BidirectionalSolver {
+    /** Hashmap of every configuration reached from the start and its predecessor */
+    private HashMap<Configuration, Configuration> forward;
+    /** Hashmap of every configuration reached from a goal and its successor toward that goal */
+    private HashMap<Configuration, Configuration> backward;
+    /** Array list of configurations, makes the list of the shortest path */
+    private ArrayList<Configuration> shortestlist;
+    /** Total number of configurations made */
+    private int TotalConfigs;
+    /** Total number of unique configurations made */
+    private int UniqueConfigs;
+
+    /**
+     * Starts up the bidirectional Solver. The goals are seeded from the start
+     * configuration itself, so it works for a single known goal (Clock, Strings)
+     * as well as for a goal set (Hoppers, Chess).
+     * @param Config configuration of the puzzle to solve
+     */
+    public BidirectionalSolver(BackwardConfiguration Config) {
+        forward = new HashMap<Configuration, Configuration>();
+        backward = new HashMap<Configuration, Configuration>();
+        shortestlist = new ArrayList<Configuration>();
+        LinkedList<Configuration> front = new LinkedList<Configuration>();
+        LinkedList<Configuration> back = new LinkedList<Configuration>();
+        forward.put(Config, null);
+        front.add(Config);
+        TotalConfigs = 1;
+        UniqueConfigs = 1;
+        for (Configuration goal : Config.getGoals()) {
+            TotalConfigs += 1;
+            if (!backward.containsKey(goal)) {
+                UniqueConfigs += 1;
+                backward.put(goal, null);
+                back.add(goal);
+            }
+        }
+
+        // no layer has been expanded yet, so the start only meets a goal if it is one
+        Configuration meet = backward.containsKey(Config) ? Config : null;
+        while (meet == null && !front.isEmpty() && !back.isEmpty()) {
+            if (front.size() <= back.size()) {
+                meet = expand(front, forward, backward, false);
+            } else {
+                meet = expand(back, backward, forward, true);
+            }
+        }
+        if (meet != null) {
+            buildPath(meet);
+        }
+    }
+
+    /**
+     * Expands one whole layer of a side. Before the layer the two visited maps
+     * were disjoint, so the first child found on the other side lies on a
+     * shortest path.
+     * @param frontier the layer to expand, replaced by the next layer
+     * @param mine the visited map of the side being expanded
+     * @param other the visited map of the other side
+     * @param reverse true when expanding from the goals with predecessors
+     * @return the configuration where both sides meet, null if they have not met
+     */
+    private Configuration expand(LinkedList<Configuration> frontier,
+                                 HashMap<Configuration, Configuration> mine,
+                                 HashMap<Configuration, Configuration> other, boolean reverse) {
+        int size = frontier.size();
+        for (int i = 0; i < size; i++) {
+            Configuration removed = frontier.remove(0);
+            Iterable<Configuration> figs = reverse ?
+                    ((BackwardConfiguration) removed).getPredecessors() : removed.getNeighbors();
+            for (Configuration fig : figs) {
+                TotalConfigs += 1;
+                if (!mine.containsKey(fig)) {
+                    UniqueConfigs += 1;
+                    mine.put(fig, removed);
+                    frontier.add(fig);
+                    if (other.containsKey(fig)) {
+                        return fig;
+                    }
+                }
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Joins the path from the start to the meeting configuration with the path
+     * from the meeting configuration to its goal
+     * @param meet configuration reached by both sides
+     */
+    private void buildPath(Configuration meet) {
+        ArrayList<Configuration> fliplist = new ArrayList<Configuration>();
+        Configuration removed = meet;
+        while (removed != null) {
+            fliplist.add(removed);
+            removed = forward.get(removed);
+        }
+        for (int i = fliplist.size(); i-- > 0;){
+            shortestlist.add(fliplist.get(i));
+        }
+        removed = backward.get(meet);
+        while (removed != null) {
+            shortestlist.add(removed);
+            removed = backward.get(removed);
+        }
+    }
+
+    /**
+     * gets the list of shortest path to result
+     * @return ArrayList of configurations of shortest path
+     */
+    public ArrayList<Configuration> getShortestlist(){
+        return shortestlist;
+    }
+
+    /**
+     * gets number of total configurations
+     * @return integer total configurations made
+     */
+    public int getTotalConfigs() {
+        return TotalConfigs;
+    }
+
+    /**
+     * gets number of unique configurations
+     * @return integer unique configurations made
+     */
+    public int getUniqueConfigs(){
+        return UniqueConfigs;
+    }
+}
@@ -0,0 +1,190 @@
+package puzzles.common.solver;
+
+import java.util.ArrayDeque;
+
+/**
+ * A search that remembers visited states as bits instead of keeping them, in
+ * the manner of SPIN's supertrace. Each encoded state sets k bits of one big
+ * bit array, picked by k hashes, and a state whose k bits are all set
+ * already counts as visited. That can be wrong: a new state whose bits were
+ * all set by others is dropped, along with whatever only it leads to. The
+ * chance of that grows with how full the array is, and is reported, so the
+ * census and solvability answers are right with a known probability for a
+ * few bits per state.
+ * No parents are kept, so there is no path: use it to ask whether a puzzle
+ * can be solved or how many states it has, and the BFS Solver for the moves.
+ * States waiting to be expanded sit on a depth-first stack, encoded.
+ *
+ * @author Teju Rajbabu & Jamie Antal
+ */
+public class BitstateSolver {
+    /** Bits used by default, 2^30 bits is 128 MB */
+    public static final long DEFAULT_BITS = 1L << 30;
+    /** Hashes per state used by default */
+    public static final int DEFAULT_HASHES = 3;
+
+    /** encoding of the puzzle */
+    private final ConfigurationCodec codec;
+    /** the bit array */
+    private final long[] words;
+    /** number of bits minus one */
+    private final long mask;
+    /** number of bits set per state */
+    private final int hashes;
+    /** number of bits set so far */
+    private long setBits;
+    /** the expected number of states wrongly dropped so far */
+    private double expectedOmissions;
+    /** true once a solution was reached */
+    private boolean solvable;
+    /** Total number of configurations made */
+    private long TotalConfigs;
+    /** Total number of unique configurations made, as far as the bits can tell */
+    private long UniqueConfigs;
+
+    /**
+     * Searches with the default number of bits and hashes
+     * @param Config configuration of the puzzle to search
+     * @param codec fixed-width encoding of the puzzle
+     * @param census true to visit every reachable state; false to stop at the first solution
+     */
+    public BitstateSolver(Configuration Config, ConfigurationCodec codec, boolean census) {
+        this(Config, codec, DEFAULT_BITS, DEFAULT_HASHES, census);
+    }
+
+    /**
+     * Searches the puzzle
+     * @param Config configuration of the puzzle to search
+     * @param codec fixed-width encoding of the puzzle
+     * @param bits size of the bit array, rounded up to a power of two
+     * @param hashes bits set per state
+     * @param census true to visit every reachable state; false to stop at the first solution
+     */
+    public BitstateSolver(Configuration Config, ConfigurationCodec codec, long bits, int hashes, boolean census) {
+        this.codec = codec;
+        long size = Math.max(Long.SIZE, Long.highestOneBit(bits - 1) << 1);
+        this.words = new long[(int) (size / Long.SIZE)];
+        this.mask = size - 1;
+        this.hashes = hashes;
+        ArrayDeque<byte[]> stack = new ArrayDeque<byte[]>();
+        byte[] start = new byte[codec.width()];
+        codec.encode(Config, start);
+        add(start);
+        stack.push(start);
+        TotalConfigs = 1;
+        UniqueConfigs = 1;
+        while (!stack.isEmpty()) {
+            Configuration removed = codec.decode(stack.pop());
+            if (removed.isSolution()) {
+                solvable = true;
+                if (!census) {
+                    break;
+                }
+            }
+            for (Configuration fig : removed.getNeighbors()) {
+                TotalConfigs += 1;
+                byte[] state = new byte[codec.width()];
+                codec.encode(fig, state);
+                if (add(state)) {
+                    UniqueConfigs += 1;
+                    stack.push(state);
+                }
+            }
+        }
+    }
+
+    /**
+     * Sets the bits of a state
+     * @param state the encoded state
+     * @return true if one of its bits was clear, so the state is new
+     */
+    private boolean add(byte[] state) {
+        // the chance a new state like this one finds all of its bits already set
+        double omission = getOmissionProbability();
+        long h1 = hash(state, 0x9E3779B97F4A7C15L);
+        long h2 = hash(state, 0xC2B2AE3D27D4EB4FL) | 1;
+        boolean fresh = false;
+        for (int i = 0; i < hashes; i++) {
+            long bit = (h1 + i * h2) & mask;
+            int word = (int) (bit >>> 6);
+            long flag = 1L << bit;
+            if ((words[word] & flag) == 0) {
+                words[word] |= flag;
+                setBits += 1;
+                fresh = true;
+            }
+        }
+        if (fresh) {
+            expectedOmissions += omission;
+        }
+        return fresh;
+    }
+
+    /**
+     * Hashes an encoded state
+     * @param state the encoded state
+     * @param seed picks one of many independent hashes
+     * @return 64 well-mixed bits
+     */
+    private static long hash(byte[] state, long seed) {
+        long h = seed;
+        for (byte b : state) {
+            h = (h ^ (b & 0xFF)) * 0x100000001B3L;
+        }
+        h = (h ^ (h >>> 33)) * 0xFF51AFD7ED558CCDL;
+        h = (h ^ (h >>> 33)) * 0xC4CEB9FE1A85EC53L;
+        return h ^ (h >>> 33);
+    }
+
+    /**
+     * Did the search reach a solution? A false answer is only as sure as
+     * getExpectedOmissions() allows.
+     * @return true if a solution was reached
+     */
+    public boolean isSolvable() {
+        return solvable;
+    }
+
+    /**
+     * gets how full the bit array is
+     * @return bits set over bits in the array
+     */
+    public double getFillRatio() {
+        return (double) setBits / (mask + 1);
+    }
+
+    /**
+     * gets the chance the next new state would be wrongly dropped, the fill
+     * ratio to the power of the number of hashes
+     * @return omission probability at the current fill
+     */
+    public double getOmissionProbability() {
+        return Math.pow(getFillRatio(), hashes);
+    }
+
+    /**
+     * gets the expected number of states wrongly dropped during the search,
+     * estimated from the states that did get in. States only reachable
+     * through a dropped one are lost too and are not counted here.
+     * @return sum of the omission probability at each new state
+     */
+    public double getExpectedOmissions() {
+        return expectedOmissions;
+    }
+
+    /**
+     * gets number of total configurations
+     * @return total configurations made
+     */
+    public long getTotalConfigs() {
+        return TotalConfigs;
+    }
+
+    /**
+     * gets number of unique configurations, states wrongly dropped are not counted
+     * @return unique configurations made
+     */
+    public long getUniqueConfigs(){
+        return UniqueConfigs;
+    }
+}
@@ -0,0 +1,26 @@
+package puzzles.common.solver;
+
+/**
+ * A flag another thread can raise to stop a running solve
+ *
+ * @author Teju Rajbabu & Jamie Antal
+ */
+public class CancelToken {
+    /** true once cancel() was called */
+    private volatile boolean cancelled;
+
+    /**
+     * Asks every solve holding this token to stop
+     */
+    public void cancel() {
+        cancelled = true;
+    }
+
+    /**
+     * Was the solve asked to stop?
+     * @return true once cancel() was called
+     */
+    public boolean isCancelled() {
+        return cancelled;
+    }
+}
@@ -0,0 +1,20 @@
+package puzzles.common.solver;
+
+import java.io.IOException;
+
+/**
+ * Builds the ConfigurationCodec of a puzzle from command-line style
+ * arguments, so a worker process started by the PartitionedSolver can set up
+ * the same puzzle. Implementations need a public no-argument constructor.
+ *
+ * @author Teju Rajbabu & Jamie Antal
+ */
+public interface CodecFactory {
+    /**
+     * Sets up the puzzle and its codec
+     * @param args what the puzzle needs, such as its file name
+     * @return the codec of the puzzle
+     * @throws IOException if the puzzle can't be read
+     */
+    ConfigurationCodec codec(String[] args) throws IOException;
+}
@@ -0,0 +1,106 @@
+package puzzles.common.solver;
+
+/**
+ * Binomial coefficients and the combinatorial number system, for ranking
+ * sets of board squares. A set of k distinct items c1 &lt; c2 &lt; ... &lt; ck
+ * has rank C(c1, 1) + C(c2, 2) + ... + C(ck, k), which numbers the k-sets
+ * of n items densely from 0 to C(n, k) - 1.
+ * Sums and products saturate at Long.MAX_VALUE instead of overflowing, so a
+ * count too big for a long stays too big.
+ *
+ * @author Teju Rajbabu & Jamie Antal
+ */
+public final class Combinations {
+    /**
+     * Not to be made, it only has static methods
+     */
+    private Combinations() {
+    }
+
+    /**
+     * Builds Pascal's triangle
+     * @param n largest number of items
+     * @return table whose [i][j] is C(i, j) for every j up to i up to n
+     */
+    public static long[][] binomials(int n) {
+        long[][] table = new long[n + 1][];
+        for (int i = 0; i <= n; i++) {
+            table[i] = new long[i + 1];
+            table[i][0] = 1;
+            table[i][i] = 1;
+            for (int j = 1; j < i; j++) {
+                table[i][j] = add(table[i - 1][j - 1], table[i - 1][j]);
+            }
+        }
+        return table;
+    }
+
+    /**
+     * Looks up C(i, j) in a table from binomials(), 0 when j is more than i
+     * @param binomials the table
+     * @param i number of items
+     * @param j number chosen
+     * @return the binomial coefficient
+     */
+    public static long choose(long[][] binomials, int i, int j) {
+        return j > i ? 0 : binomials[i][j];
+    }
+
+    /**
+     * Ranks a set of items
+     * @param items the items, smallest first
+     * @param count how many of the items to rank
+     * @param binomials a table from binomials() covering the largest item
+     * @return the rank of the set among all sets of count items
+     */
+    public static long rank(int[] items, int count, long[][] binomials) {
+        long rank = 0;
+        for (int i = 0; i < count; i++) {
+            rank += choose(binomials, items[i], i + 1);
+        }
+        return rank;
+    }
+
+    /**
+     * Makes the set of items with a rank
+     * @param rank the rank among all sets of count items
+     * @param count how many items the set has
+     * @param n number of items to choose from
+     * @param binomials a table from binomials() covering n
+     * @param out array the items are written into, smallest first
+     */
+    public static void unrank(long rank, int count, int n, long[][] binomials, int[] out) {
+        int item = n;
+        for (int i = count; i > 0; i--) {
+            // the largest item left is the largest one whose binomial fits in the rank
+            do {
+                item -= 1;
+            } while (choose(binomials, item, i) > rank);
+            out[i - 1] = item;
+            rank -= choose(binomials, item, i);
+        }
+    }
+
+    /**
+     * Adds two counts
+     * @param a a count, not negative
+     * @param b a count, not negative
+     * @return their sum, or Long.MAX_VALUE if it does not fit
+     */
+    public static long add(long a, long b) {
+        long sum = a + b;
+        return sum < 0 ? Long.MAX_VALUE : sum;
+    }
+
+    /**
+     * Multiplies two counts
+     * @param a a count, not negative
+     * @param b a count, not negative
+     * @return their product, or Long.MAX_VALUE if it does not fit
+     */
+    public static long multiply(long a, long b) {
+        long high = Math.multiplyHigh(a, b);
+        long product = a * b;
+        return high != 0 || product < 0 ? Long.MAX_VALUE : product;
+    }
+}
@@ -0,0 +1,386 @@
+package puzzles.common.solver;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * A LongParentTable many threads can add to at once without locks. States
+ * and parents sit in two long arrays with linear probing, and a state claims
+ * its slot with a compare-and-set on the key. Its parent is published right
+ * after; a reader that finds the key before the parent waits for it.
+ * When a table is half full a table twice the size is hung off it, and
+ * every thread that adds to it from then on helps move it: it claims chunks
+ * of old slots, marks the free ones MOVED and copies the taken ones over.
+ * A search that meets a MOVED slot carries on in the bigger table, and an
+ * add to a moving table marks the free slot ending its probe chain MOVED
+ * before going on, so a state can't land in both tables. No thread ever
+ * waits for another to finish the move.
+ * Each thread keeps its own counters, read with getThreadStatistics().
+ *
+ * @author Teju Rajbabu & Jamie Antal
+ */
+public class ConcurrentLongParentTable {
+    /** Returned by getParent() for a state not held */
+    public static final long ABSENT = -1L;
+    /** Marks a free slot, states are never negative */
+    private static final long EMPTY = -1L;
+    /** Marks a free slot whose table was moved to a bigger one */
+    private static final long MOVED = -2L;
+    /** The parent of a state whose parent is still being written */
+    private static final long PENDING = Long.MIN_VALUE;
+    /** Slots one thread claims at a time when moving a table */
+    private static final int CHUNK = 1024;
+    /** Atomic access to the elements of a long array */
+    private static final VarHandle SLOTS = MethodHandles.arrayElementVarHandle(long[].class);
+
+    /** the table new searches start in */
+    private volatile Table root;
+    /** number of states held */
+    private final LongAdder size;
+    /** the counters of the calling thread */
+    private final ThreadLocal<Statistics> local;
+    /** the counters of every thread that used the table */
+    private final ConcurrentLinkedQueue<Statistics> statistics;
+
+    /**
+     * Creates an empty table
+     */
+    public ConcurrentLongParentTable() {
+        this(1 << 10);
+    }
+
+    /**
+     * Creates an empty table
+     * @param capacity slots to start with, rounded up to a power of two
+     */
+    public ConcurrentLongParentTable(int capacity) {
+        root = new Table(Math.max(CHUNK, Integer.highestOneBit(capacity - 1) << 1));
+        size = new LongAdder();
+        statistics = new ConcurrentLinkedQueue<Statistics>();
+        local = ThreadLocal.withInitial(() -> {
+            Statistics mine = new Statistics(Thread.currentThread().getName());
+            statistics.add(mine);
+            return mine;
+        });
+    }
+
+    /**
+     * Adds a state unless it is already held
+     * @param state the state, not negative
+     * @param parent its parent, any value but Long.MIN_VALUE
+     * @return true if the state was added; false if it was already there
+     */
+    public boolean putIfAbsent(long state, long parent) {
+        Statistics mine = local.get();
+        boolean added = put(root, state, parent, mine);
+        if (added) {
+            size.increment();
+            mine.inserts += 1;
+        } else {
+            mine.duplicates += 1;
+        }
+        return added;
+    }
+
+    /**
+     * Gets the parent of a state. A parent equal to ABSENT can't be told
+     * from a missing state, use contains() for that.
+     * @param state the state
+     * @return its parent, or ABSENT if the state is not held
+     */
+    public long getParent(long state) {
+        Table table = root;
+        while (table != null) {
+            int slot = LongParentTable.slot(state, table.mask);
+            for (int probes = 0; probes <= table.mask; probes++) {
+                long key = (long) SLOTS.getVolatile(table.keys, slot);
+                if (key == state) {
+                    return parentAt(table, slot);
+                }
+                if (key == EMPTY) {
+                    return ABSENT;
+                }
+                if (key == MOVED) {
+                    break;
+                }
+                slot = (slot + 1) & table.mask;
+            }
+            table = table.next.get();
+        }
+        return ABSENT;
+    }
+
+    /**
+     * Does the table hold the state?
+     * @param state the state
+     * @return true if it was added before
+     */
+    public boolean contains(long state) {
+        Table table = root;
+        while (table != null) {
+            int slot = LongParentTable.slot(state, table.mask);
+            for (int probes = 0; probes <= table.mask; probes++) {
+                long key = (long) SLOTS.getVolatile(table.keys, slot);
+                if (key == state) {
+                    return true;
+                }
+                if (key == EMPTY) {
+                    return false;
+                }
+                if (key == MOVED) {
+                    break;
+                }
+                slot = (slot + 1) & table.mask;
+            }
+            table = table.next.get();
+        }
+        return false;
+    }
+
+    /**
+     * gets the number of states held
+     * @return states held
+     */
+    public long size() {
+        return size.sum();
+    }
+
+    /**
+     * gets the counters of every thread that used the table; they are read
+     * while the threads may still be writing them
+     * @return one snapshot per thread
+     */
+    public List<Statistics> getThreadStatistics() {
+        return new ArrayList<Statistics>(statistics);
+    }
+
+    /**
+     * Adds a state to a table or, once the table was moved, to its successor
+     * @param table the table to start in
+     * @param state the state, not negative
+     * @param parent its parent
+     * @param mine the calling thread's counters
+     * @return true if the state was added; false if it was already there
+     */
+    private boolean put(Table table, long state, long parent, Statistics mine) {
+        while (true) {
+            boolean moving = table.next.get() != null;
+            if (moving) {
+                help(table, mine);
+            }
+            int slot = LongParentTable.slot(state, table.mask);
+            int probes = 0;
+            while (probes <= table.mask) {
+                long key = (long) SLOTS.getVolatile(table.keys, slot);
+                if (key == state) {
+                    return false;
+                }
+                if (key == MOVED) {
+                    break;
+                }
+                if (key == EMPTY && moving) {
+                    // close the probe chain so no thread can still add the state here
+                    if (SLOTS.compareAndSet(table.keys, slot, EMPTY, MOVED)) {
+                        break;
+                    }
+                    mine.casFailures += 1;
+                    continue;
+                }
+                if (key == EMPTY) {
+                    if (SLOTS.compareAndSet(table.keys, slot, EMPTY, state)) {
+                        SLOTS.setRelease(table.parents, slot, parent);
+                        // keep the table at most half full so probes stay short
+                        if (table.used.incrementAndGet() * 2 > table.keys.length && table.next.get() == null) {
+                            table.next.compareAndSet(null, new Table(table.keys.length * 2));
+                        }
+                        return true;
+                    }
+                    // another thread took the slot, look at what it put there
+                    mine.casFailures += 1;
+                    continue;
+                }
+                mine.probes += 1;
+                probes += 1;
+                slot = (slot + 1) & table.mask;
+            }
+            if (table.next.get() == null) {
+                table.next.compareAndSet(null, new Table(table.keys.length * 2));
+            }
+            help(table, mine);
+            table = table.next.get();
+        }
+    }
+
+    /**
+     * Moves chunks of a table into its successor until no chunk is left to claim
+     * @param table the table being moved
+     * @param mine the calling thread's counters
+     */
+    private void help(Table table, Statistics mine) {
+        Table next = table.next.get();
+        // every add to a moving table comes through here, so look before
+        // claiming to keep the counter from running past the end
+        while (table.claimed.get() < table.keys.length) {
+            int start = table.claimed.getAndAdd(CHUNK);
+            if (start >= table.keys.length) {
+                return;
+            }
+            int end = Math.min(start + CHUNK, table.keys.length);
+            for (int slot = start; slot < end; slot++) {
+                if (SLOTS.compareAndSet(table.keys, slot, EMPTY, MOVED)) {
+                    continue;
+                }
+                // once taken a slot keeps its state, so the key read now is final
+                long key = (long) SLOTS.getVolatile(table.keys, slot);
+                if (key != MOVED) {
+                    put(next, key, parentAt(table, slot), mine);
+                }
+            }
+            mine.migratedSlots += end - start;
+            if (table.migrated.addAndGet(end - start) == table.keys.length) {
+                while (root == table) {
+                    root = next;
+                }
+            }
+        }
+    }
+
+    /**
+     * Reads the parent in a slot, waiting for the thread that took the slot
+     * to write it
+     * @param table the table
+     * @param slot a taken slot
+     * @return the parent
+     */
+    private static long parentAt(Table table, int slot) {
+        long parent;
+        while ((parent = (long) SLOTS.getAcquire(table.parents, slot)) == PENDING) {
+            Thread.onSpinWait();
+        }
+        return parent;
+    }
+
+    /**
+     * One generation of the table: the arrays and the state of its move
+     */
+    private static final class Table {
+        /** the states, EMPTY or MOVED where free */
+        final long[] keys;
+        /** the parent of the state in the same slot */
+        final long[] parents;
+        /** number of slots minus one */
+        final int mask;
+        /** slots taken, copies from the table before included */
+        final AtomicLong used;
+        /** the bigger table this one is moving into, null until it fills up */
+        final AtomicReference<Table> next;
+        /** slots claimed by moving threads so far */
+        final AtomicInteger claimed;
+        /** slots moved so far */
+        final AtomicInteger migrated;
+
+        /**
+         * Creates an empty table
+         * @param capacity number of slots, a power of two
+         */
+        Table(int capacity) {
+            keys = new long[capacity];
+            parents = new long[capacity];
+            Arrays.fill(keys, EMPTY);
+            Arrays.fill(parents, PENDING);
+            mask = capacity - 1;
+            used = new AtomicLong();
+            next = new AtomicReference<Table>();
+            claimed = new AtomicInteger();
+            migrated = new AtomicInteger();
+        }
+    }
+
+    /**
+     * The counters of one thread. Only that thread writes them.
+     */
+    public static final class Statistics {
+        /** name of the thread */
+        private final String thread;
+        /** states the thread added */
+        private long inserts;
+        /** states the thread tried to add that were already there */
+        private long duplicates;
+        /** taken slots the thread stepped over */
+        private long probes;
+        /** slots another thread took first */
+        private long casFailures;
+        /** slots the thread moved to a bigger table */
+        private long migratedSlots;
+
+        /**
+         * Creates zeroed counters
+         * @param thread name of the thread
+         */
+        Statistics(String thread) {
+            this.thread = thread;
+        }
+
+        /**
+         * gets the name of the thread
+         * @return thread name
+         */
+        public String getThread() {
+            return thread;
+        }
+
+        /**
+         * gets the states the thread added
+         * @return inserts
+         */
+        public long getInserts() {
+            return inserts;
+        }
+
+        /**
+         * gets the states the thread tried to add that were already there
+         * @return duplicates
+         */
+        public long getDuplicates() {
+            return duplicates;
+        }
+
+        /**
+         * gets the taken slots the thread stepped over
+         * @return probes
+         */
+        public long getProbes() {
+            return probes;
+        }
+
+        /**
+         * gets the slots another thread took first
+         * @return compare-and-set failures
+         */
+        public long getCasFailures() {
+            return casFailures;
+        }
+
+        /**
+         * gets the slots the thread moved to a bigger table
+         * @return migrated slots
+         */
+        public long getMigratedSlots() {
+            return migratedSlots;
+        }
+
+        @Override
+        public String toString() {
+            return thread + ": " + inserts + " inserts, " + duplicates + " duplicates, " + probes + " probes, "
+                    + casFailures + " CAS failures, " + migratedSlots + " slots migrated";
+        }
+    }
+}
@@ -0,0 +1,191 @@
+package puzzles.common.solver;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Random;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Times adding the same states to a ConcurrentLongParentTable, a
+ * LongParentTable, a HashMap of Configurations like the sequential solver
+ * keeps, and a ConcurrentHashMap of Configurations like the parallel one
+ * keeps. Every state is added twice, so half the adds find it already there,
+ * the way a BFS meets states it has seen.
+ *
+ * @author Teju Rajbabu & Jamie Antal
+ */
+public class ConcurrentLongParentTableBenchmark {
+    /**
+     * A configuration that is nothing but its encoded state, so the maps pay
+     * for objects and hashCode() the way they do with a real puzzle
+     */
+    private static final class State implements Configuration {
+        /** the encoded state */
+        private final long state;
+
+        /**
+         * Creates a state
+         * @param state the encoded state
+         */
+        State(long state) {
+            this.state = state;
+        }
+
+        @Override
+        public boolean isSolution() {
+            return false;
+        }
+
+        @Override
+        public Collection<Configuration> getNeighbors() {
+            return Collections.emptyList();
+        }
+
+        @Override
+        public boolean equals(Object other) {
+            return other instanceof State && ((State) other).state == state;
+        }
+
+        @Override
+        public int hashCode() {
+            return Long.hashCode(state);
+        }
+
+        @Override
+        public String toString() {
+            return Long.toString(state);
+        }
+    }
+
+    /**
+     * Adds the states to a ConcurrentLongParentTable from several threads
+     * @param states the states, each listed twice
+     * @param threads number of adding threads
+     * @return states held at the end
+     * @throws InterruptedException if interrupted while waiting for the threads
+     */
+    private static long concurrent(long[] states, int threads) throws InterruptedException {
+        ConcurrentLongParentTable table = new ConcurrentLongParentTable();
+        Thread[] workers = new Thread[threads];
+        for (int t = 0; t < threads; t++) {
+            int from = (int) ((long) states.length * t / threads);
+            int to = (int) ((long) states.length * (t + 1) / threads);
+            workers[t] = new Thread(() -> {
+                for (int i = from; i < to; i++) {
+                    table.putIfAbsent(states[i], i);
+                }
+            });
+            workers[t].start();
+        }
+        for (Thread worker : workers) {
+            worker.join();
+        }
+        return table.size();
+    }
+
+    /**
+     * Adds the states to a LongParentTable
+     * @param states the states, each listed twice
+     * @return states held at the end
+     */
+    private static long single(long[] states) {
+        LongParentTable table = new LongParentTable();
+        for (int i = 0; i < states.length; i++) {
+            table.putIfAbsent(states[i], i);
+        }
+        return table.size();
+    }
+
+    /**
+     * Adds the states to a HashMap of Configurations, making each one the
+     * way a solver gets it from getNeighbors()
+     * @param states the states, each listed twice
+     * @return states held at the end
+     */
+    private static long hashMap(long[] states) {
+        HashMap<Configuration, Configuration> map = new HashMap<Configuration, Configuration>();
+        Configuration parent = new State(0);
+        for (long state : states) {
+            map.putIfAbsent(new State(state), parent);
+        }
+        return map.size();
+    }
+
+    /**
+     * Adds the states to a ConcurrentHashMap of Configurations from several threads
+     * @param states the states, each listed twice
+     * @param threads number of adding threads
+     * @return states held at the end
+     * @throws InterruptedException if interrupted while waiting for the threads
+     */
+    private static long concurrentHashMap(long[] states, int threads) throws InterruptedException {
+        ConcurrentHashMap<Configuration, Configuration> map = new ConcurrentHashMap<Configuration, Configuration>();
+        Configuration parent = new State(0);
+        Thread[] workers = new Thread[threads];
+        for (int t = 0; t < threads; t++) {
+            int from = (int) ((long) states.length * t / threads);
+            int to = (int) ((long) states.length * (t + 1) / threads);
+            workers[t] = new Thread(() -> {
+                for (int i = from; i < to; i++) {
+                    map.putIfAbsent(new State(states[i]), parent);
+                }
+            });
+            workers[t].start();
+        }
+        for (Thread worker : workers) {
+            worker.join();
+        }
+        return map.size();
+    }
+
+    /**
+     * Times the tables, warming each up first and keeping the best of the runs
+     * @param args number of distinct states, threads and runs; 2000000, the
+     *             number of processors and 5 if left out
+     * @throws InterruptedException if interrupted while waiting for the threads
+     */
+    public static void main(String[] args) throws InterruptedException {
+        int count = args.length > 0 ? Integer.parseInt(args[0]) : 2_000_000;
+        int threads = args.length > 1 ? Integer.parseInt(args[1]) : Runtime.getRuntime().availableProcessors();
+        int runs = args.length > 2 ? Integer.parseInt(args[2]) : 5;
+        Random random = new Random(1);
+        long[] states = new long[count * 2];
+        for (int i = 0; i < count; i++) {
+            states[i] = random.nextLong() & Long.MAX_VALUE;
+            states[count + i] = states[i];
+        }
+        // shuffle so the repeats are spread out like they are in a search
+        for (int i = states.length; i > 1; i--) {
+            int j = random.nextInt(i);
+            long swap = states[i - 1];
+            states[i - 1] = states[j];
+            states[j] = swap;
+        }
+
+        String[] names = {"ConcurrentLongParentTable, " + threads + " threads",
+                "ConcurrentLongParentTable, 1 thread", "LongParentTable",
+                "HashMap<Configuration, Configuration>",
+                "ConcurrentHashMap<Configuration, Configuration>, " + threads + " threads"};
+        System.out.println(count + " states, each added twice, best of " + runs + " runs");
+        for (int b = 0; b < names.length; b++) {
+            long best = Long.MAX_VALUE;
+            long size = 0;
+            // the first run only warms up
+            for (int r = 0; r <= runs; r++) {
+                long start = System.nanoTime();
+                switch (b) {
+                    case 0 -> size = concurrent(states, threads);
+                    case 1 -> size = concurrent(states, 1);
+                    case 2 -> size = single(states);
+                    case 3 -> size = hashMap(states);
+                    default -> size = concurrentHashMap(states, threads);
+                }
+                if (r > 0) {
+                    best = Math.min(best, System.nanoTime() - start);
+                }
+            }
+            System.out.println(names[b] + ": " + best / 1_000_000 + " ms, " + size + " states");
+        }
+    }
+}
@@ -0,0 +1,149 @@
+package puzzles.common.solver;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Fills a ConcurrentLongParentTable from many threads at once and checks it
+ * against a HashSet filled from one thread. Every thread adds a shuffled,
+ * overlapping slice of the same keys, so slots are fought over and the
+ * table is moved to bigger ones while threads are adding to it.
+ *
+ * @author Teju Rajbabu & Jamie Antal
+ */
+public class ConcurrentLongParentTableStress {
+    /**
+     * The parent every thread adds a key with, so a parent read back can be checked
+     * @param key the key
+     * @return its parent
+     */
+    private static long parentOf(long key) {
+        return key * 31 + 7;
+    }
+
+    /**
+     * Runs one round: fills a table from every thread and compares it to the reference
+     * @param threads number of adding threads
+     * @param keys number of distinct keys
+     * @param seed seed of the keys and of the order each thread adds them in
+     * @return the problems found, empty if the table matched
+     * @throws InterruptedException if interrupted while waiting for the threads
+     */
+    private static List<String> round(int threads, int keys, long seed) throws InterruptedException {
+        Random random = new Random(seed);
+        long[] pool = new long[keys];
+        HashSet<Long> reference = new HashSet<Long>();
+        for (int i = 0; i < keys; i++) {
+            // spread the keys over the whole range so they collide in every bit
+            pool[i] = random.nextLong() & Long.MAX_VALUE;
+            reference.add(pool[i]);
+        }
+
+        // start small so the table is moved many times during the round
+        ConcurrentLongParentTable table = new ConcurrentLongParentTable(16);
+        AtomicLong added = new AtomicLong();
+        Thread[] workers = new Thread[threads];
+        for (int t = 0; t < threads; t++) {
+            // each thread takes three quarters of the keys, starting at its own place
+            int from = (int) ((long) keys * t / threads);
+            int count = keys - keys / 4;
+            Random order = new Random(seed + t + 1);
+            workers[t] = new Thread(() -> {
+                long[] mine = new long[count];
+                for (int i = 0; i < count; i++) {
+                    mine[i] = pool[(from + i) % keys];
+                }
+                for (int i = count; i > 1; i--) {
+                    int j = order.nextInt(i);
+                    long swap = mine[i - 1];
+                    mine[i - 1] = mine[j];
+                    mine[j] = swap;
+                }
+                long wins = 0;
+                for (long key : mine) {
+                    if (table.putIfAbsent(key, parentOf(key))) {
+                        wins += 1;
+                    }
+                }
+                added.addAndGet(wins);
+            }, "adder-" + t);
+        }
+        for (Thread worker : workers) {
+            worker.start();
+        }
+        for (Thread worker : workers) {
+            worker.join();
+        }
+
+        List<String> problems = new ArrayList<String>();
+        // with 3/4 of the keys per thread, two threads already cover them all
+        long expected = threads > 1 ? reference.size() : keys - keys / 4;
+        if (table.size() != expected) {
+            problems.add("size " + table.size() + ", expected " + expected);
+        }
+        if (added.get() != table.size()) {
+            problems.add(added.get() + " adds won for " + table.size() + " states");
+        }
+        long inserts = 0;
+        for (ConcurrentLongParentTable.Statistics statistics : table.getThreadStatistics()) {
+            inserts += statistics.getInserts();
+        }
+        if (inserts != table.size()) {
+            problems.add("statistics count " + inserts + " inserts for " + table.size() + " states");
+        }
+        long missing = 0;
+        long wrong = 0;
+        for (long key : pool) {
+            if (table.contains(key)) {
+                if (table.getParent(key) != parentOf(key)) {
+                    wrong += 1;
+                }
+            } else if (threads > 1) {
+                missing += 1;
+            }
+        }
+        if (missing > 0) {
+            problems.add(missing + " keys missing");
+        }
+        if (wrong > 0) {
+            problems.add(wrong + " keys with the wrong parent");
+        }
+        long strays = 0;
+        for (int i = 0; i < keys; i++) {
+            long other = random.nextLong() & Long.MAX_VALUE;
+            if (!reference.contains(other) && (table.contains(other)
+                    || table.getParent(other) != ConcurrentLongParentTable.ABSENT)) {
+                strays += 1;
+            }
+        }
+        if (strays > 0) {
+            problems.add(strays + " keys held that were never added");
+        }
+        return problems;
+    }
+
+    /**
+     * Runs the rounds and says whether the table matched every time
+     * @param args number of threads, keys per round and rounds; 8, 1000000
+     *             and 5 if left out
+     * @throws InterruptedException if interrupted while waiting for the threads
+     */
+    public static void main(String[] args) throws InterruptedException {
+        int threads = args.length > 0 ? Integer.parseInt(args[0]) : 8;
+        int keys = args.length > 1 ? Integer.parseInt(args[1]) : 1_000_000;
+        int rounds = args.length > 2 ? Integer.parseInt(args[2]) : 5;
+        boolean passed = true;
+        for (int r = 0; r < rounds; r++) {
+            List<String> problems = round(threads, keys, r);
+            System.out.println("Round " + (r + 1) + ": " + (problems.isEmpty() ? "OK" : String.join("; ", problems)));
+            passed &= problems.isEmpty();
+        }
+        System.out.println(passed ? "PASSED" : "FAILED");
+        if (!passed) {
+            System.exit(1);
+        }
+    }
+}
@@ -1,6 +1,7 @@
 package puzzles.common.solver;
 
 import java.util.Collection;
+import java.util.function.Predicate;
 
 /**
  * The representation of a single configuration for a puzzle.
@@ -20,6 +21,31 @@ public interface Configuration {
      */
     Collection<Configuration> getNeighbors();
 
+    /**
+     * Hand each neighbor of the current configuration to the visitor, in the same
+     * order as getNeighbors(), stopping as soon as the visitor returns false.
+     * Puzzles can override it to skip building the collection.
+     * @param visitor gets each neighbor, returns false to stop
+     * @return false if the visitor stopped early; true otherwise
+     */
+    default boolean forEachNeighbor(Predicate<Configuration> visitor) {
+        for (Configuration neighbor : getNeighbors()) {
+            if (!visitor.test(neighbor)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Estimate how many moves are left from the current configuration to a solution.
+     * The A* solver needs it to never overestimate, and to drop by at most one per move.
+     * @return a lower bound on the moves left; 0 if the puzzle has no better guess
+     */
+    default int heuristic() {
+        return 0;
+    }
+
     //////////////////////////////////////////////////////////////////////////////////////
     // The predecessor map from the BFS Solver forces any puzzle configuration          //
     // to override the equals and hashCode methods.                                     //
@@ -0,0 +1,27 @@
+package puzzles.common.solver;
+
+/**
+ * Packs the configurations of one puzzle into a fixed number of bytes, for
+ * solvers that keep their states outside of Configuration objects
+ */
+public interface ConfigurationCodec {
+    /**
+     * The number of bytes every encoded configuration takes
+     * @return bytes per configuration
+     */
+    int width();
+
+    /**
+     * Pack a configuration
+     * @param config a configuration of this puzzle
+     * @param out buffer of width() bytes the configuration is written into
+     */
+    void encode(Configuration config, byte[] out);
+
+    /**
+     * Unpack a configuration
+     * @param in buffer of width() bytes holding an encoded configuration
+     * @return the configuration it stands for
+     */
+    Configuration decode(byte[] in);
+}
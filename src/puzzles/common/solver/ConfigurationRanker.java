@@ -0,0 +1,32 @@
+package puzzles.common.solver;
+
+/**
+ * Numbers the configurations of one puzzle densely, from 0 to one less than
+ * size(), so a search can keep a bit per configuration in place of the
+ * configuration itself. Every configuration the puzzle can reach from its
+ * start has a rank; the ranks may also cover some that it cannot reach.
+ */
+public interface ConfigurationRanker {
+    /** Rank of a configuration outside of the numbered ones */
+    long NONE = -1L;
+
+    /**
+     * The number of ranks
+     * @return one more than the largest rank
+     */
+    long size();
+
+    /**
+     * Number a configuration
+     * @param config a configuration of this puzzle
+     * @return its rank, or NONE if it is not one of the numbered configurations
+     */
+    long rank(Configuration config);
+
+    /**
+     * Make the configuration with a rank
+     * @param rank a rank from 0 to one less than size()
+     * @return the configuration it stands for
+     */
+    Configuration unrank(long rank);
+}
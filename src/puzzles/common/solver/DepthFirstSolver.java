@@ -0,0 +1,168 @@
+package puzzles.common.solver;
+
+import java.util.ArrayList;
+
+/**
+ * A depth-first Solver for puzzles where every move takes one piece off the
+ * board, such as Chess and Hoppers. Every solution there is the same number
+ * of moves long, so the first solution found is a shortest one. Moves are
+ * made and taken back on one MoveBoard instead of copying configurations,
+ * and only the keys of boards proven to lead nowhere are kept, in a
+ * LongHashSet. Keys are 64-bit hashes, so two boards sharing a key could in
+ * theory hide a solution; the odds are negligible for boards this size.
+ * Moves are tried killer first, the move that got deepest at the same depth
+ * last time, then by history, how deep each move has got overall.
+ *
+ * @author Teju Rajbabu & Jamie Antal
+ */
+public class DepthFirstSolver {
+    /** the board moves are made on */
+    private final MoveBoard board;
+    /** keys of boards with no solution below them */
+    private LongHashSet dead;
+    /** per move number, the depths its searches reached added up */
+    private long[] history;
+    /** per depth, the move that got deepest from there, or -1 */
+    private int[] killers;
+    /** per depth, room for the moves of the board at that depth */
+    private ArrayList<int[]> moves;
+    /** per depth, room for the order scores of those moves */
+    private ArrayList<long[]> scores;
+    /** Array list of configurations, makes the list of the shortest path */
+    private ArrayList<Configuration> shortestlist;
+    /** Total number of configurations made */
+    private int TotalConfigs;
+    /** Total number of configurations searched */
+    private int UniqueConfigs;
+
+    /**
+     * Starts up the depth-first Solver. The board is left as it was given.
+     * @param board the board to solve, every move on it must take one piece off
+     */
+    public DepthFirstSolver(MoveBoard board) {
+        this.board = board;
+        dead = new LongHashSet();
+        history = new long[board.moveIds()];
+        killers = new int[0];
+        moves = new ArrayList<int[]>();
+        scores = new ArrayList<long[]>();
+        shortestlist = new ArrayList<Configuration>();
+        TotalConfigs = 1;
+        UniqueConfigs = 0;
+        ArrayList<Configuration> fliplist = new ArrayList<Configuration>();
+        if (search(0, fliplist) < 0) {
+            for (int i = fliplist.size(); i-- > 0;){
+                shortestlist.add(fliplist.get(i));
+            }
+        }
+    }
+
+    /**
+     * Searches below the board as it is now
+     * @param depth moves made from the start
+     * @param fliplist gets the path backward, from the solution, once one is found
+     * @return -1 if a solution was found, otherwise the deepest depth reached
+     */
+    private int search(int depth, ArrayList<Configuration> fliplist) {
+        UniqueConfigs += 1;
+        if (board.isSolution()) {
+            fliplist.add(board.toConfiguration());
+            return -1;
+        }
+        if (moves.size() == depth) {
+            moves.add(new int[board.maxMoves()]);
+            scores.add(new long[board.maxMoves()]);
+            int[] grown = new int[depth + 1];
+            System.arraycopy(killers, 0, grown, 0, depth);
+            grown[depth] = -1;
+            killers = grown;
+        }
+        int[] list = moves.get(depth);
+        int count = order(list, board.moves(list), depth);
+        TotalConfigs += count;
+        int deepest = depth;
+        for (int i = 0; i < count; i++) {
+            int move = list[i];
+            board.make(move);
+            long key = board.key() & Long.MAX_VALUE;
+            int reached = depth + 1;
+            if (!dead.contains(key)) {
+                reached = search(depth + 1, fliplist);
+                if (reached < 0) {
+                    board.unmake(move);
+                    fliplist.add(board.toConfiguration());
+                    return -1;
+                }
+                dead.add(key);
+            }
+            board.unmake(move);
+            history[move] += reached - depth;
+            if (reached > deepest) {
+                deepest = reached;
+                killers[depth] = move;
+            }
+        }
+        return deepest;
+    }
+
+    /**
+     * Sorts moves killer first, then by history, best first
+     * @param list the moves
+     * @param count number of moves in the list
+     * @param depth moves made from the start
+     * @return count
+     */
+    private int order(int[] list, int count, int depth) {
+        long[] score = scores.get(depth);
+        for (int i = 0; i < count; i++) {
+            score[i] = list[i] == killers[depth] ? Long.MAX_VALUE : history[list[i]];
+        }
+        // lists are short, insertion sort keeps equal scores in move order
+        for (int i = 1; i < count; i++) {
+            int move = list[i];
+            long s = score[i];
+            int j = i - 1;
+            while (j >= 0 && score[j] < s) {
+                list[j + 1] = list[j];
+                score[j + 1] = score[j];
+                j--;
+            }
+            list[j + 1] = move;
+            score[j + 1] = s;
+        }
+        return count;
+    }
+
+    /**
+     * gets the number of boards proven to lead nowhere
+     * @return boards in the dead-state memo
+     */
+    public int getDeadStates() {
+        return dead.size();
+    }
+
+    /**
+     * gets the list of shortest path to result
+     * @return ArrayList of configurations of shortest path
+     */
+    public ArrayList<Configuration> getShortestlist(){
+        return shortestlist;
+    }
+
+    /**
+     * gets number of total configurations
+     * @return integer total configurations made
+     */
+    public int getTotalConfigs() {
+        return TotalConfigs;
+    }
+
+    /**
+     * gets number of configurations searched, not counting those the memo
+     * already knew to lead nowhere
+     * @return integer configurations searched
+     */
+    public int getUniqueConfigs(){
+        return UniqueConfigs;
+    }
+}
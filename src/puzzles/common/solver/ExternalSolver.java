@@ -0,0 +1,374 @@
+package puzzles.common.solver;
+
+import java.io.BufferedOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.PriorityQueue;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * A BFS Solver for state spaces that do not fit in memory. Every layer is a
+ * sorted, compressed file of encoded states. The children of a layer are
+ * sorted in memory-sized runs, merged, and duplicates are dropped by merging
+ * against the layers they could already be in (delayed duplicate detection):
+ * the current and previous layer for puzzles whose moves can be undone, such
+ * as Clock and Strings, and none for puzzles where every move goes one layer
+ * deeper, such as Chess and Hoppers. The path is rebuilt backward by scanning
+ * each layer file for a parent of the next configuration.
+ *
+ * @author Teju Rajbabu & Jamie Antal
+ */
+public class ExternalSolver {
+    /** States sorted in memory before a run is written out */
+    public static final int RUN_RECORDS = 1 << 20;
+    /** Bytes read from a file at a time */
+    private static final int READ_BUFFER = 1 << 20;
+    /** Bytes buffered before writing to a file */
+    private static final int WRITE_BUFFER = 1 << 16;
+
+    /** fixed-width encoding of the puzzle */
+    private final ConfigurationCodec codec;
+    /** directory holding the layer and run files */
+    private final File workDir;
+    /** number of layer files written */
+    private int layers;
+    /** number of states in each layer */
+    private ArrayList<Long> layerSizes;
+    /** Array list of configurations, makes the list of the shortest path */
+    private ArrayList<Configuration> shortestlist;
+    /** Total number of configurations made */
+    private long TotalConfigs;
+    /** Total number of unique configurations made */
+    private long UniqueConfigs;
+
+    /**
+     * Starts up the external-memory Solver
+     * @param Config configuration of the puzzle to solve
+     * @param codec fixed-width encoding of the puzzle
+     * @param workDir directory for the layer and run files, made if it does not
+     *                exist; the files are deleted when done but the directory is kept
+     * @param layered true if every move goes one layer deeper, so no earlier
+     *                layer can hold a child; false if moves can be undone
+     */
+    public ExternalSolver(Configuration Config, ConfigurationCodec codec, File workDir, boolean layered) {
+        this.codec = codec;
+        this.workDir = workDir;
+        this.layers = 0;
+        this.layerSizes = new ArrayList<Long>();
+        this.shortestlist = new ArrayList<Configuration>();
+        byte[] state = new byte[codec.width()];
+        try {
+            Files.createDirectories(workDir.toPath());
+            codec.encode(Config, state);
+            try (OutputStream out = writer(layerFile(0))) {
+                out.write(state);
+            }
+            layers = 1;
+            layerSizes.add(1L);
+            TotalConfigs = 1;
+            UniqueConfigs = 1;
+            Configuration solution = null;
+            while (solution == null && layerSizes.get(layers - 1) > 0) {
+                solution = expand(layers - 1, layered);
+            }
+            if (solution != null) {
+                buildPath(solution, layers - 1);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        } finally {
+            for (int d = 0; d <= layers; d++) {
+                layerFile(d).delete();
+            }
+        }
+    }
+
+    /**
+     * Reads a layer, stopping at its first solution, and otherwise writes the
+     * deduplicated next layer
+     * @param depth the layer to expand
+     * @param layered true if no earlier layer can hold a child
+     * @return the first solution in the layer, or null
+     * @throws IOException if a file can't be read or written
+     */
+    private Configuration expand(int depth, boolean layered) throws IOException {
+        ArrayList<File> runs = new ArrayList<File>();
+        byte[][] run = new byte[RUN_RECORDS][];
+        int length = 0;
+        byte[] state = new byte[codec.width()];
+        try {
+            try (InputStream in = reader(layerFile(depth))) {
+                while (in.readNBytes(state, 0, state.length) == state.length) {
+                    Configuration removed = codec.decode(state);
+                    if (removed.isSolution()) {
+                        return removed;
+                    }
+                    for (Configuration fig : removed.getNeighbors()) {
+                        TotalConfigs += 1;
+                        byte[] child = new byte[codec.width()];
+                        codec.encode(fig, child);
+                        run[length++] = child;
+                        if (length == RUN_RECORDS) {
+                            runs.add(writeRun(run, length, runs.size()));
+                            length = 0;
+                        }
+                    }
+                }
+            }
+            if (length > 0) {
+                runs.add(writeRun(run, length, runs.size()));
+            }
+            run = null;
+            long size = merge(runs, depth + 1, layered ? new int[0] : new int[]{depth, depth - 1});
+            layers += 1;
+            layerSizes.add(size);
+            UniqueConfigs += size;
+            return null;
+        } finally {
+            for (File file : runs) {
+                file.delete();
+            }
+        }
+    }
+
+    /**
+     * Sorts a run of encoded states, drops its duplicates and writes it out
+     * @param run the states
+     * @param length number of states in the run
+     * @param number which run of the layer this is
+     * @return the run file
+     * @throws IOException if the file can't be written
+     */
+    private File writeRun(byte[][] run, int length, int number) throws IOException {
+        Arrays.parallelSort(run, 0, length, Arrays::compareUnsigned);
+        File file = new File(workDir, "run-" + number + ".gz");
+        try (OutputStream out = writer(file)) {
+            for (int i = 0; i < length; i++) {
+                if (i == 0 || !Arrays.equals(run[i], run[i - 1])) {
+                    out.write(run[i]);
+                }
+            }
+        }
+        return file;
+    }
+
+    /**
+     * Merges the sorted runs into the next layer, leaving out duplicates and
+     * anything already in the given earlier layers
+     * @param runs sorted run files
+     * @param depth the layer being written
+     * @param earlier depths of the layers to subtract, negative ones are skipped
+     * @return number of states in the new layer
+     * @throws IOException if a file can't be read or written
+     */
+    private long merge(ArrayList<File> runs, int depth, int[] earlier) throws IOException {
+        PriorityQueue<Cursor> heap = new PriorityQueue<Cursor>();
+        ArrayList<Cursor> old = new ArrayList<Cursor>();
+        long size = 0;
+        try (OutputStream out = writer(layerFile(depth))) {
+            for (File file : runs) {
+                Cursor cursor = new Cursor(file);
+                if (cursor.next()) {
+                    heap.add(cursor);
+                } else {
+                    cursor.close();
+                }
+            }
+            for (int d : earlier) {
+                if (d >= 0) {
+                    Cursor cursor = new Cursor(layerFile(d));
+                    old.add(cursor);
+                    if (!cursor.next()) {
+                        cursor.close();
+                    }
+                }
+            }
+            byte[] last = null;
+            while (!heap.isEmpty()) {
+                Cursor smallest = heap.poll();
+                byte[] state = smallest.state.clone();
+                if (smallest.next()) {
+                    heap.add(smallest);
+                } else {
+                    smallest.close();
+                }
+                if (last != null && Arrays.equals(state, last)) {
+                    continue;
+                }
+                last = state;
+                boolean seen = false;
+                for (Cursor cursor : old) {
+                    while (!cursor.done && Arrays.compareUnsigned(cursor.state, state) < 0) {
+                        if (!cursor.next()) {
+                            cursor.close();
+                        }
+                    }
+                    if (!cursor.done && Arrays.equals(cursor.state, state)) {
+                        seen = true;
+                    }
+                }
+                if (!seen) {
+                    out.write(state);
+                    size += 1;
+                }
+            }
+        } finally {
+            for (Cursor cursor : heap) {
+                cursor.close();
+            }
+            for (Cursor cursor : old) {
+                cursor.close();
+            }
+        }
+        return size;
+    }
+
+    /**
+     * Rebuilds the path backward: for each earlier layer, finds the first state
+     * that has the configuration after it as a neighbor
+     * @param solution the solution found
+     * @param depth the layer it was found in
+     * @throws IOException if a layer file can't be read
+     */
+    private void buildPath(Configuration solution, int depth) throws IOException {
+        ArrayList<Configuration> fliplist = new ArrayList<Configuration>();
+        Configuration removed = solution;
+        fliplist.add(removed);
+        byte[] state = new byte[codec.width()];
+        for (int d = depth - 1; d >= 0; d--) {
+            try (InputStream in = reader(layerFile(d))) {
+                while (in.readNBytes(state, 0, state.length) == state.length) {
+                    Configuration parent = codec.decode(state);
+                    if (parent.getNeighbors().contains(removed)) {
+                        removed = parent;
+                        break;
+                    }
+                }
+            }
+            fliplist.add(removed);
+        }
+        for (int i = fliplist.size(); i-- > 0;){
+            shortestlist.add(fliplist.get(i));
+        }
+    }
+
+    /**
+     * Gets the file of a layer
+     * @param depth the layer
+     * @return its file in the work directory
+     */
+    private File layerFile(int depth) {
+        return new File(workDir, "layer-" + depth + ".gz");
+    }
+
+    /**
+     * Opens a compressed file for large sequential reads
+     * @param file the file
+     * @return the decompressed stream
+     * @throws IOException if the file can't be opened
+     */
+    private static InputStream reader(File file) throws IOException {
+        FileChannel channel = FileChannel.open(file.toPath(), StandardOpenOption.READ);
+        return new GZIPInputStream(Channels.newInputStream(channel), READ_BUFFER);
+    }
+
+    /**
+     * Opens a compressed file for writing, replacing what was there
+     * @param file the file
+     * @return the compressing stream
+     * @throws IOException if the file can't be made
+     */
+    private static OutputStream writer(File file) throws IOException {
+        return new BufferedOutputStream(new GZIPOutputStream(Files.newOutputStream(file.toPath()),
+                WRITE_BUFFER), WRITE_BUFFER);
+    }
+
+    /**
+     * Walks a sorted file one state at a time
+     */
+    private class Cursor implements Comparable<Cursor> {
+        /** the open file */
+        private final InputStream in;
+        /** the current state */
+        private final byte[] state;
+        /** true once the file has no more states */
+        private boolean done;
+
+        /**
+         * Opens a sorted file, before its first state
+         * @param file the file
+         * @throws IOException if the file can't be opened
+         */
+        Cursor(File file) throws IOException {
+            this.in = reader(file);
+            this.state = new byte[codec.width()];
+            this.done = false;
+        }
+
+        /**
+         * Moves to the next state
+         * @return true if there was one; false at the end of the file
+         * @throws IOException if the file can't be read
+         */
+        boolean next() throws IOException {
+            done = in.readNBytes(state, 0, state.length) != state.length;
+            return !done;
+        }
+
+        /**
+         * Closes the file
+         * @throws IOException if the file can't be closed
+         */
+        void close() throws IOException {
+            done = true;
+            in.close();
+        }
+
+        @Override
+        public int compareTo(Cursor other) {
+            return Arrays.compareUnsigned(state, other.state);
+        }
+    }
+
+    /**
+     * gets the number of states in each layer, the layer census
+     * @return layer sizes, from the start's layer on
+     */
+    public ArrayList<Long> getLayerSizes() {
+        return layerSizes;
+    }
+
+    /**
+     * gets the list of shortest path to result
+     * @return ArrayList of configurations of shortest path
+     */
+    public ArrayList<Configuration> getShortestlist(){
+        return shortestlist;
+    }
+
+    /**
+     * gets number of total configurations
+     * @return total configurations made
+     */
+    public long getTotalConfigs() {
+        return TotalConfigs;
+    }
+
+    /**
+     * gets number of unique configurations
+     * @return unique configurations made
+     */
+    public long getUniqueConfigs(){
+        return UniqueConfigs;
+    }
+}
@@ -0,0 +1,161 @@
+package puzzles.common.solver;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.function.Predicate;
+
+/**
+ * A BFS Solver that keeps no predecessor map. Only the layer being expanded
+ * is held, plus the layer before it for puzzles whose moves can be undone,
+ * such as Clock and Strings, since a child there can only be in the layer
+ * before, the same layer or the next. For puzzles where every move goes one
+ * layer deeper, such as Chess and Hoppers, a child can only be a duplicate
+ * within the next layer, so nothing else is held at all.
+ * A first search finds how deep the solution is. The path is then rebuilt by
+ * divide and conquer: a search between two configurations tags every state
+ * past the middle depth with its ancestor in that relay layer, and the two
+ * halves either side of the relay are solved the same way.
+ * Puzzles with moves that can't be undone but that don't always go a layer
+ * deeper need the full visited set of the BFS Solver instead.
+ *
+ * @author Teju Rajbabu & Jamie Antal
+ */
+public class FrontierSolver {
+    /** true if every move goes one layer deeper */
+    private final boolean layered;
+    /** depth of the goal the last search found */
+    private int goalDepth;
+    /** configurations made by the last search */
+    private int totalMade;
+    /** unique configurations made by the last search */
+    private int uniqueMade;
+    /** most configurations held at once */
+    private int PeakConfigs;
+    /** Array list of configurations, makes the list of the shortest path */
+    private ArrayList<Configuration> shortestlist;
+    /** Total number of configurations made by the first search */
+    private int TotalConfigs;
+    /** Total number of unique configurations made by the first search */
+    private int UniqueConfigs;
+
+    /**
+     * Starts up the frontier Solver
+     * @param Config configuration of the puzzle to solve
+     * @param layered true if every move goes one layer deeper, so no earlier
+     *                layer can hold a child; false if moves can be undone
+     */
+    public FrontierSolver(Configuration Config, boolean layered) {
+        this.layered = layered;
+        this.shortestlist = new ArrayList<Configuration>();
+        this.PeakConfigs = 0;
+        Configuration[] found = layers(Config, Configuration::isSolution, -1);
+        TotalConfigs = totalMade;
+        UniqueConfigs = uniqueMade;
+        if (found != null) {
+            shortestlist.addAll(path(Config, found[0], goalDepth));
+        }
+    }
+
+    /**
+     * Layer by layer search from a configuration to the first one passing the goal test
+     * @param from configuration to start from
+     * @param goal the goal test
+     * @param relayDepth depth whose states become the relays of the states below them, -1 for none
+     * @return the goal found and its relay, or null if there is none; goalDepth
+     * is set to the goal's depth
+     */
+    private Configuration[] layers(Configuration from, Predicate<Configuration> goal, int relayDepth) {
+        // each state held maps to its relay, or to itself before the relay layer
+        Map<Configuration, Configuration> previous = Collections.emptyMap();
+        Map<Configuration, Configuration> current = new LinkedHashMap<Configuration, Configuration>();
+        current.put(from, from);
+        totalMade = 1;
+        uniqueMade = 1;
+        for (int depth = 0; !current.isEmpty(); depth++) {
+            for (Map.Entry<Configuration, Configuration> entry : current.entrySet()) {
+                if (goal.test(entry.getKey())) {
+                    goalDepth = depth;
+                    return new Configuration[]{entry.getKey(), entry.getValue()};
+                }
+            }
+            Map<Configuration, Configuration> next = new LinkedHashMap<Configuration, Configuration>();
+            for (Map.Entry<Configuration, Configuration> entry : current.entrySet()) {
+                for (Configuration fig : entry.getKey().getNeighbors()) {
+                    totalMade += 1;
+                    if (next.containsKey(fig) || !layered && (current.containsKey(fig) || previous.containsKey(fig))) {
+                        continue;
+                    }
+                    uniqueMade += 1;
+                    next.put(fig, depth + 1 > relayDepth ? entry.getValue() : fig);
+                }
+                PeakConfigs = Math.max(PeakConfigs, previous.size() + current.size() + next.size());
+            }
+            previous = layered ? Collections.emptyMap() : current;
+            current = next;
+        }
+        return null;
+    }
+
+    /**
+     * Rebuilds a shortest path between two configurations by finding the
+     * relay halfway along it and rebuilding both halves
+     * @param from the first configuration of the path
+     * @param to the last configuration of the path
+     * @param depth moves between them
+     * @return the path, from and to included
+     */
+    private ArrayList<Configuration> path(Configuration from, Configuration to, int depth) {
+        ArrayList<Configuration> path = new ArrayList<Configuration>();
+        if (depth == 0) {
+            path.add(from);
+            return path;
+        }
+        if (depth == 1) {
+            path.add(from);
+            path.add(to);
+            return path;
+        }
+        int middle = depth / 2;
+        Configuration relay = layers(from, to::equals, middle)[1];
+        path.addAll(path(from, relay, middle));
+        ArrayList<Configuration> second = path(relay, to, depth - middle);
+        path.addAll(second.subList(1, second.size()));
+        return path;
+    }
+
+    /**
+     * gets the most configurations held at once over every search
+     * @return peak number of configurations held
+     */
+    public int getPeakConfigs() {
+        return PeakConfigs;
+    }
+
+    /**
+     * gets the list of shortest path to result
+     * @return ArrayList of configurations of shortest path
+     */
+    public ArrayList<Configuration> getShortestlist(){
+        return shortestlist;
+    }
+
+    /**
+     * gets number of total configurations made by the search for the solution,
+     * not counting the searches that rebuild the path
+     * @return integer total configurations made
+     */
+    public int getTotalConfigs() {
+        return TotalConfigs;
+    }
+
+    /**
+     * gets number of unique configurations made by the search for the
+     * solution, not counting the searches that rebuild the path
+     * @return integer unique configurations made
+     */
+    public int getUniqueConfigs(){
+        return UniqueConfigs;
+    }
+}
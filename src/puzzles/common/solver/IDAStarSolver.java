@@ -0,0 +1,187 @@
+package puzzles.common.solver;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * An iterative-deepening A* Solver. Each pass is a depth-first search that
+ * cuts off any configuration whose moves-so-far plus Configuration.heuristic()
+ * go over the bound, and the next pass raises the bound to the smallest value
+ * that was cut off. Only the current path is kept, so memory grows with the
+ * solution depth instead of with the number of configurations.
+ * Neighbors are tried in getNeighbors() order, so the path found is the same
+ * one the BFS Solver finds.
+ *
+ * @author Teju Rajbabu & Jamie Antal
+ */
+public class IDAStarSolver {
+    /** Entries kept in the transposition cache by default */
+    public static final int DEFAULT_CACHE = 1 << 16;
+    /** Neighbor lists kept in the memo by default */
+    public static final int DEFAULT_MEMO = 1 << 12;
+    /** Returned by a search that reached a solution */
+    private static final int FOUND = -1;
+
+    /** Configurations on the current path, from the start */
+    private ArrayList<Configuration> path;
+    /** The same configurations, to skip moves that go back onto the path */
+    private HashSet<Configuration> onPath;
+    /** Moves-so-far each configuration was searched at during the current pass */
+    private LruMap<Configuration, Integer> cache;
+    /** Neighbor lists of configurations expanded recently */
+    private LruMap<Configuration, Configuration[]> memo;
+    /** Array list of configurations, makes the list of the shortest path */
+    private ArrayList<Configuration> shortestlist;
+    /** Total number of configurations made */
+    private int TotalConfigs;
+    /** Total number of configurations searched, over all passes */
+    private int UniqueConfigs;
+
+    /**
+     * Starts up the IDA* Solver with the default cache and memo sizes
+     * @param Config configuration of the puzzle to solve
+     */
+    public IDAStarSolver(Configuration Config) {
+        this(Config, DEFAULT_CACHE, DEFAULT_MEMO);
+    }
+
+    /**
+     * Starts up the IDA* Solver
+     * @param Config configuration of the puzzle to solve
+     * @param cacheSize most configurations kept in the transposition cache, 0 turns it off
+     * @param memoSize most neighbor lists kept in the memo, 0 turns it off
+     */
+    public IDAStarSolver(Configuration Config, int cacheSize, int memoSize) {
+        path = new ArrayList<Configuration>();
+        onPath = new HashSet<Configuration>();
+        cache = new LruMap<Configuration, Integer>(cacheSize);
+        memo = new LruMap<Configuration, Configuration[]>(memoSize);
+        shortestlist = new ArrayList<Configuration>();
+        TotalConfigs = 1;
+        UniqueConfigs = 0;
+        int bound = Config.heuristic();
+        while (bound != Integer.MAX_VALUE) {
+            // what a pass learns only holds for its own bound
+            cache.clear();
+            path.add(Config);
+            onPath.add(Config);
+            int next = search(Config, 0, bound);
+            if (next == FOUND) {
+                shortestlist.addAll(path);
+                break;
+            }
+            path.clear();
+            onPath.clear();
+            bound = next;
+        }
+    }
+
+    /**
+     * Depth-first search below a configuration already on the path
+     * @param removed the configuration to search from
+     * @param g moves from the start to it
+     * @param bound largest moves-so-far plus heuristic allowed in this pass
+     * @return FOUND if the path now ends in a solution, otherwise the smallest
+     * moves-so-far plus heuristic that went over the bound
+     */
+    private int search(Configuration removed, int g, int bound) {
+        UniqueConfigs += 1;
+        int f = g + removed.heuristic();
+        if (f > bound) {
+            return f;
+        }
+        if (removed.isSolution()) {
+            return FOUND;
+        }
+        int min = Integer.MAX_VALUE;
+        for (Configuration fig : neighbors(removed)) {
+            TotalConfigs += 1;
+            if (onPath.contains(fig)) {
+                continue;
+            }
+            // reached before in this pass with no more moves, and that search failed
+            Integer seen = cache.get(fig);
+            if (seen != null && seen <= g + 1) {
+                continue;
+            }
+            cache.put(fig, g + 1);
+            path.add(fig);
+            onPath.add(fig);
+            int next = search(fig, g + 1, bound);
+            if (next == FOUND) {
+                return FOUND;
+            }
+            path.remove(path.size() - 1);
+            onPath.remove(fig);
+            min = Math.min(min, next);
+        }
+        return min;
+    }
+
+    /**
+     * Gets the neighbors of a configuration, from the memo when it is there
+     * @param removed the configuration to expand
+     * @return its neighbors in getNeighbors() order
+     */
+    private Configuration[] neighbors(Configuration removed) {
+        Configuration[] figs = memo.get(removed);
+        if (figs == null) {
+            figs = removed.getNeighbors().toArray(new Configuration[0]);
+            memo.put(removed, figs);
+        }
+        return figs;
+    }
+
+    /**
+     * A map that holds a fixed number of entries and drops the least recently
+     * used one to make room
+     * @param <K> key type
+     * @param <V> value type
+     */
+    @SuppressWarnings("serial")
+    private static class LruMap<K, V> extends LinkedHashMap<K, V> {
+        /** most entries held */
+        private final int capacity;
+
+        /**
+         * Creates an empty map
+         * @param capacity most entries held, 0 holds nothing
+         */
+        LruMap(int capacity) {
+            super(16, 0.75f, true);
+            this.capacity = capacity;
+        }
+
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<K, V> eldest) {
+            return size() > capacity;
+        }
+    }
+
+    /**
+     * gets the list of shortest path to result
+     * @return ArrayList of configurations of shortest path
+     */
+    public ArrayList<Configuration> getShortestlist(){
+        return shortestlist;
+    }
+
+    /**
+     * gets number of total configurations
+     * @return integer total configurations made
+     */
+    public int getTotalConfigs() {
+        return TotalConfigs;
+    }
+
+    /**
+     * gets number of configurations searched, a configuration searched again
+     * in a later pass is counted again
+     * @return integer configurations searched
+     */
+    public int getUniqueConfigs(){
+        return UniqueConfigs;
+    }
+}
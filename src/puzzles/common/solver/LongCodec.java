@@ -0,0 +1,43 @@
+package puzzles.common.solver;
+
+/**
+ * A ConfigurationCodec for any puzzle that already has a LongStateSpace,
+ * writing the long state as 8 big-endian bytes
+ *
+ * @author Teju Rajbabu & Jamie Antal
+ */
+public class LongCodec implements ConfigurationCodec {
+    /** the encoding of the puzzle */
+    private final LongStateSpace space;
+
+    /**
+     * Creates a codec from a long encoding
+     * @param space encoding of the puzzle
+     */
+    public LongCodec(LongStateSpace space) {
+        this.space = space;
+    }
+
+    @Override
+    public int width() {
+        return Long.BYTES;
+    }
+
+    @Override
+    public void encode(Configuration config, byte[] out) {
+        long state = space.encode(config);
+        for (int i = Long.BYTES; i-- > 0;) {
+            out[i] = (byte) state;
+            state >>>= 8;
+        }
+    }
+
+    @Override
+    public Configuration decode(byte[] in) {
+        long state = 0;
+        for (int i = 0; i < Long.BYTES; i++) {
+            state = (state << 8) | (in[i] & 0xFF);
+        }
+        return space.decode(state);
+    }
+}
@@ -0,0 +1,95 @@
+package puzzles.common.solver;
+
+import java.util.Arrays;
+
+/**
+ * An open-addressing hash set of longs, kept in one long array with linear
+ * probing
+ *
+ * @author Teju Rajbabu & Jamie Antal
+ */
+public class LongHashSet {
+    /** Marks a free slot, values are never negative */
+    private static final long EMPTY = -1L;
+
+    /** the values */
+    private long[] values;
+    /** number of values held */
+    private int size;
+
+    /**
+     * Creates an empty set
+     */
+    public LongHashSet() {
+        values = new long[1 << 10];
+        Arrays.fill(values, EMPTY);
+        size = 0;
+    }
+
+    /**
+     * Adds a value unless it is already held
+     * @param value the value, not negative
+     * @return true if the value was added; false if it was already there
+     */
+    public boolean add(long value) {
+        int mask = values.length - 1;
+        int slot = LongParentTable.slot(value, mask);
+        while (values[slot] != EMPTY) {
+            if (values[slot] == value) {
+                return false;
+            }
+            slot = (slot + 1) & mask;
+        }
+        values[slot] = value;
+        size += 1;
+        // keep the set at most half full so probes stay short
+        if (size * 2 > values.length) {
+            grow();
+        }
+        return true;
+    }
+
+    /**
+     * Does the set hold the value?
+     * @param value the value
+     * @return true if it was added before
+     */
+    public boolean contains(long value) {
+        int mask = values.length - 1;
+        int slot = LongParentTable.slot(value, mask);
+        while (values[slot] != EMPTY) {
+            if (values[slot] == value) {
+                return true;
+            }
+            slot = (slot + 1) & mask;
+        }
+        return false;
+    }
+
+    /**
+     * gets the number of values held
+     * @return integer values held
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Doubles the array and puts every value back
+     */
+    private void grow() {
+        long[] old = values;
+        values = new long[old.length * 2];
+        Arrays.fill(values, EMPTY);
+        int mask = values.length - 1;
+        for (long value : old) {
+            if (value != EMPTY) {
+                int slot = LongParentTable.slot(value, mask);
+                while (values[slot] != EMPTY) {
+                    slot = (slot + 1) & mask;
+                }
+                values[slot] = value;
+            }
+        }
+    }
+}
@@ -0,0 +1,132 @@
+package puzzles.common.solver;
+
+import java.util.Arrays;
+
+/**
+ * An open-addressing hash table from encoded state to encoded parent state,
+ * kept in two long arrays with linear probing
+ *
+ * @author Teju Rajbabu & Jamie Antal
+ */
+public class LongParentTable {
+    /** Marks a free slot, states are never negative */
+    private static final long EMPTY = -1L;
+
+    /** the states */
+    private long[] keys;
+    /** the parent of the state in the same slot */
+    private long[] parents;
+    /** number of states held */
+    private int size;
+
+    /**
+     * Creates an empty table
+     */
+    public LongParentTable() {
+        keys = new long[1 << 10];
+        parents = new long[1 << 10];
+        Arrays.fill(keys, EMPTY);
+        size = 0;
+    }
+
+    /**
+     * Adds a state unless it is already held
+     * @param state the state, not negative
+     * @param parent its parent
+     * @return true if the state was added; false if it was already there
+     */
+    public boolean putIfAbsent(long state, long parent) {
+        int mask = keys.length - 1;
+        int slot = slot(state, mask);
+        while (keys[slot] != EMPTY) {
+            if (keys[slot] == state) {
+                return false;
+            }
+            slot = (slot + 1) & mask;
+        }
+        keys[slot] = state;
+        parents[slot] = parent;
+        size += 1;
+        // keep the table at most half full so probes stay short
+        if (size * 2 > keys.length) {
+            grow();
+        }
+        return true;
+    }
+
+    /**
+     * Gets the parent of a state
+     * @param state the state
+     * @return its parent, or -1 if the state is not held
+     */
+    public long getParent(long state) {
+        int mask = keys.length - 1;
+        int slot = slot(state, mask);
+        while (keys[slot] != EMPTY) {
+            if (keys[slot] == state) {
+                return parents[slot];
+            }
+            slot = (slot + 1) & mask;
+        }
+        return EMPTY;
+    }
+
+    /**
+     * Does the table hold the state?
+     * @param state the state
+     * @return true if it was added before
+     */
+    public boolean contains(long state) {
+        int mask = keys.length - 1;
+        int slot = slot(state, mask);
+        while (keys[slot] != EMPTY) {
+            if (keys[slot] == state) {
+                return true;
+            }
+            slot = (slot + 1) & mask;
+        }
+        return false;
+    }
+
+    /**
+     * gets the number of states held
+     * @return integer states held
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Doubles the arrays and puts every state back
+     */
+    private void grow() {
+        long[] oldKeys = keys;
+        long[] oldParents = parents;
+        keys = new long[oldKeys.length * 2];
+        parents = new long[oldKeys.length * 2];
+        Arrays.fill(keys, EMPTY);
+        int mask = keys.length - 1;
+        for (int i = 0; i < oldKeys.length; i++) {
+            if (oldKeys[i] != EMPTY) {
+                int slot = slot(oldKeys[i], mask);
+                while (keys[slot] != EMPTY) {
+                    slot = (slot + 1) & mask;
+                }
+                keys[slot] = oldKeys[i];
+                parents[slot] = oldParents[i];
+            }
+        }
+    }
+
+    /**
+     * Spreads the bits of a state over the table, close states such as clock
+     * hours or base-26 strings would otherwise pile up in neighboring slots
+     * @param state the state
+     * @param mask table length minus one
+     * @return the first slot to probe
+     */
+    static int slot(long state, int mask) {
+        long h = state * 0x9E3779B97F4A7C15L;
+        return (int) (h ^ (h >>> 32)) & mask;
+    }
+}
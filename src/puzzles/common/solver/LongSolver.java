@@ -0,0 +1,113 @@
+package puzzles.common.solver;
+
+import java.util.ArrayList;
+
+/**
+ * A BFS Solver that works on encoded states from a LongStateSpace. The queue
+ * is a growing ring buffer of longs and the predecessor map is a
+ * LongParentTable, so nothing is allocated per state. It visits states in
+ * the same order as Solver and gives the same path and counts.
+ *
+ * @author Teju Rajbabu & Jamie Antal
+ */
+public class LongSolver {
+    /** Parent of the start state */
+    private static final long NONE = -1L;
+
+    /** Predecessor map of encoded states */
+    private LongParentTable map;
+    /** Array list of configurations, makes the list of the shortest path */
+    private ArrayList<Configuration> shortestlist;
+    /** Total number of configurations made */
+    private int TotalConfigs;
+    /** Total number of unique configurations made */
+    private int UniqueConfigs;
+
+    /**
+     * Starts up the Solver on encoded states
+     * @param space encoding of the puzzle
+     * @param Config configuration of the puzzle to solve
+     */
+    public LongSolver(LongStateSpace space, Configuration Config) {
+        map = new LongParentTable();
+        shortestlist = new ArrayList<Configuration>();
+        long[] queue = new long[1 << 10];
+        int head = 0;
+        int length = 0;
+        long[] figs = new long[space.maxSuccessors()];
+        long start = space.encode(Config);
+        map.putIfAbsent(start, NONE);
+        queue[0] = start;
+        length = 1;
+        TotalConfigs = 1;
+        UniqueConfigs = 1;
+        while (length > 0) {
+            long removed = queue[head];
+            head = (head + 1) & (queue.length - 1);
+            length -= 1;
+            if (space.isSolution(removed)) {
+                buildPath(space, removed);
+                break;
+            }
+            int count = space.successors(removed, figs);
+            for (int i = 0; i < count; i++) {
+                TotalConfigs += 1;
+                if (map.putIfAbsent(figs[i], removed)) {
+                    UniqueConfigs += 1;
+                    if (length == queue.length) {
+                        // unroll the ring into a buffer twice the size
+                        long[] bigger = new long[queue.length * 2];
+                        for (int k = 0; k < length; k++) {
+                            bigger[k] = queue[(head + k) & (queue.length - 1)];
+                        }
+                        queue = bigger;
+                        head = 0;
+                    }
+                    queue[(head + length) & (queue.length - 1)] = figs[i];
+                    length += 1;
+                }
+            }
+        }
+    }
+
+    /**
+     * Walks the predecessor table back from the solution and decodes the path
+     * from start to solution into the shortest list
+     * @param space encoding of the puzzle
+     * @param removed the solution state
+     */
+    private void buildPath(LongStateSpace space, long removed) {
+        ArrayList<Configuration> fliplist = new ArrayList<Configuration>();
+        while (removed != NONE) {
+            fliplist.add(space.decode(removed));
+            removed = map.getParent(removed);
+        }
+        for (int i = fliplist.size(); i-- > 0;){
+            shortestlist.add(fliplist.get(i));
+        }
+    }
+
+    /**
+     * gets the list of shortest path to result
+     * @return ArrayList of configurations of shortest path
+     */
+    public ArrayList<Configuration> getShortestlist(){
+        return shortestlist;
+    }
+
+    /**
+     * gets number of total configurations
+     * @return integer total configurations made
+     */
+    public int getTotalConfigs() {
+        return TotalConfigs;
+    }
+
+    /**
+     * gets number of unique configurations
+     * @return integer unique configurations made
+     */
+    public int getUniqueConfigs(){
+        return UniqueConfigs;
+    }
+}
@@ -0,0 +1,46 @@
+package puzzles.common.solver;
+
+/**
+ * A puzzle whose configurations can each be packed into a single long. The
+ * LongSolver searches these encoded states directly, so no Configuration
+ * objects are made until the path is printed.
+ * Encoded states must not be negative; the LongSolver keeps negative values
+ * for its own bookkeeping.
+ */
+public interface LongStateSpace {
+    /**
+     * Pack a configuration into a state
+     * @param config a configuration of this puzzle
+     * @return the encoded state
+     */
+    long encode(Configuration config);
+
+    /**
+     * Unpack a state back into a configuration
+     * @param state an encoded state
+     * @return the configuration it stands for
+     */
+    Configuration decode(long state);
+
+    /**
+     * Is the state a solution?
+     * @param state an encoded state
+     * @return true if the state is a puzzle's solution; false, otherwise
+     */
+    boolean isSolution(long state);
+
+    /**
+     * Write the neighbors of a state into the buffer, in the same order as
+     * getNeighbors() of the configuration it stands for
+     * @param state an encoded state
+     * @param out buffer with room for at least maxSuccessors() states
+     * @return how many neighbors were written
+     */
+    int successors(long state, long[] out);
+
+    /**
+     * The most neighbors any state of this puzzle can have
+     * @return the buffer size successors() needs
+     */
+    int maxSuccessors();
+}
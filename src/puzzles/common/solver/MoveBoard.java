@@ -0,0 +1,79 @@
+package puzzles.common.solver;
+
+/**
+ * One mutable board that moves are made on and taken back in place, for the
+ * DepthFirstSolver. Moves are numbered from 0 to moveIds(), and the same
+ * number means the same move, such as the same piece jump, on every board,
+ * so the solver can learn which moves tend to work.
+ *
+ * @author Teju Rajbabu & Jamie Antal
+ */
+public interface MoveBoard {
+    /**
+     * Writes the moves that can be made on the board
+     * @param out gets the moves, at least maxMoves() long
+     * @return number of moves written
+     */
+    int moves(int[] out);
+
+    /**
+     * Makes a move on the board
+     * @param move a move moves() just gave
+     */
+    void make(int move);
+
+    /**
+     * Takes back the last move made
+     * @param move that move
+     */
+    void unmake(int move);
+
+    /**
+     * Is the board solved?
+     * @return true if the board is a solution
+     */
+    boolean isSolution();
+
+    /**
+     * Hashes the board into 64 bits, equal boards give equal keys
+     * @return key of the board
+     */
+    long key();
+
+    /**
+     * gets the most moves one board can have
+     * @return length moves() may need
+     */
+    int maxMoves();
+
+    /**
+     * gets the number of move numbers
+     * @return one more than the largest move number
+     */
+    int moveIds();
+
+    /**
+     * Copies the board, moves made on the copy leave this one alone
+     * @return a board as this one is now
+     */
+    MoveBoard copy();
+
+    /**
+     * Copies the board out as a Configuration
+     * @return configuration of the board as it is now
+     */
+    Configuration toConfiguration();
+
+    /**
+     * Spreads the bits of a (place, piece) number over a long, so keys can be
+     * built by xor-ing one per occupied place
+     * @param place place and piece folded into one number
+     * @return well-mixed 64 bits
+     */
+    static long mix(long place) {
+        long z = place * 0x9E3779B97F4A7C15L + 0x632BE59BD9B4E019L;
+        z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+        z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+        return z ^ (z >>> 31);
+    }
+}
@@ -0,0 +1,240 @@
+package puzzles.common.solver;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.IntBuffer;
+import java.nio.channels.FileChannel;
+import java.util.ArrayList;
+
+/**
+ * A visited table of fixed-width encoded states kept outside of the Java heap.
+ * Every state gets the next id and is stored once, with the id of its parent,
+ * in an append-only record log; an open-addressing index of ids finds a state
+ * by its bytes. The buffers are direct memory or, given a work directory,
+ * memory-mapped files, so the garbage collector never sees the states.
+ * Since states get ids in the order they are added, a BFS can read its queue
+ * straight off the log.
+ *
+ * @author Teju Rajbabu & Jamie Antal
+ */
+public class OffHeapStateTable implements StateTable {
+    /** Records per log chunk */
+    private static final int CHUNK_RECORDS = 1 << 16;
+
+    /** bytes per encoded state */
+    private final int width;
+    /** bytes per record: the state, then the parent id */
+    private final int record;
+    /** directory holding the backing files, null for plain direct memory */
+    private final File workDir;
+    /** the file holding the record log, null for plain direct memory */
+    private RandomAccessFile log;
+    /** the file holding the index, null for plain direct memory */
+    private RandomAccessFile indexFile;
+    /** chunks of the record log */
+    private ArrayList<ByteBuffer> chunks;
+    /** open-addressing index, each slot is an id plus one, 0 when free */
+    private IntBuffer index;
+    /** number of slots in the index */
+    private int capacity;
+    /** number of states held */
+    private int size;
+
+    /**
+     * Creates an empty table
+     * @param width bytes per encoded state
+     * @param workDir directory for the memory-mapped files, or null to use direct memory
+     */
+    public OffHeapStateTable(int width, File workDir) {
+        this.width = width;
+        this.record = width + Integer.BYTES;
+        this.workDir = workDir;
+        this.chunks = new ArrayList<ByteBuffer>();
+        this.size = 0;
+        try {
+            if (workDir != null) {
+                log = open("states");
+            }
+            index = allocateIndex(1 << 12);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    @Override
+    public int addIfAbsent(byte[] state, int parent) {
+        int mask = capacity - 1;
+        int slot = hash(state) & mask;
+        int held;
+        while ((held = index.get(slot)) != 0) {
+            if (matches(held - 1, state)) {
+                return NONE;
+            }
+            slot = (slot + 1) & mask;
+        }
+        int id = size;
+        if (id % CHUNK_RECORDS == 0) {
+            chunks.add(allocateChunk(id / CHUNK_RECORDS));
+        }
+        ByteBuffer chunk = chunks.get(id / CHUNK_RECORDS);
+        int offset = (id % CHUNK_RECORDS) * record;
+        chunk.put(offset, state, 0, width);
+        chunk.putInt(offset + width, parent);
+        index.put(slot, id + 1);
+        size += 1;
+        // keep the index at most half full so probes stay short
+        if (size * 2 > capacity) {
+            grow();
+        }
+        return id;
+    }
+
+    @Override
+    public void getState(int id, byte[] out) {
+        chunks.get(id / CHUNK_RECORDS).get((id % CHUNK_RECORDS) * record, out, 0, width);
+    }
+
+    @Override
+    public int getParent(int id) {
+        return chunks.get(id / CHUNK_RECORDS).getInt((id % CHUNK_RECORDS) * record + width);
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Closes and deletes the backing files, if there are any
+     */
+    @Override
+    public void close() {
+        try {
+            if (log != null) {
+                log.close();
+                new File(workDir, "states").delete();
+            }
+            if (indexFile != null) {
+                indexFile.close();
+                new File(workDir, "index-" + capacity).delete();
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Does the stored state equal the one in the buffer?
+     * @param id id of the stored state
+     * @param state buffer holding an encoded state
+     * @return true if all bytes match
+     */
+    private boolean matches(int id, byte[] state) {
+        ByteBuffer chunk = chunks.get(id / CHUNK_RECORDS);
+        int offset = (id % CHUNK_RECORDS) * record;
+        for (int i = 0; i < width; i++) {
+            if (chunk.get(offset + i) != state[i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Doubles the index and puts every id back, reading the states off the log.
+     * The old index file is only deleted once its ids are copied.
+     */
+    private void grow() {
+        byte[] state = new byte[width];
+        IntBuffer old = index;
+        int oldCapacity = capacity;
+        RandomAccessFile oldFile = indexFile;
+        try {
+            index = allocateIndex(oldCapacity * 2);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        int mask = capacity - 1;
+        for (int i = 0; i < oldCapacity; i++) {
+            int held = old.get(i);
+            if (held != 0) {
+                getState(held - 1, state);
+                int slot = hash(state) & mask;
+                while (index.get(slot) != 0) {
+                    slot = (slot + 1) & mask;
+                }
+                index.put(slot, held);
+            }
+        }
+        if (oldFile != null) {
+            try {
+                oldFile.close();
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+            new File(workDir, "index-" + oldCapacity).delete();
+        }
+    }
+
+    /**
+     * Makes a zeroed index, in a file of its own named for its size so the
+     * old index can still be read while its ids are copied
+     * @param slots number of slots, a power of two
+     * @return the index buffer
+     * @throws IOException if the index file can't be mapped
+     */
+    private IntBuffer allocateIndex(int slots) throws IOException {
+        capacity = slots;
+        if (workDir == null) {
+            return ByteBuffer.allocateDirect(slots * Integer.BYTES).asIntBuffer();
+        }
+        indexFile = open("index-" + slots);
+        return indexFile.getChannel().map(FileChannel.MapMode.READ_WRITE, 0,
+                (long) slots * Integer.BYTES).asIntBuffer();
+    }
+
+    /**
+     * Makes the buffer for one chunk of the record log
+     * @param number which chunk
+     * @return the chunk buffer
+     */
+    private ByteBuffer allocateChunk(int number) {
+        int bytes = CHUNK_RECORDS * record;
+        if (workDir == null) {
+            return ByteBuffer.allocateDirect(bytes);
+        }
+        try {
+            return log.getChannel().map(FileChannel.MapMode.READ_WRITE, (long) number * bytes, bytes);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Opens a fresh backing file in the work directory
+     * @param name file name
+     * @return the open file
+     * @throws IOException if the file can't be made
+     */
+    private RandomAccessFile open(String name) throws IOException {
+        File file = new File(workDir, name);
+        file.delete();
+        return new RandomAccessFile(file, "rw");
+    }
+
+    /**
+     * FNV-1a hash of the state bytes
+     * @param state buffer holding an encoded state
+     * @return the hash
+     */
+    private int hash(byte[] state) {
+        int h = 0x811C9DC5;
+        for (int i = 0; i < width; i++) {
+            h = (h ^ (state[i] & 0xFF)) * 0x01000193;
+        }
+        return h ^ (h >>> 16);
+    }
+}
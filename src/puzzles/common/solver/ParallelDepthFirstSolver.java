@@ -0,0 +1,222 @@
+package puzzles.common.solver;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * A parallel version of the DepthFirstSolver, for the same puzzles where
+ * every move takes one piece off the board. Each task searches its subtree
+ * depth first on its own copy of the board, and while the pool runs short
+ * of queued work a task splits the children of its board off as new tasks
+ * that idle threads can steal. Every task shares one lock-free
+ * ConcurrentLongParentTable of the keys of boards proven to lead nowhere,
+ * used as a set, and the first task to reach a solution makes every other
+ * task give up.
+ * Unlike the DepthFirstSolver, moves are tried in the order the board gives
+ * them, since history learned on one thread says little about another.
+ *
+ * @author Teju Rajbabu & Jamie Antal
+ */
+public class ParallelDepthFirstSolver {
+    /** Queued tasks below which a task splits its children off */
+    private static final int SPLIT_SURPLUS = 2;
+
+    /** keys of boards with no solution below them, their parents unused */
+    private final ConcurrentLongParentTable dead;
+    /** the moves of the first solution found, null until then */
+    private final AtomicReference<int[]> solution;
+    /** configurations made, over every task */
+    private final LongAdder total;
+    /** configurations searched, over every task */
+    private final LongAdder unique;
+    /** Array list of configurations, makes the list of the shortest path */
+    private ArrayList<Configuration> shortestlist;
+
+    /**
+     * Starts up the parallel depth-first Solver on the common pool
+     * @param board the board to solve, every move on it must take one piece off
+     */
+    public ParallelDepthFirstSolver(MoveBoard board) {
+        this(board, ForkJoinPool.commonPool());
+    }
+
+    /**
+     * Starts up the parallel depth-first Solver. The board is left as it was given.
+     * @param board the board to solve, every move on it must take one piece off
+     * @param pool the threads to search with
+     */
+    public ParallelDepthFirstSolver(MoveBoard board, ForkJoinPool pool) {
+        dead = new ConcurrentLongParentTable();
+        solution = new AtomicReference<int[]>();
+        total = new LongAdder();
+        unique = new LongAdder();
+        total.increment();
+        shortestlist = new ArrayList<Configuration>();
+        pool.invoke(new Subtree(board.copy(), new int[0], 0));
+        int[] moves = solution.get();
+        if (moves != null) {
+            MoveBoard replay = board.copy();
+            shortestlist.add(replay.toConfiguration());
+            for (int move : moves) {
+                replay.make(move);
+                shortestlist.add(replay.toConfiguration());
+            }
+        }
+    }
+
+    /**
+     * A search of everything below one board
+     */
+    @SuppressWarnings("serial")
+    private class Subtree extends RecursiveAction {
+        /** this task's own board */
+        private final MoveBoard board;
+        /** the moves from the start to the board, then to the board being searched */
+        private int[] path;
+        /** moves from the start to the board this task starts from */
+        private final int start;
+        /** key of the board this task starts from */
+        private final long key;
+        /** per depth, room for the moves of the board at that depth */
+        private final ArrayList<int[]> moves;
+        /** true once the task proved there is no solution below its board */
+        private boolean proven;
+
+        /**
+         * Creates a search
+         * @param board the board to search from, owned by the task
+         * @param path the moves from the start to the board
+         * @param key key of the board
+         */
+        Subtree(MoveBoard board, int[] path, long key) {
+            this.board = board;
+            this.path = path;
+            this.start = path.length;
+            this.key = key;
+            this.moves = new ArrayList<int[]>();
+        }
+
+        @Override
+        protected void compute() {
+            proven = search(start);
+        }
+
+        /**
+         * Searches below the board as it is now
+         * @param depth moves made from the start
+         * @return true if there is no solution below it; false if there is
+         * one or the search was told to give up
+         */
+        private boolean search(int depth) {
+            unique.increment();
+            if (board.isSolution()) {
+                solution.compareAndSet(null, Arrays.copyOf(path, depth));
+                return false;
+            }
+            if (solution.get() != null) {
+                return false;
+            }
+            int level = depth - start;
+            if (moves.size() == level) {
+                moves.add(new int[board.maxMoves()]);
+            }
+            int[] list = moves.get(level);
+            int count = board.moves(list);
+            total.add(count);
+            if (depth == path.length) {
+                path = Arrays.copyOf(path, 2 * depth + 1);
+            }
+            if (count > 1 && getSurplusQueuedTaskCount() < SPLIT_SURPLUS) {
+                return split(depth, list, count);
+            }
+            boolean proven = true;
+            for (int i = 0; i < count; i++) {
+                int move = list[i];
+                board.make(move);
+                long child = board.key() & Long.MAX_VALUE;
+                if (!dead.contains(child)) {
+                    path[depth] = move;
+                    if (search(depth + 1)) {
+                        dead.putIfAbsent(child, 0);
+                    } else {
+                        proven = false;
+                        if (solution.get() != null) {
+                            board.unmake(move);
+                            return false;
+                        }
+                    }
+                }
+                board.unmake(move);
+            }
+            return proven;
+        }
+
+        /**
+         * Hands every child of the board to a task of its own and waits for them
+         * @param depth moves made from the start
+         * @param list the moves of the board
+         * @param count number of moves in the list
+         * @return true if there is no solution below the board
+         */
+        private boolean split(int depth, int[] list, int count) {
+            ArrayList<Subtree> children = new ArrayList<Subtree>();
+            for (int i = 0; i < count; i++) {
+                board.make(list[i]);
+                long child = board.key() & Long.MAX_VALUE;
+                if (!dead.contains(child)) {
+                    int[] childPath = Arrays.copyOf(path, depth + 1);
+                    childPath[depth] = list[i];
+                    children.add(new Subtree(board.copy(), childPath, child));
+                }
+                board.unmake(list[i]);
+            }
+            invokeAll(children);
+            boolean proven = true;
+            for (Subtree subtree : children) {
+                if (subtree.proven) {
+                    dead.putIfAbsent(subtree.key, 0);
+                } else {
+                    proven = false;
+                }
+            }
+            return proven;
+        }
+    }
+
+    /**
+     * gets the number of boards proven to lead nowhere
+     * @return boards in the dead-state table
+     */
+    public int getDeadStates() {
+        return (int) dead.size();
+    }
+
+    /**
+     * gets the list of shortest path to result
+     * @return ArrayList of configurations of shortest path
+     */
+    public ArrayList<Configuration> getShortestlist(){
+        return shortestlist;
+    }
+
+    /**
+     * gets number of total configurations
+     * @return integer total configurations made
+     */
+    public int getTotalConfigs() {
+        return total.intValue();
+    }
+
+    /**
+     * gets number of configurations searched, not counting those the table
+     * already knew to lead nowhere
+     * @return integer configurations searched
+     */
+    public int getUniqueConfigs(){
+        return unique.intValue();
+    }
+}
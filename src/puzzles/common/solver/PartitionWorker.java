@@ -0,0 +1,267 @@
+package puzzles.common.solver;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.net.InetAddress;
+import java.net.Socket;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * One worker process of the PartitionedSolver. It owns the states whose
+ * encoding hashes to its partition: their parents, and their part of the
+ * layer being expanded. Children are handed to their owners through one file
+ * per pair of workers in the shared work directory, written in large
+ * buffered batches, and the coordinator tells every worker when to expand,
+ * merge and number its states over a loopback socket.
+ *
+ * @author Teju Rajbabu & Jamie Antal
+ */
+public class PartitionWorker {
+    /** Command: take the start state */
+    static final byte SEED = 1;
+    /** Command: test the layer for solutions, and write out its children if there are none */
+    static final byte EXPAND = 2;
+    /** Command: read the children sent here and keep the new ones */
+    static final byte MERGE = 3;
+    /** Command: take the layer positions of the new states */
+    static final byte RANKS = 4;
+    /** Command: look up the parent of a state */
+    static final byte PARENT = 5;
+    /** Command: stop */
+    static final byte QUIT = 6;
+    /** Bytes buffered on the socket and the child files */
+    private static final int BUFFER = 1 << 16;
+
+    /** encoding of the puzzle */
+    private final ConfigurationCodec codec;
+    /** this worker's partition */
+    private final int id;
+    /** number of workers */
+    private final int workers;
+    /** directory shared by every worker for the child files */
+    private final File workDir;
+    /** the parent of every state owned, empty for the start */
+    private final HashMap<ByteBuffer, byte[]> parents;
+    /** owned states of the layer being expanded, in layer order */
+    private byte[][] layer;
+    /** position of each of them in the whole layer */
+    private long[] positions;
+    /** owned states of the next layer, in layer order */
+    private byte[][] next;
+
+    /**
+     * Creates a worker with nothing owned yet
+     * @param codec encoding of the puzzle
+     * @param id this worker's partition
+     * @param workers number of workers
+     * @param workDir directory shared by every worker
+     */
+    PartitionWorker(ConfigurationCodec codec, int id, int workers, File workDir) {
+        this.codec = codec;
+        this.id = id;
+        this.workers = workers;
+        this.workDir = workDir;
+        this.parents = new HashMap<ByteBuffer, byte[]>();
+        this.layer = new byte[0][];
+        this.positions = new long[0];
+        this.next = new byte[0][];
+    }
+
+    /**
+     * Picks the worker that owns a state
+     * @param state an encoded state
+     * @param workers number of workers
+     * @return the owner's partition
+     */
+    static int owner(byte[] state, int workers) {
+        return Math.floorMod(Arrays.hashCode(state), workers);
+    }
+
+    /**
+     * Gets the file children go through from one worker to another
+     * @param workDir directory shared by every worker
+     * @param from the worker that made the children
+     * @param to the worker that owns them
+     * @return the file
+     */
+    static File childFile(File workDir, int from, int to) {
+        return new File(workDir, "children-" + from + "-" + to + ".bin");
+    }
+
+    /**
+     * Answers the coordinator's commands until it says to stop
+     * @param in commands from the coordinator
+     * @param out replies to the coordinator
+     * @throws IOException if the socket or a child file fails
+     */
+    void serve(DataInputStream in, DataOutputStream out) throws IOException {
+        out.writeInt(id);
+        out.flush();
+        while (true) {
+            byte command = in.readByte();
+            if (command == SEED) {
+                byte[] state = in.readNBytes(codec.width());
+                parents.put(ByteBuffer.wrap(state), new byte[0]);
+                layer = new byte[][]{state};
+                positions = new long[]{0};
+            } else if (command == EXPAND) {
+                expand(out);
+            } else if (command == MERGE) {
+                merge(out);
+            } else if (command == RANKS) {
+                positions = new long[in.readInt()];
+                for (int i = 0; i < positions.length; i++) {
+                    positions[i] = in.readLong();
+                }
+                layer = next;
+                next = new byte[0][];
+            } else if (command == PARENT) {
+                byte[] parent = parents.get(ByteBuffer.wrap(in.readNBytes(codec.width())));
+                out.writeBoolean(parent != null && parent.length > 0);
+                if (parent != null && parent.length > 0) {
+                    out.write(parent);
+                }
+            } else {
+                return;
+            }
+            out.flush();
+        }
+    }
+
+    /**
+     * Tests the owned states of the layer in order. Replies with the position
+     * of the first solution and its state, or -1 and the number of children
+     * written out to their owners.
+     * @param out replies to the coordinator
+     * @throws IOException if a child file can't be written
+     */
+    private void expand(DataOutputStream out) throws IOException {
+        Configuration[] configs = new Configuration[layer.length];
+        for (int i = 0; i < layer.length; i++) {
+            configs[i] = codec.decode(layer[i]);
+            if (configs[i].isSolution()) {
+                out.writeLong(positions[i]);
+                out.write(layer[i]);
+                return;
+            }
+        }
+        DataOutputStream[] files = new DataOutputStream[workers];
+        long made = 0;
+        try {
+            for (int to = 0; to < workers; to++) {
+                files[to] = new DataOutputStream(new BufferedOutputStream(
+                        new FileOutputStream(childFile(workDir, id, to)), BUFFER));
+            }
+            for (int i = 0; i < layer.length; i++) {
+                int j = 0;
+                for (Configuration fig : configs[i].getNeighbors()) {
+                    byte[] child = new byte[codec.width()];
+                    codec.encode(fig, child);
+                    DataOutputStream file = files[owner(child, workers)];
+                    file.write(child);
+                    // the queue of the BFS Solver holds children in (parent position, neighbor) order
+                    file.writeLong(positions[i] << 32 | j);
+                    file.write(layer[i]);
+                    j += 1;
+                    made += 1;
+                }
+            }
+        } finally {
+            for (DataOutputStream file : files) {
+                if (file != null) {
+                    file.close();
+                }
+            }
+        }
+        out.writeLong(-1);
+        out.writeLong(made);
+    }
+
+    /**
+     * Reads every child sent here, keeps each new state with the parent of
+     * its smallest claim, and replies with the number of new states and
+     * their claims, smallest first
+     * @param out replies to the coordinator
+     * @throws IOException if a child file can't be read
+     */
+    private void merge(DataOutputStream out) throws IOException {
+        HashMap<ByteBuffer, Long> claims = new HashMap<ByteBuffer, Long>();
+        HashMap<ByteBuffer, byte[]> claimants = new HashMap<ByteBuffer, byte[]>();
+        for (int from = 0; from < workers; from++) {
+            File file = childFile(workDir, from, id);
+            try (DataInputStream in = new DataInputStream(new BufferedInputStream(
+                    new FileInputStream(file), BUFFER))) {
+                while (true) {
+                    byte[] child = new byte[codec.width()];
+                    try {
+                        in.readFully(child);
+                    } catch (EOFException e) {
+                        break;
+                    }
+                    long claim = in.readLong();
+                    byte[] parent = in.readNBytes(codec.width());
+                    ByteBuffer key = ByteBuffer.wrap(child);
+                    if (parents.containsKey(key)) {
+                        continue;
+                    }
+                    Long best = claims.get(key);
+                    if (best == null || claim < best) {
+                        claims.put(key, claim);
+                        claimants.put(key, parent);
+                    }
+                }
+            }
+            file.delete();
+        }
+        ArrayList<Map.Entry<ByteBuffer, Long>> fresh = new ArrayList<Map.Entry<ByteBuffer, Long>>(claims.entrySet());
+        fresh.sort(Map.Entry.comparingByValue());
+        next = new byte[fresh.size()][];
+        out.writeInt(fresh.size());
+        for (int i = 0; i < next.length; i++) {
+            ByteBuffer key = fresh.get(i).getKey();
+            parents.put(key, claimants.get(key));
+            next[i] = key.array();
+            out.writeLong(fresh.get(i).getValue());
+        }
+    }
+
+    /**
+     * Starts a worker process and serves its coordinator. If it fails, it
+     * says why on standard error and exits with code 1.
+     * @param args port of the coordinator, partition, number of workers, work
+     *             directory, CodecFactory class, then the factory's arguments
+     */
+    public static void main(String[] args) {
+        if (args.length < 5) {
+            System.out.println("Usage: java PartitionWorker port id workers workDir factory [args...]");
+            return;
+        }
+        try {
+            CodecFactory factory = (CodecFactory) Class.forName(args[4]).getDeclaredConstructor().newInstance();
+            ConfigurationCodec codec = factory.codec(Arrays.copyOfRange(args, 5, args.length));
+            PartitionWorker worker = new PartitionWorker(codec, Integer.parseInt(args[1]),
+                    Integer.parseInt(args[2]), new File(args[3]));
+            try (Socket socket = new Socket(InetAddress.getLoopbackAddress(), Integer.parseInt(args[0]))) {
+                worker.serve(new DataInputStream(new BufferedInputStream(socket.getInputStream(), BUFFER)),
+                        new DataOutputStream(new BufferedOutputStream(socket.getOutputStream(), BUFFER)));
+            }
+        } catch (ReflectiveOperationException e) {
+            System.err.println("Worker " + args[1] + ": no CodecFactory " + args[4] + ": " + e);
+            System.exit(1);
+        } catch (IOException | RuntimeException e) {
+            System.err.println("Worker " + args[1] + " failed: " + e);
+            System.exit(1);
+        }
+    }
+}
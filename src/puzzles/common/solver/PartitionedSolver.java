@@ -0,0 +1,294 @@
+package puzzles.common.solver;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.net.InetAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.net.SocketTimeoutException;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.PriorityQueue;
+
+/**
+ * A BFS Solver spread over several worker processes on this machine, for
+ * solves bigger than one heap. Each state belongs to the worker its encoding
+ * hashes to, which alone remembers it and its parent. The coordinator keeps
+ * no states: layer by layer it has every worker expand its part of the
+ * layer, pass the children to their owners and keep the new ones, then
+ * numbers the new layer in the order the queue of the BFS Solver would hold
+ * it. Every child carries a claim of (parent position, neighbor index), and
+ * each owner keeps the smallest claim, so the parents and the path are the
+ * same ones the BFS Solver finds.
+ * Workers get the puzzle through a CodecFactory and talk to the coordinator
+ * over loopback sockets; children go between workers through files in the
+ * work directory, which can live in shared memory such as /dev/shm.
+ *
+ * @author Teju Rajbabu & Jamie Antal
+ */
+public class PartitionedSolver {
+    /** Bytes buffered on each socket */
+    private static final int BUFFER = 1 << 16;
+    /** Milliseconds to wait for a worker to connect before looking whether the workers are still running */
+    private static final int ACCEPT_POLL_MILLIS = 200;
+
+    /** encoding of the puzzle */
+    private final ConfigurationCodec codec;
+    /** commands to each worker */
+    private final DataOutputStream[] toWorker;
+    /** replies from each worker */
+    private final DataInputStream[] fromWorker;
+    /** Array list of configurations, makes the list of the shortest path */
+    private ArrayList<Configuration> shortestlist;
+    /** Total number of configurations made */
+    private long TotalConfigs;
+    /** Total number of unique configurations made */
+    private long UniqueConfigs;
+
+    /**
+     * Starts the workers and solves
+     * @param Config configuration of the puzzle to solve
+     * @param codec fixed-width encoding of the puzzle
+     * @param workers number of worker processes
+     * @param workDir directory for the child files, made if it does not exist
+     * @param factory name of the CodecFactory class that sets the puzzle up in a worker
+     * @param factoryArgs what the factory needs, such as the puzzle's file name
+     */
+    public PartitionedSolver(Configuration Config, ConfigurationCodec codec, int workers, File workDir,
+                             String factory, String... factoryArgs) {
+        this.codec = codec;
+        this.toWorker = new DataOutputStream[workers];
+        this.fromWorker = new DataInputStream[workers];
+        this.shortestlist = new ArrayList<Configuration>();
+        ArrayList<Process> processes = new ArrayList<Process>();
+        Socket[] sockets = new Socket[workers];
+        try (ServerSocket server = new ServerSocket(0, workers, InetAddress.getLoopbackAddress())) {
+            Files.createDirectories(workDir.toPath());
+            String java = System.getProperty("java.home") + File.separator + "bin" + File.separator + "java";
+            for (int id = 0; id < workers; id++) {
+                List<String> command = new ArrayList<String>(List.of(java, "-cp",
+                        System.getProperty("java.class.path"), PartitionWorker.class.getName(),
+                        String.valueOf(server.getLocalPort()), String.valueOf(id), String.valueOf(workers),
+                        workDir.getPath(), factory));
+                Collections.addAll(command, factoryArgs);
+                processes.add(new ProcessBuilder(command).inheritIO().start());
+            }
+            server.setSoTimeout(ACCEPT_POLL_MILLIS);
+            for (int i = 0; i < workers; i++) {
+                Socket socket = accept(server, processes, sockets);
+                DataInputStream in = new DataInputStream(new BufferedInputStream(socket.getInputStream(), BUFFER));
+                int id = in.readInt();
+                sockets[id] = socket;
+                fromWorker[id] = in;
+                toWorker[id] = new DataOutputStream(new BufferedOutputStream(socket.getOutputStream(), BUFFER));
+            }
+            solve(Config);
+            for (DataOutputStream out : toWorker) {
+                out.writeByte(PartitionWorker.QUIT);
+                out.flush();
+            }
+            for (Process process : processes) {
+                process.waitFor();
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } finally {
+            for (Socket socket : sockets) {
+                try {
+                    if (socket != null) {
+                        socket.close();
+                    }
+                } catch (IOException ignored) {}
+            }
+            for (Process process : processes) {
+                process.destroy();
+            }
+            for (int from = 0; from < workers; from++) {
+                for (int to = 0; to < workers; to++) {
+                    PartitionWorker.childFile(workDir, from, to).delete();
+                }
+            }
+        }
+    }
+
+    /**
+     * Waits for the next worker to connect. A worker that exits before it
+     * connects never will, so the wait gives up once one has.
+     * @param server the socket the workers connect to, with a timeout set
+     * @param processes the worker processes, by partition
+     * @param sockets the sockets of the workers connected so far, by partition
+     * @return the socket of the worker that connected
+     * @throws IOException if a worker exited before connecting, or the socket fails
+     */
+    private static Socket accept(ServerSocket server, List<Process> processes, Socket[] sockets) throws IOException {
+        while (true) {
+            try {
+                Socket socket = server.accept();
+                socket.setSoTimeout(0);
+                return socket;
+            } catch (SocketTimeoutException e) {
+                for (int id = 0; id < processes.size(); id++) {
+                    Process process = processes.get(id);
+                    if (sockets[id] == null && !process.isAlive()) {
+                        throw new IOException("Worker " + id + " exited with code " + process.exitValue()
+                                + " before connecting");
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * Runs the layers until one holds a solution or the next one is empty
+     * @param Config configuration of the puzzle to solve
+     * @throws IOException if a worker can't be reached
+     */
+    private void solve(Configuration Config) throws IOException {
+        int workers = toWorker.length;
+        byte[] start = new byte[codec.width()];
+        codec.encode(Config, start);
+        DataOutputStream seed = toWorker[PartitionWorker.owner(start, workers)];
+        seed.writeByte(PartitionWorker.SEED);
+        seed.write(start);
+        TotalConfigs = 1;
+        UniqueConfigs = 1;
+        while (true) {
+            broadcast(PartitionWorker.EXPAND);
+            long first = Long.MAX_VALUE;
+            byte[] solution = null;
+            for (DataInputStream in : fromWorker) {
+                long position = in.readLong();
+                if (position >= 0) {
+                    byte[] state = in.readNBytes(codec.width());
+                    if (position < first) {
+                        first = position;
+                        solution = state;
+                    }
+                } else {
+                    TotalConfigs += in.readLong();
+                }
+            }
+            if (solution != null) {
+                buildPath(solution);
+                return;
+            }
+            broadcast(PartitionWorker.MERGE);
+            long[][] claims = new long[workers][];
+            long fresh = 0;
+            for (int id = 0; id < workers; id++) {
+                claims[id] = new long[fromWorker[id].readInt()];
+                for (int i = 0; i < claims[id].length; i++) {
+                    claims[id][i] = fromWorker[id].readLong();
+                }
+                fresh += claims[id].length;
+            }
+            if (fresh == 0) {
+                return;
+            }
+            UniqueConfigs += fresh;
+            rank(claims);
+        }
+    }
+
+    /**
+     * Numbers the new layer: merges the sorted claims of every worker and
+     * tells each worker the layer position of each of its states
+     * @param claims per worker, the claims of its new states, smallest first
+     * @throws IOException if a worker can't be reached
+     */
+    private void rank(long[][] claims) throws IOException {
+        int[] next = new int[claims.length];
+        long[][] positions = new long[claims.length][];
+        PriorityQueue<Integer> heap = new PriorityQueue<Integer>(
+                (a, b) -> Long.compare(claims[a][next[a]], claims[b][next[b]]));
+        for (int id = 0; id < claims.length; id++) {
+            positions[id] = new long[claims[id].length];
+            if (claims[id].length > 0) {
+                heap.add(id);
+            }
+        }
+        long position = 0;
+        while (!heap.isEmpty()) {
+            int id = heap.poll();
+            positions[id][next[id]] = position++;
+            next[id] += 1;
+            if (next[id] < claims[id].length) {
+                heap.add(id);
+            }
+        }
+        for (int id = 0; id < claims.length; id++) {
+            toWorker[id].writeByte(PartitionWorker.RANKS);
+            toWorker[id].writeInt(positions[id].length);
+            for (long p : positions[id]) {
+                toWorker[id].writeLong(p);
+            }
+            toWorker[id].flush();
+        }
+    }
+
+    /**
+     * Walks the parents back from the solution, asking each state's owner
+     * @param solution the encoded solution
+     * @throws IOException if a worker can't be reached
+     */
+    private void buildPath(byte[] solution) throws IOException {
+        ArrayList<Configuration> fliplist = new ArrayList<Configuration>();
+        byte[] state = solution;
+        while (state != null) {
+            fliplist.add(codec.decode(state));
+            int id = PartitionWorker.owner(state, toWorker.length);
+            toWorker[id].writeByte(PartitionWorker.PARENT);
+            toWorker[id].write(state);
+            toWorker[id].flush();
+            state = fromWorker[id].readBoolean() ? fromWorker[id].readNBytes(codec.width()) : null;
+        }
+        for (int i = fliplist.size(); i-- > 0;){
+            shortestlist.add(fliplist.get(i));
+        }
+    }
+
+    /**
+     * Sends a command to every worker
+     * @param command the command
+     * @throws IOException if a worker can't be reached
+     */
+    private void broadcast(byte command) throws IOException {
+        for (DataOutputStream out : toWorker) {
+            out.writeByte(command);
+            out.flush();
+        }
+    }
+
+    /**
+     * gets the list of shortest path to result
+     * @return ArrayList of configurations of shortest path
+     */
+    public ArrayList<Configuration> getShortestlist(){
+        return shortestlist;
+    }
+
+    /**
+     * gets number of total configurations
+     * @return total configurations made
+     */
+    public long getTotalConfigs() {
+        return TotalConfigs;
+    }
+
+    /**
+     * gets number of unique configurations
+     * @return unique configurations made
+     */
+    public long getUniqueConfigs(){
+        return UniqueConfigs;
+    }
+}
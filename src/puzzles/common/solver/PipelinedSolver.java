@@ -0,0 +1,495 @@
+package puzzles.common.solver;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * A level-synchronous BFS Solver split into two stages that run at once.
+ * Expander threads each take a slice of the layer, make the children of its
+ * configurations and hand every child to the deduplicator that owns its hash
+ * shard, through a bounded ring that only that expander writes and only that
+ * deduplicator reads. Each deduplicator keeps the visited configurations of
+ * its shard to itself, so no stage takes a lock and expanders never look at
+ * a visited set. A child seen twice in one layer keeps the parent with the
+ * lowest (layer index, neighbor index) pair, the one the sequential queue
+ * would have found first, so the path is the one of the BFS Solver.
+ * Every thread counts the items it handled and the time it spent working and
+ * stalled on its rings; an expander stalled on full rings means hashing and
+ * dedup is the slower stage, a deduplicator stalled on empty ones means move
+ * generation is. The expander hashes each child once to pick its shard, so
+ * that much of the hashing is counted in the first stage.
+ *
+ * @author Teju Rajbabu & Jamie Antal
+ */
+public class PipelinedSolver {
+    /** Children a ring holds before its expander has to wait */
+    private static final int RING_SIZE = 1 << 12;
+
+    /** the visited configurations of each shard, mapped to their parent; the start maps to null */
+    private final ArrayList<HashMap<Configuration, Configuration>> shards;
+    /** the counters of every expander and deduplicator */
+    private final ArrayList<StageStatistics> statistics;
+    /** Array list of configurations, makes the list of the shortest path */
+    private ArrayList<Configuration> shortestlist;
+    /** Total number of configurations made */
+    private int TotalConfigs;
+    /** Total number of unique configurations made */
+    private int UniqueConfigs;
+
+    /**
+     * Starts up the pipelined Solver, splitting the available processors
+     * between the two stages
+     * @param Config configuration of the puzzle to solve
+     */
+    public PipelinedSolver(Configuration Config) {
+        this(Config, Math.max(1, Runtime.getRuntime().availableProcessors() / 2),
+                Math.max(1, Runtime.getRuntime().availableProcessors() / 2));
+    }
+
+    /**
+     * Starts up the pipelined Solver
+     * @param Config configuration of the puzzle to solve
+     * @param expanders number of threads making children
+     * @param deduplicators number of threads, and hash shards, dropping duplicates
+     */
+    public PipelinedSolver(Configuration Config, int expanders, int deduplicators) {
+        if (expanders < 1 || deduplicators < 1) {
+            throw new IllegalArgumentException("each stage needs at least one thread");
+        }
+        this.shortestlist = new ArrayList<Configuration>();
+        this.shards = new ArrayList<HashMap<Configuration, Configuration>>();
+        this.statistics = new ArrayList<StageStatistics>();
+        for (int d = 0; d < deduplicators; d++) {
+            shards.add(new HashMap<Configuration, Configuration>());
+        }
+        for (int e = 0; e < expanders; e++) {
+            statistics.add(new StageStatistics("expander " + e));
+        }
+        for (int d = 0; d < deduplicators; d++) {
+            statistics.add(new StageStatistics("deduplicator " + d));
+        }
+        TotalConfigs = 1;
+        UniqueConfigs = 1;
+        shards.get(shard(Config)).put(Config, null);
+        // both stages run at once, so every thread needs its own worker
+        ExecutorService pool = Executors.newFixedThreadPool(expanders + deduplicators, runnable -> {
+            Thread thread = new Thread(runnable, "pipelined-solver");
+            thread.setDaemon(true);
+            return thread;
+        });
+        try {
+            search(Config, expanders, pool);
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    /**
+     * Runs the BFS one layer at a time until a solution is found or no layer is left
+     * @param Config starting configuration
+     * @param expanders number of expander threads
+     * @param pool the workers of both stages
+     */
+    private void search(Configuration Config, int expanders, ExecutorService pool) {
+        int deduplicators = shards.size();
+        Configuration[] layer = {Config};
+        while (layer.length > 0) {
+            // the sequential queue stops at the first solution in layer order
+            int solution = 0;
+            while (solution < layer.length && !layer[solution].isSolution()) {
+                solution += 1;
+            }
+
+            // states before the solution are still expanded, just like the queue does
+            Configuration[][] children = new Configuration[solution][];
+            Ring[][] rings = new Ring[expanders][deduplicators];
+            for (Ring[] row : rings) {
+                for (int d = 0; d < deduplicators; d++) {
+                    row[d] = new Ring();
+                }
+            }
+            List<Callable<long[]>> tasks = new ArrayList<Callable<long[]>>();
+            for (int e = 0; e < expanders; e++) {
+                int from = (int) ((long) solution * e / expanders);
+                int to = (int) ((long) solution * (e + 1) / expanders);
+                tasks.add(expander(layer, from, to, children, rings[e], statistics.get(e)));
+            }
+            for (int d = 0; d < deduplicators; d++) {
+                Ring[] inputs = new Ring[expanders];
+                for (int e = 0; e < expanders; e++) {
+                    inputs[e] = rings[e][d];
+                }
+                tasks.add(deduplicator(layer, shards.get(d), inputs, statistics.get(expanders + d)));
+            }
+
+            // the deduplicators hand back the winning claims of the children new to their shard
+            long[][] claims = new long[deduplicators][];
+            try {
+                List<Future<long[]>> results = pool.invokeAll(tasks);
+                for (int t = 0; t < results.size(); t++) {
+                    long[] won = results.get(t).get();
+                    if (t >= expanders) {
+                        claims[t - expanders] = won;
+                    }
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            } catch (ExecutionException e) {
+                throw new IllegalStateException(e.getCause());
+            }
+            for (Configuration[] figs : children) {
+                TotalConfigs += figs.length;
+            }
+
+            // order the new layer by its claims, the order the queue would hold
+            int size = 0;
+            for (long[] shard : claims) {
+                size += shard.length;
+            }
+            long[] order = new long[size];
+            int k = 0;
+            for (long[] shard : claims) {
+                System.arraycopy(shard, 0, order, k, shard.length);
+                k += shard.length;
+            }
+            Arrays.parallelSort(order);
+            UniqueConfigs += order.length;
+            if (solution < layer.length) {
+                buildPath(layer[solution]);
+                return;
+            }
+            layer = new Configuration[order.length];
+            for (k = 0; k < order.length; k++) {
+                layer[k] = children[(int) (order[k] >>> 32)][(int) order[k]];
+            }
+        }
+    }
+
+    /**
+     * Makes the task of one expander: the children of a slice of the layer
+     * are kept for the next layer and sent to their shard's deduplicator,
+     * tagged with their claim
+     * @param layer the layer being expanded
+     * @param from first index of the slice
+     * @param to one past the last index of the slice
+     * @param children where the children of each layer index are kept
+     * @param outputs this expander's ring to each deduplicator
+     * @param counters this expander's counters
+     * @return the task, which gives back null
+     */
+    private Callable<long[]> expander(Configuration[] layer, int from, int to, Configuration[][] children,
+                                      Ring[] outputs, StageStatistics counters) {
+        return () -> {
+            long start = System.nanoTime();
+            try {
+                for (int i = from; i < to; i++) {
+                    Configuration[] figs = layer[i].getNeighbors().toArray(new Configuration[0]);
+                    children[i] = figs;
+                    for (int j = 0; j < figs.length; j++) {
+                        counters.stalledNanos += outputs[shard(figs[j])].put(figs[j], ((long) i << 32) | j);
+                    }
+                    counters.items += 1;
+                }
+            } finally {
+                for (Ring ring : outputs) {
+                    ring.close();
+                }
+                counters.totalNanos += System.nanoTime() - start;
+            }
+            return null;
+        };
+    }
+
+    /**
+     * Makes the task of one deduplicator: children from every expander are
+     * checked against the shard, and a child new to it keeps its lowest claim.
+     * Once every expander is done the new children join the shard.
+     * @param layer the layer being expanded
+     * @param visited the shard this deduplicator owns
+     * @param inputs the ring from each expander to this deduplicator
+     * @param counters this deduplicator's counters
+     * @return the task, which gives back the claims of the children new to the shard
+     */
+    private static Callable<long[]> deduplicator(Configuration[] layer, HashMap<Configuration, Configuration> visited,
+                                                 Ring[] inputs, StageStatistics counters) {
+        return () -> {
+            long start = System.nanoTime();
+            HashMap<Configuration, Long> claims = new HashMap<Configuration, Long>();
+            try {
+                int open = inputs.length;
+                boolean[] done = new boolean[inputs.length];
+                while (open > 0) {
+                    boolean moved = false;
+                    for (int e = 0; e < inputs.length; e++) {
+                        if (done[e]) {
+                            continue;
+                        }
+                        Ring ring = inputs[e];
+                        // read closed before the ring, so a closed ring found empty stays empty
+                        boolean closed = ring.isClosed();
+                        Configuration fig;
+                        while ((fig = ring.peek()) != null) {
+                            long claim = ring.claim();
+                            ring.take();
+                            if (!visited.containsKey(fig)) {
+                                claims.merge(fig, claim, Math::min);
+                            }
+                            counters.items += 1;
+                            moved = true;
+                        }
+                        if (closed) {
+                            done[e] = true;
+                            open -= 1;
+                        }
+                    }
+                    if (!moved && open > 0) {
+                        long stall = System.nanoTime();
+                        Thread.yield();
+                        counters.stalledNanos += System.nanoTime() - stall;
+                    }
+                }
+                long[] won = new long[claims.size()];
+                int k = 0;
+                for (Map.Entry<Configuration, Long> entry : claims.entrySet()) {
+                    visited.put(entry.getKey(), layer[(int) (entry.getValue() >>> 32)]);
+                    won[k++] = entry.getValue();
+                }
+                return won;
+            } finally {
+                counters.totalNanos += System.nanoTime() - start;
+            }
+        };
+    }
+
+    /**
+     * Gets the shard a configuration belongs to
+     * @param fig the configuration
+     * @return index of its shard
+     */
+    private int shard(Configuration fig) {
+        return Math.floorMod(fig.hashCode(), shards.size());
+    }
+
+    /**
+     * Walks the parents back from the solution, through whichever shards
+     * hold them, and stores the path from start to solution in the shortest list
+     * @param removed the solution configuration
+     */
+    private void buildPath(Configuration removed) {
+        ArrayList<Configuration> fliplist = new ArrayList<Configuration>();
+        while (removed != null) {
+            fliplist.add(removed);
+            removed = shards.get(shard(removed)).get(removed);
+        }
+        for (int i = fliplist.size(); i-- > 0;){
+            shortestlist.add(fliplist.get(i));
+        }
+    }
+
+    /**
+     * A bounded queue of children with one writer and one reader. The writer
+     * waits while it is full; the reader never waits, it polls its rings in turn.
+     */
+    private static final class Ring {
+        /** the children */
+        private final Configuration[] figs;
+        /** the claim of the child in the same slot */
+        private final long[] claims;
+        /** number of children taken, only the reader moves it */
+        private final AtomicLong head;
+        /** number of children put, only the writer moves it */
+        private final AtomicLong tail;
+        /** true once the writer put its last child */
+        private volatile boolean closed;
+
+        /**
+         * Creates an empty ring
+         */
+        Ring() {
+            figs = new Configuration[RING_SIZE];
+            claims = new long[RING_SIZE];
+            head = new AtomicLong();
+            tail = new AtomicLong();
+        }
+
+        /**
+         * Adds a child, waiting while the ring is full
+         * @param fig the child
+         * @param claim its (layer index, neighbor index) pair
+         * @return nanoseconds spent waiting
+         */
+        long put(Configuration fig, long claim) {
+            long t = tail.get();
+            long stalled = 0;
+            if (t - head.get() == RING_SIZE) {
+                long stall = System.nanoTime();
+                while (t - head.get() == RING_SIZE) {
+                    Thread.yield();
+                }
+                stalled = System.nanoTime() - stall;
+            }
+            int slot = (int) t & (RING_SIZE - 1);
+            figs[slot] = fig;
+            claims[slot] = claim;
+            // the slot is written before the reader can see the new tail
+            tail.lazySet(t + 1);
+            return stalled;
+        }
+
+        /**
+         * Gets the oldest child without taking it
+         * @return the child, or null if the ring is empty
+         */
+        Configuration peek() {
+            long h = head.get();
+            if (h == tail.get()) {
+                return null;
+            }
+            return figs[(int) h & (RING_SIZE - 1)];
+        }
+
+        /**
+         * Gets the claim of the oldest child; only call after peek() found one
+         * @return its claim
+         */
+        long claim() {
+            return claims[(int) head.get() & (RING_SIZE - 1)];
+        }
+
+        /**
+         * Drops the oldest child, freeing its slot for the writer
+         */
+        void take() {
+            long h = head.get();
+            figs[(int) h & (RING_SIZE - 1)] = null;
+            head.lazySet(h + 1);
+        }
+
+        /**
+         * Marks that the writer is done
+         */
+        void close() {
+            closed = true;
+        }
+
+        /**
+         * Is the writer done?
+         * @return true once no more children will be put
+         */
+        boolean isClosed() {
+            return closed;
+        }
+    }
+
+    /**
+     * The counters of one expander or deduplicator, over the whole solve.
+     * Only that thread writes them.
+     */
+    public static final class StageStatistics {
+        /** the stage and number of the thread */
+        private final String name;
+        /** configurations expanded, or children checked */
+        private long items;
+        /** time spent in the stage */
+        private long totalNanos;
+        /** part of it spent waiting on a ring */
+        private long stalledNanos;
+
+        /**
+         * Creates zeroed counters
+         * @param name the stage and number of the thread
+         */
+        StageStatistics(String name) {
+            this.name = name;
+        }
+
+        /**
+         * gets the stage and number of the thread
+         * @return name such as "expander 0" or "deduplicator 1"
+         */
+        public String getName() {
+            return name;
+        }
+
+        /**
+         * gets the configurations an expander expanded, or the children a deduplicator checked
+         * @return items handled
+         */
+        public long getItems() {
+            return items;
+        }
+
+        /**
+         * gets the time spent working, waiting left out
+         * @return busy nanoseconds
+         */
+        public long getBusyNanos() {
+            return totalNanos - stalledNanos;
+        }
+
+        /**
+         * gets the time spent waiting on a full ring, or on empty ones
+         * @return stalled nanoseconds
+         */
+        public long getStalledNanos() {
+            return stalledNanos;
+        }
+
+        /**
+         * gets the items handled per second of work
+         * @return throughput while busy
+         */
+        public double getItemsPerSecond() {
+            long busy = getBusyNanos();
+            return busy == 0 ? 0 : items * 1e9 / busy;
+        }
+
+        @Override
+        public String toString() {
+            return String.format("%s: %d items, %.0f/s busy, %d ms busy, %d ms stalled", name, items,
+                    getItemsPerSecond(), getBusyNanos() / 1000000, stalledNanos / 1000000);
+        }
+    }
+
+    /**
+     * gets the counters of every expander, then every deduplicator
+     * @return one per thread
+     */
+    public List<StageStatistics> getStageStatistics() {
+        return statistics;
+    }
+
+    /**
+     * gets the list of shortest path to result
+     * @return ArrayList of configurations of shortest path
+     */
+    public ArrayList<Configuration> getShortestlist(){
+        return shortestlist;
+    }
+
+    /**
+     * gets number of total configurations
+     * @return integer total configurations made
+     */
+    public int getTotalConfigs() {
+        return TotalConfigs;
+    }
+
+    /**
+     * gets number of unique configurations
+     * @return integer unique configurations made
+     */
+    public int getUniqueConfigs(){
+        return UniqueConfigs;
+    }
+}
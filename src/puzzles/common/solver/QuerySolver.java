@@ -0,0 +1,166 @@
+package puzzles.common.solver;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.HashSet;
+
+/**
+ * A Solver for when only the verdict is needed, not the boards along the
+ * path. No parents are stored, just the set of configurations seen, and the
+ * search stops at the first solution it makes.
+ *
+ * @author Teju Rajbabu & Jamie Antal
+ */
+public class QuerySolver {
+    /**
+     * The question the solve answers
+     */
+    public enum Query {
+        /** is there a solution at all? Answered by a depth-first search */
+        SOLVABLE,
+        /** how many moves is the shortest solution? Answered by a breadth-first search */
+        DISTANCE
+    }
+
+    /** configurations made so far, searched or not */
+    private HashSet<Configuration> visited;
+    /** true if a solution was found */
+    private boolean Solvable;
+    /** moves to the nearest solution, -1 if there is none or it was not asked for */
+    private int Distance;
+    /** Total number of configurations made */
+    private int TotalConfigs;
+    /** Total number of unique configurations made */
+    private int UniqueConfigs;
+
+    /**
+     * Starts up the query Solver
+     * @param Config configuration of the puzzle to solve
+     * @param query the question to answer
+     */
+    public QuerySolver(Configuration Config, Query query) {
+        visited = new HashSet<Configuration>();
+        visited.add(Config);
+        TotalConfigs = 1;
+        UniqueConfigs = 1;
+        Distance = -1;
+        if (Config.isSolution()) {
+            Solvable = true;
+            if (query == Query.DISTANCE) {
+                Distance = 0;
+            }
+        } else if (query == Query.SOLVABLE) {
+            Solvable = depthFirst(Config);
+        } else {
+            Distance = breadthFirst(Config);
+            Solvable = Distance >= 0;
+        }
+        visited = null;
+    }
+
+    /**
+     * Depth-first search with a stack, testing each child for a solution as
+     * soon as it is made
+     * @param Config starting configuration, not a solution
+     * @return true if a solution was found
+     */
+    private boolean depthFirst(Configuration Config) {
+        ArrayDeque<Configuration> stack = new ArrayDeque<Configuration>();
+        stack.push(Config);
+        boolean[] found = {false};
+        while (!found[0] && !stack.isEmpty()) {
+            Configuration removed = stack.pop();
+            removed.forEachNeighbor(fig -> {
+                TotalConfigs += 1;
+                if (visited.add(fig)) {
+                    UniqueConfigs += 1;
+                    if (fig.isSolution()) {
+                        found[0] = true;
+                        return false;
+                    }
+                    stack.push(fig);
+                }
+                return true;
+            });
+        }
+        return found[0];
+    }
+
+    /**
+     * Breadth-first search one layer at a time, testing each child for a
+     * solution as soon as it is made; the first one made is at the nearest depth
+     * @param Config starting configuration, not a solution
+     * @return moves to the nearest solution, or -1 if there is none
+     */
+    private int breadthFirst(Configuration Config) {
+        ArrayList<Configuration> layer = new ArrayList<Configuration>();
+        layer.add(Config);
+        boolean[] found = {false};
+        for (int depth = 1; !layer.isEmpty(); depth++) {
+            ArrayList<Configuration> next = new ArrayList<Configuration>();
+            for (Configuration removed : layer) {
+                removed.forEachNeighbor(fig -> {
+                    TotalConfigs += 1;
+                    if (visited.add(fig)) {
+                        UniqueConfigs += 1;
+                        if (fig.isSolution()) {
+                            found[0] = true;
+                            return false;
+                        }
+                        next.add(fig);
+                    }
+                    return true;
+                });
+                if (found[0]) {
+                    return depth;
+                }
+            }
+            layer = next;
+        }
+        return -1;
+    }
+
+    /**
+     * gets whether the puzzle can be solved
+     * @return true if a solution was found
+     */
+    public boolean isSolvable() {
+        return Solvable;
+    }
+
+    /**
+     * gets the number of moves of the shortest solution; only a DISTANCE
+     * query sets it
+     * @return integer moves, -1 if there is no solution or it was not asked for
+     */
+    public int getDistance() {
+        return Distance;
+    }
+
+    /**
+     * gets the answer as words, for printing on one line
+     * @return "Solvable in n moves" or "Solvable", depending on the query, or "No Solution"
+     */
+    public String getVerdict() {
+        if (!Solvable) {
+            return "No Solution";
+        }
+        return Distance < 0 ? "Solvable" : "Solvable in " + Distance + (Distance == 1 ? " move" : " moves");
+    }
+
+    /**
+     * gets number of total configurations
+     * @return integer total configurations made
+     */
+    public int getTotalConfigs() {
+        return TotalConfigs;
+    }
+
+    /**
+     * gets number of unique configurations
+     * @return integer unique configurations made
+     */
+    public int getUniqueConfigs(){
+        return UniqueConfigs;
+    }
+}
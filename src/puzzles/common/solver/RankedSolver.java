@@ -0,0 +1,206 @@
+package puzzles.common.solver;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+
+/**
+ * A BFS Solver that keeps bits instead of configurations. A ConfigurationRanker
+ * numbers the puzzle's configurations densely, and the search keeps bit arrays
+ * indexed by rank: one for the layer being expanded, one for the next layer,
+ * and two for each visited configuration's depth modulo 3, which is 0 for
+ * one never made. That is four bits per rank whether it is reached or not,
+ * so exhaustive searches fit in memory as long as the ranks stay near the
+ * reachable configurations.
+ * Each layer is expanded in rank order, so the path is a shortest one but
+ * may differ from the Solver's, and the counts are those of this order. No
+ * parents are kept: the path is walked back from the solution through
+ * predecessors whose depth is one less, which the depth bits tell apart.
+ *
+ * @author Teju Rajbabu & Jamie Antal
+ */
+public class RankedSolver {
+    /** The most ranks the bit arrays can index */
+    public static final long MAX_RANKS = (long) Integer.MAX_VALUE * Long.SIZE;
+
+    /** numbering of the puzzle */
+    private final ConfigurationRanker ranker;
+    /** the low bit of the depth code of each rank */
+    private final long[] lowDepth;
+    /** the high bit of the depth code of each rank */
+    private final long[] highDepth;
+    /** Array list of configurations, makes the list of the shortest path */
+    private ArrayList<Configuration> shortestlist;
+    /** Total number of configurations made */
+    private long TotalConfigs;
+    /** Total number of unique configurations made */
+    private long UniqueConfigs;
+    /** Deepest layer made, the eccentricity of the start after a census */
+    private int Depth;
+
+    /**
+     * Searches the puzzle
+     * @param Config configuration of the puzzle to solve, a BackwardConfiguration so the path can be walked back
+     * @param ranker numbering of the puzzle
+     * @param census true to make every reachable configuration; false to stop at the first solution
+     */
+    public RankedSolver(Configuration Config, ConfigurationRanker ranker, boolean census) {
+        if (!(Config instanceof BackwardConfiguration)) {
+            throw new IllegalArgumentException("RankedSolver needs a BackwardConfiguration");
+        }
+        if (ranker.size() > MAX_RANKS) {
+            throw new IllegalArgumentException("Puzzle has too many ranks for a bit array: " + ranker.size());
+        }
+        int words = (int) ((ranker.size() + Long.SIZE - 1) / Long.SIZE);
+        // four bit arrays: two for the depth codes, the layer and the next layer
+        long footprint = 4L * words * Long.BYTES;
+        Runtime runtime = Runtime.getRuntime();
+        if (footprint > runtime.maxMemory() - (runtime.totalMemory() - runtime.freeMemory())) {
+            throw new IllegalArgumentException("Puzzle has too many ranks for the memory left: " + ranker.size()
+                    + " ranks need " + footprint + " bytes");
+        }
+        this.ranker = ranker;
+        lowDepth = new long[words];
+        highDepth = new long[words];
+        long[] layer = new long[words];
+        long[] next = new long[words];
+        shortestlist = new ArrayList<Configuration>();
+        long start = ranker.rank(Config);
+        if (start == ConfigurationRanker.NONE) {
+            throw new IllegalArgumentException("Start configuration has no rank");
+        }
+        mark(start, 0);
+        layer[(int) (start >>> 6)] |= 1L << start;
+        TotalConfigs = 1;
+        UniqueConfigs = 1;
+        Depth = 0;
+        Configuration solution = null;
+        int solutionDepth = 0;
+        boolean more = true;
+        for (int depth = 0; more && (census || solution == null); depth++) {
+            int childDepth = depth + 1;
+            long[] made = next;
+            long before = UniqueConfigs;
+            for (int w = 0; w < words && (census || solution == null); w++) {
+                for (long bits = layer[w]; bits != 0 && (census || solution == null); bits &= bits - 1) {
+                    Configuration removed = ranker.unrank((long) w * Long.SIZE + Long.numberOfTrailingZeros(bits));
+                    if (removed.isSolution()) {
+                        if (solution == null) {
+                            solution = removed;
+                            solutionDepth = depth;
+                        }
+                        if (!census) {
+                            break;
+                        }
+                    }
+                    removed.forEachNeighbor(fig -> {
+                        TotalConfigs += 1;
+                        long rank = ranker.rank(fig);
+                        if (rank != ConfigurationRanker.NONE && depthCode(rank) == 0) {
+                            UniqueConfigs += 1;
+                            mark(rank, childDepth);
+                            made[(int) (rank >>> 6)] |= 1L << rank;
+                        }
+                        return true;
+                    });
+                }
+            }
+            more = UniqueConfigs > before;
+            if (more) {
+                Depth = childDepth;
+            }
+            long[] swap = layer;
+            layer = next;
+            next = swap;
+            Arrays.fill(next, 0L);
+        }
+        if (solution != null) {
+            walkBack(solution, solutionDepth, start);
+        }
+    }
+
+    /**
+     * Looks for a path back from a configuration to the start through
+     * predecessors one layer up each, and adds it to the shortest list from
+     * the start. A predecessor whose depth code matches could still be three
+     * or more layers deeper, so a dead end backs up to the next predecessor.
+     * @param step a configuration made at the given depth
+     * @param depth its depth
+     * @param start rank of the start
+     * @return true if the path was found and added
+     */
+    private boolean walkBack(Configuration step, int depth, long start) {
+        if (depth == 0) {
+            if (ranker.rank(step) != start) {
+                return false;
+            }
+            shortestlist.add(step);
+            return true;
+        }
+        int code = (depth - 1) % 3 + 1;
+        for (Configuration predecessor : ((BackwardConfiguration) step).getPredecessors()) {
+            long rank = ranker.rank(predecessor);
+            if (rank != ConfigurationRanker.NONE && depthCode(rank) == code
+                    && !predecessor.forEachNeighbor(fig -> !fig.equals(step))
+                    && walkBack(predecessor, depth - 1, start)) {
+                shortestlist.add(step);
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Gets the depth code of a rank
+     * @param rank the rank
+     * @return 0 if it was never made; its depth modulo 3, plus one, otherwise
+     */
+    private int depthCode(long rank) {
+        int w = (int) (rank >>> 6);
+        return (int) ((highDepth[w] >>> rank & 1) << 1 | (lowDepth[w] >>> rank & 1));
+    }
+
+    /**
+     * Sets the depth code of a rank that was never made
+     * @param rank the rank
+     * @param depth the depth it was made at
+     */
+    private void mark(long rank, int depth) {
+        int w = (int) (rank >>> 6);
+        long code = depth % 3 + 1;
+        lowDepth[w] |= (code & 1) << rank;
+        highDepth[w] |= (code >>> 1) << rank;
+    }
+
+    /**
+     * gets the list of shortest path to result
+     * @return ArrayList of configurations of shortest path, empty if there is none
+     */
+    public ArrayList<Configuration> getShortestlist(){
+        return shortestlist;
+    }
+
+    /**
+     * gets the depth of the deepest layer made; after a census it is the
+     * most moves any reachable configuration is from the start
+     * @return integer depth
+     */
+    public int getDepth() {
+        return Depth;
+    }
+
+    /**
+     * gets number of total configurations
+     * @return total configurations made
+     */
+    public long getTotalConfigs() {
+        return TotalConfigs;
+    }
+
+    /**
+     * gets number of unique configurations
+     * @return unique configurations made
+     */
+    public long getUniqueConfigs(){
+        return UniqueConfigs;
+    }
+}
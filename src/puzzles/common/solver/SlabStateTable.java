@@ -0,0 +1,160 @@
+package puzzles.common.solver;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+
+/**
+ * A visited table of fixed-width encoded states kept in large byte arrays on
+ * the Java heap. State n sits at a fixed place in slab n / SLAB_STATES, so a
+ * state costs its encoded bytes plus a parent and a hash in int arrays and a
+ * few index slots, instead of a Configuration, its grid arrays and a HashMap
+ * entry. An open-addressing index of ids finds a state by its bytes, checking
+ * the hash kept for each id before comparing any bytes.
+ *
+ * @author Teju Rajbabu & Jamie Antal
+ */
+public class SlabStateTable implements StateTable {
+    /** States per slab */
+    private static final int SLAB_STATES = 1 << 16;
+
+    /** bytes per encoded state */
+    private final int width;
+    /** the encoded states, SLAB_STATES to a slab */
+    private ArrayList<byte[]> slabs;
+    /** the parent id of each state */
+    private int[] parents;
+    /** the hash of each state, so neither lookups nor growing have to hash stored bytes */
+    private int[] hashes;
+    /** open-addressing index, each slot is an id plus one, 0 when free */
+    private int[] index;
+    /** number of states held */
+    private int size;
+
+    /**
+     * Creates an empty table
+     * @param width bytes per encoded state
+     */
+    public SlabStateTable(int width) {
+        this.width = width;
+        this.slabs = new ArrayList<byte[]>();
+        this.parents = new int[1 << 10];
+        this.hashes = new int[1 << 10];
+        this.index = new int[1 << 12];
+        this.size = 0;
+    }
+
+    @Override
+    public int addIfAbsent(byte[] state, int parent) {
+        int hash = hash(state);
+        int mask = index.length - 1;
+        int slot = hash & mask;
+        int held;
+        while ((held = index[slot]) != 0) {
+            if (hashes[held - 1] == hash && matches(held - 1, state)) {
+                return NONE;
+            }
+            slot = (slot + 1) & mask;
+        }
+        int id = size;
+        if (id % SLAB_STATES == 0) {
+            slabs.add(new byte[SLAB_STATES * width]);
+        }
+        if (id == parents.length) {
+            parents = Arrays.copyOf(parents, id * 2);
+            hashes = Arrays.copyOf(hashes, id * 2);
+        }
+        System.arraycopy(state, 0, slabs.get(id / SLAB_STATES), (id % SLAB_STATES) * width, width);
+        parents[id] = parent;
+        hashes[id] = hash;
+        index[slot] = id + 1;
+        size += 1;
+        // keep the index at most half full so probes stay short
+        if (size * 2 > index.length) {
+            grow();
+        }
+        return id;
+    }
+
+    /**
+     * Finds a state by its bytes
+     * @param state buffer holding an encoded state
+     * @return its id, or NONE if it is not held
+     */
+    public int find(byte[] state) {
+        int hash = hash(state);
+        int mask = index.length - 1;
+        int slot = hash & mask;
+        int held;
+        while ((held = index[slot]) != 0) {
+            if (hashes[held - 1] == hash && matches(held - 1, state)) {
+                return held - 1;
+            }
+            slot = (slot + 1) & mask;
+        }
+        return NONE;
+    }
+
+    @Override
+    public void getState(int id, byte[] out) {
+        System.arraycopy(slabs.get(id / SLAB_STATES), (id % SLAB_STATES) * width, out, 0, width);
+    }
+
+    @Override
+    public int getParent(int id) {
+        return parents[id];
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Nothing is held outside of the heap, the slabs go with the table
+     */
+    @Override
+    public void close() {
+    }
+
+    /**
+     * Does the stored state equal the one in the buffer?
+     * @param id id of the stored state
+     * @param state buffer holding an encoded state
+     * @return true if all bytes match
+     */
+    private boolean matches(int id, byte[] state) {
+        int offset = (id % SLAB_STATES) * width;
+        return Arrays.equals(slabs.get(id / SLAB_STATES), offset, offset + width, state, 0, width);
+    }
+
+    /**
+     * Doubles the index and puts every id back by its kept hash
+     */
+    private void grow() {
+        int[] old = index;
+        index = new int[old.length * 2];
+        int mask = index.length - 1;
+        for (int held : old) {
+            if (held != 0) {
+                int slot = hashes[held - 1] & mask;
+                while (index[slot] != 0) {
+                    slot = (slot + 1) & mask;
+                }
+                index[slot] = held;
+            }
+        }
+    }
+
+    /**
+     * FNV-1a hash of the state bytes
+     * @param state buffer holding an encoded state
+     * @return the hash
+     */
+    private int hash(byte[] state) {
+        int h = 0x811C9DC5;
+        for (int i = 0; i < width; i++) {
+            h = (h ^ (state[i] & 0xFF)) * 0x01000193;
+        }
+        return h ^ (h >>> 16);
+    }
+}
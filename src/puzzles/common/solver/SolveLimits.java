@@ -0,0 +1,154 @@
+package puzzles.common.solver;
+
+import java.time.Instant;
+import java.util.function.Consumer;
+
+/**
+ * The budget a Solver may spend before it gives up: a most number of unique
+ * configurations, a wall-clock deadline, an approximate ceiling on used heap
+ * and a token to cancel it from another thread. A solve that runs out of
+ * budget ends CUT_OFF with the statistics it has so far.
+ * It can also hand a SolveProgress snapshot to a listener, at most once per
+ * interval, on the solving thread.
+ * A SolveLimits counts its own checks, so give each running solve its own.
+ *
+ * @author Teju Rajbabu & Jamie Antal
+ */
+public class SolveLimits {
+    /** Checks between two looks at the clock and the heap */
+    private static final int CHECK_EVERY = 256;
+
+    /** most unique configurations, 0 for no limit */
+    private final long maxStates;
+    /** when to give up, null for never */
+    private final Instant deadline;
+    /** most used heap in bytes, 0 for no limit */
+    private final long maxMemory;
+    /** token to cancel the solve, null if it can't be cancelled */
+    private final CancelToken token;
+    /** gets the progress snapshots, null for none */
+    private final Consumer<SolveProgress> progress;
+    /** least milliseconds between two progress snapshots */
+    private final long progressMillis;
+    /** checks made so far */
+    private int checks;
+    /** true once a layer finished, so the next check looks at the clock */
+    private boolean layerFinished;
+    /** deepest layer fully explored */
+    private int depth;
+    /** size of the next layer when the last layer finished */
+    private long frontier;
+    /** when the last progress snapshot was made, in System.nanoTime() */
+    private long lastReport;
+    /** unique configurations made at the last progress snapshot */
+    private long lastStates;
+
+    /**
+     * Creates a budget
+     * @param maxStates most unique configurations, 0 for no limit
+     * @param deadline when to give up, null for never
+     * @param maxMemory most used heap in bytes, 0 for no limit
+     * @param token token to cancel the solve, null if it can't be cancelled
+     */
+    public SolveLimits(long maxStates, Instant deadline, long maxMemory, CancelToken token) {
+        this(maxStates, deadline, maxMemory, token, null, 0);
+    }
+
+    /**
+     * Creates a budget that also reports progress
+     * @param maxStates most unique configurations, 0 for no limit
+     * @param deadline when to give up, null for never
+     * @param maxMemory most used heap in bytes, 0 for no limit
+     * @param token token to cancel the solve, null if it can't be cancelled
+     * @param progress gets the progress snapshots, null for none
+     * @param progressMillis least milliseconds between two progress snapshots
+     */
+    public SolveLimits(long maxStates, Instant deadline, long maxMemory, CancelToken token,
+                       Consumer<SolveProgress> progress, long progressMillis) {
+        this.maxStates = maxStates;
+        this.deadline = deadline;
+        this.maxMemory = maxMemory;
+        this.token = token;
+        this.progress = progress;
+        this.progressMillis = progressMillis;
+        this.checks = 0;
+        this.layerFinished = false;
+        this.depth = -1;
+        this.frontier = 1;
+        this.lastReport = System.nanoTime();
+        this.lastStates = 0;
+    }
+
+    /**
+     * Creates a budget with no limits at all. Each call gives a new one,
+     * since a SolveLimits keeps the counts of the solve it is given to.
+     * @return a budget that never runs out
+     */
+    public static SolveLimits none() {
+        return new SolveLimits(0, null, 0, null);
+    }
+
+    /**
+     * Was the solve cancelled? Unlike reached() it is safe to call from many threads.
+     * @return true if the token was cancelled
+     */
+    public boolean isCancelled() {
+        return token != null && token.isCancelled();
+    }
+
+    /**
+     * Notes that the solve fully explored another layer
+     * @param depth the layer just finished
+     * @param frontier configurations waiting in the next layer
+     */
+    public void layerDone(int depth, long frontier) {
+        this.depth = depth;
+        this.frontier = frontier;
+        this.layerFinished = true;
+    }
+
+    /**
+     * Has the solve run out of budget? The state count and the token are checked
+     * every time, the clock and the heap every few hundred calls and after every
+     * finished layer. Progress snapshots are made on the same schedule.
+     * @param states unique configurations made so far
+     * @return true if the solve should stop
+     */
+    public boolean reached(long states) {
+        if (isCancelled()) {
+            return true;
+        }
+        if (maxStates > 0 && states > maxStates) {
+            return true;
+        }
+        checks += 1;
+        if (checks % CHECK_EVERY != 0 && !layerFinished) {
+            return false;
+        }
+        layerFinished = false;
+        if (progress != null) {
+            report(states);
+        }
+        if (deadline != null && Instant.now().isAfter(deadline)) {
+            return true;
+        }
+        Runtime runtime = Runtime.getRuntime();
+        return maxMemory > 0 && runtime.totalMemory() - runtime.freeMemory() > maxMemory;
+    }
+
+    /**
+     * Hands a progress snapshot to the listener if the last one is old enough
+     * @param states unique configurations made so far
+     */
+    private void report(long states) {
+        long now = System.nanoTime();
+        long elapsed = now - lastReport;
+        if (elapsed < progressMillis * 1_000_000) {
+            return;
+        }
+        long rate = elapsed > 0 ? (states - lastStates) * 1_000_000_000 / elapsed : 0;
+        lastReport = now;
+        lastStates = states;
+        progress.accept(new SolveProgress(depth, states, rate, frontier));
+    }
+}
@@ -0,0 +1,69 @@
+package puzzles.common.solver;
+
+/**
+ * A snapshot of how far a running solve has got, as handed to the progress
+ * listener of its SolveLimits
+ *
+ * @author Teju Rajbabu & Jamie Antal
+ */
+public class SolveProgress {
+    /** deepest layer fully explored, -1 before the first one */
+    private final int depth;
+    /** unique configurations made so far */
+    private final long states;
+    /** unique configurations made per second since the last snapshot */
+    private final long statesPerSecond;
+    /** configurations waiting in the next layer when the last layer finished */
+    private final long frontier;
+
+    /**
+     * Creates a snapshot
+     * @param depth deepest layer fully explored, -1 before the first one
+     * @param states unique configurations made so far
+     * @param statesPerSecond unique configurations made per second since the last snapshot
+     * @param frontier configurations waiting in the next layer when the last layer finished
+     */
+    public SolveProgress(int depth, long states, long statesPerSecond, long frontier) {
+        this.depth = depth;
+        this.states = states;
+        this.statesPerSecond = statesPerSecond;
+        this.frontier = frontier;
+    }
+
+    /**
+     * gets the deepest layer fully explored
+     * @return layer depth, -1 before the first one
+     */
+    public int getDepth() {
+        return depth;
+    }
+
+    /**
+     * gets the number of unique configurations made so far
+     * @return unique configurations made
+     */
+    public long getStates() {
+        return states;
+    }
+
+    /**
+     * gets how fast unique configurations are being made
+     * @return unique configurations per second since the last snapshot
+     */
+    public long getStatesPerSecond() {
+        return statesPerSecond;
+    }
+
+    /**
+     * gets the size of the next layer when the last layer finished
+     * @return configurations waiting in the frontier
+     */
+    public long getFrontier() {
+        return frontier;
+    }
+
+    @Override
+    public String toString() {
+        return "depth " + depth + ", " + states + " states, " + statesPerSecond + "/s, frontier " + frontier;
+    }
+}
@@ -1,9 +1,15 @@
 package puzzles.common.solver;
 
+import java.io.File;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.HashMap;
 import java.util.LinkedList;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.function.IntConsumer;
 
 
 /**
@@ -13,6 +19,39 @@ import java.util.LinkedList;
  */
 
 public class Solver {
+    /**
+     * The different ways the Solver can run its BFS
+     */
+    public enum Mode {
+        /** one thread, one queue */
+        SEQUENTIAL,
+        /** each depth layer is expanded across a ForkJoinPool */
+        PARALLEL,
+        /** the visited states live off the Java heap, encoded by a ConfigurationCodec */
+        OFF_HEAP,
+        /** the visited states are packed into byte slabs on the heap, encoded by a ConfigurationCodec */
+        SLAB,
+        /** one thread, but a child is tested for a solution when it is made, not when it is dequeued */
+        EARLY_GOAL,
+        /** one thread, one configuration per symmetry class, needs a SymmetricConfiguration */
+        SYMMETRIC
+    }
+
+    /**
+     * How a solve ended
+     */
+    public enum Status {
+        /** a solution was found, the shortest list holds the path */
+        SOLVED,
+        /** every reachable configuration was searched and none is a solution */
+        EXHAUSTED,
+        /** the SolveLimits ran out before the search ended */
+        CUT_OFF
+    }
+
+    /** Frontier sizes below this are expanded on the calling thread */
+    private static final int PARALLEL_THRESHOLD = 64;
+
     /** Hashmap of Configuration keys and Configuration values*/
     private HashMap<Configuration, Configuration> map;
     /** Linked list of configurations, the queue*/
@@ -26,6 +65,12 @@ public class Solver {
     /** Total number of unique configurations made */
 
     private int UniqueConfigs;
+    /** The budget of this solve */
+    private SolveLimits limits;
+    /** How the solve ended */
+    private Status status;
+    /** Deepest layer whose configurations were all searched, -1 if none */
+    private int ExploredDepth;
 
     /**
      * Starts up the Solver application to solve either Clock or String puzzle
@@ -33,35 +78,423 @@ public class Solver {
      */
 
     public Solver(Configuration Config) {
+        this(Config, Mode.SEQUENTIAL);
+    }
+
+    /**
+     * Starts up the Solver application with the given search mode. SEQUENTIAL,
+     * PARALLEL, OFF_HEAP and SLAB find the same shortest path and count
+     * configurations the same way. EARLY_GOAL finds the same path but stops
+     * as soon as a solution is made, so it counts fewer; SYMMETRIC counts one
+     * configuration per symmetry class and may find another path of the same
+     * length.
+     * @param Config configuration of the puzzle to solve
+     * @param mode how the BFS should be run
+     */
+    public Solver(Configuration Config, Mode mode) {
+        this(Config, mode, null, null, SolveLimits.none());
+    }
+
+    /**
+     * Starts up the Solver application with the given search mode and budget.
+     * If the budget runs out, the status is CUT_OFF and the statistics are the
+     * ones reached so far.
+     * @param Config configuration of the puzzle to solve
+     * @param mode how the BFS should be run
+     * @param limits budget of the solve
+     */
+    public Solver(Configuration Config, Mode mode, SolveLimits limits) {
+        this(Config, mode, null, null, limits);
+    }
+
+    /**
+     * Starts up the Solver application with the given search mode. SEQUENTIAL,
+     * PARALLEL, OFF_HEAP and SLAB find the same shortest path and count
+     * configurations the same way. EARLY_GOAL finds the same path but stops
+     * as soon as a solution is made, so it counts fewer; SYMMETRIC counts one
+     * configuration per symmetry class and may find another path of the same
+     * length.
+     * @param Config configuration of the puzzle to solve
+     * @param mode how the BFS should be run
+     * @param codec fixed-width encoding of the puzzle, needed by OFF_HEAP and SLAB
+     * @param workDir directory for the OFF_HEAP memory-mapped files, or null
+     *                to keep them in direct memory
+     */
+    public Solver(Configuration Config, Mode mode, ConfigurationCodec codec, File workDir) {
+        this(Config, mode, codec, workDir, SolveLimits.none());
+    }
+
+    /**
+     * Starts up the Solver application with the given search mode and budget.
+     * @param Config configuration of the puzzle to solve
+     * @param mode how the BFS should be run
+     * @param codec fixed-width encoding of the puzzle, needed by OFF_HEAP and SLAB
+     * @param workDir directory for the OFF_HEAP memory-mapped files, or null
+     *                to keep them in direct memory
+     * @param limits budget of the solve; PARALLEL checks it between layers
+     *               and only looks at the cancel token within one
+     */
+    public Solver(Configuration Config, Mode mode, ConfigurationCodec codec, File workDir, SolveLimits limits) {
+        shortestlist = new ArrayList<Configuration>();
+        TotalConfigs = 1;
+        UniqueConfigs = 1;
+        this.limits = limits;
+        status = Status.EXHAUSTED;
+        ExploredDepth = -1;
+        if (mode == Mode.PARALLEL) {
+            parallel(Config);
+        } else if (mode == Mode.OFF_HEAP || mode == Mode.SLAB) {
+            if (codec == null) {
+                throw new IllegalArgumentException(mode + " needs a ConfigurationCodec");
+            }
+            StateTable table = mode == Mode.OFF_HEAP ? new OffHeapStateTable(codec.width(), workDir)
+                    : new SlabStateTable(codec.width());
+            encoded(Config, codec, table);
+        } else if (mode == Mode.EARLY_GOAL) {
+            earlyGoal(Config);
+        } else if (mode == Mode.SYMMETRIC) {
+            if (!(Config instanceof SymmetricConfiguration)) {
+                throw new IllegalArgumentException(mode + " needs a SymmetricConfiguration");
+            }
+            symmetric(Config);
+        } else {
+            sequential(Config);
+        }
+    }
+
+    /**
+     * Plain BFS with one queue and one predecessor map
+     * @param Config starting configuration
+     */
+    private void sequential(Configuration Config) {
         queue = new LinkedList<Configuration>();
         map = new HashMap<Configuration, Configuration>();
-        ArrayList<Configuration> fliplist = new ArrayList<Configuration>();
-        shortestlist = new ArrayList<Configuration>();
         queue.add(Config);
         map.put(Config, null);
-        TotalConfigs = 1;
-        UniqueConfigs = 1;
+        // configurations of the current layer still in the queue
+        int layerLeft = 1;
+        while (!queue.isEmpty()){
+            if (limits.reached(UniqueConfigs)) {
+                status = Status.CUT_OFF;
+                break;
+            }
+            Configuration removed = queue.remove(0);
+            if (removed.isSolution()){
+                buildPath(map, removed);
+                break;
+            } else {
+                removed.forEachNeighbor(fig -> {
+                    TotalConfigs += 1;
+                    if (!map.containsKey(fig)){
+                        UniqueConfigs += 1;
+                        queue.add(fig);
+                        map.put(fig, removed);
+                    }
+                    return true;
+                });
+            }
+            layerLeft -= 1;
+            if (layerLeft == 0) {
+                ExploredDepth += 1;
+                layerLeft = queue.size();
+                limits.layerDone(ExploredDepth, layerLeft);
+            }
+        }
+    }
+
+    /**
+     * BFS that tests each new child for a solution as soon as it is made. The
+     * first solution made is the first one the queue would have reached, so
+     * the path is the same, but the layer after it is never expanded.
+     * @param Config starting configuration
+     */
+    private void earlyGoal(Configuration Config) {
+        queue = new LinkedList<Configuration>();
+        map = new HashMap<Configuration, Configuration>();
+        queue.add(Config);
+        map.put(Config, null);
+        Configuration[] solution = {Config.isSolution() ? Config : null};
+        int layerLeft = 1;
+        while (solution[0] == null && !queue.isEmpty()){
+            if (limits.reached(UniqueConfigs)) {
+                status = Status.CUT_OFF;
+                break;
+            }
+            Configuration removed = queue.remove(0);
+            removed.forEachNeighbor(fig -> {
+                TotalConfigs += 1;
+                if (!map.containsKey(fig)){
+                    UniqueConfigs += 1;
+                    map.put(fig, removed);
+                    if (fig.isSolution()) {
+                        solution[0] = fig;
+                        return false;
+                    }
+                    queue.add(fig);
+                }
+                return true;
+            });
+            layerLeft -= 1;
+            if (layerLeft == 0 && solution[0] == null) {
+                ExploredDepth += 1;
+                layerLeft = queue.size();
+                limits.layerDone(ExploredDepth, layerLeft);
+            }
+        }
+        if (solution[0] != null) {
+            buildPath(map, solution[0]);
+        }
+    }
+
+    /**
+     * BFS over symmetry classes. The map is keyed by each configuration's
+     * canonical board, so a child symmetric to one already made counts as
+     * made, and the unique count is of classes. Its value is the parent as it
+     * was actually made, and only the first board made of each class is
+     * queued, so walking the map back from the solution gives a path of real
+     * moves from the start in its own orientation.
+     * @param Config starting configuration, a SymmetricConfiguration
+     */
+    private void symmetric(Configuration Config) {
+        queue = new LinkedList<Configuration>();
+        map = new HashMap<Configuration, Configuration>();
+        queue.add(Config);
+        map.put(((SymmetricConfiguration) Config).canonical(), null);
+        int layerLeft = 1;
         while (!queue.isEmpty()){
+            if (limits.reached(UniqueConfigs)) {
+                status = Status.CUT_OFF;
+                break;
+            }
             Configuration removed = queue.remove(0);
             if (removed.isSolution()){
-                while (map.get(removed) != null){
+                ArrayList<Configuration> fliplist = new ArrayList<Configuration>();
+                for (Configuration step = removed; step != null;
+                     step = map.get(((SymmetricConfiguration) step).canonical())) {
+                    fliplist.add(step);
+                }
+                for (int i = fliplist.size(); i-- > 0;){
+                    shortestlist.add(fliplist.get(i));
+                }
+                status = Status.SOLVED;
+                break;
+            } else {
+                removed.forEachNeighbor(fig -> {
+                    TotalConfigs += 1;
+                    Configuration canonical = ((SymmetricConfiguration) fig).canonical();
+                    if (!map.containsKey(canonical)){
+                        UniqueConfigs += 1;
+                        queue.add(fig);
+                        map.put(canonical, removed);
+                    }
+                    return true;
+                });
+            }
+            layerLeft -= 1;
+            if (layerLeft == 0) {
+                ExploredDepth += 1;
+                layerLeft = queue.size();
+                limits.layerDone(ExploredDepth, layerLeft);
+            }
+        }
+    }
+
+    /**
+     * Level-synchronous BFS. Each layer is tested and expanded in parallel, then
+     * every new child keeps the parent with the lowest (frontier index, neighbor
+     * index) pair. That is the parent the sequential queue would have found first,
+     * so the path and the layer order are exactly those of the sequential mode.
+     * @param Config starting configuration
+     */
+    private void parallel(Configuration Config) {
+        ConcurrentHashMap<Configuration, Configuration> visited = new ConcurrentHashMap<>();
+        // the start is its own parent since the concurrent map can't hold null
+        visited.put(Config, Config);
+        Configuration[] frontier = {Config};
+        ForkJoinPool pool = ForkJoinPool.commonPool();
+        while (frontier.length > 0) {
+            if (limits.reached(UniqueConfigs)) {
+                status = Status.CUT_OFF;
+                break;
+            }
+            Configuration[] layer = frontier;
+            // the sequential queue stops at the first solution in layer order
+            int solution = layer.length;
+            boolean[] solved = new boolean[layer.length];
+            pool.invoke(new LayerTask(0, layer.length, i -> solved[i] = layer[i].isSolution()));
+            for (int i = 0; i < layer.length; i++) {
+                if (solved[i]) {
+                    solution = i;
+                    break;
+                }
+            }
+
+            // states before the solution are still expanded, just like the queue does
+            Configuration[][] children = new Configuration[solution][];
+            ConcurrentHashMap<Configuration, Long> claims = new ConcurrentHashMap<>();
+            pool.invoke(new LayerTask(0, solution, i -> {
+                if (limits.isCancelled()) {
+                    return;
+                }
+                Configuration[] figs = layer[i].getNeighbors().toArray(new Configuration[0]);
+                children[i] = figs;
+                for (int j = 0; j < figs.length; j++) {
+                    if (!visited.containsKey(figs[j])) {
+                        claims.merge(figs[j], ((long) i << 32) | j, Math::min);
+                    }
+                }
+            }));
+            if (limits.isCancelled()) {
+                // the layer was only partly expanded
+                status = Status.CUT_OFF;
+                break;
+            }
+            for (Configuration[] figs : children) {
+                TotalConfigs += figs.length;
+            }
+            UniqueConfigs += claims.size();
+
+            // order the new layer by the claim that won, the order the queue would hold
+            long[] order = new long[claims.size()];
+            int k = 0;
+            for (long claim : claims.values()) {
+                order[k++] = claim;
+            }
+            Arrays.parallelSort(order);
+            frontier = new Configuration[order.length];
+            for (k = 0; k < order.length; k++) {
+                int i = (int) (order[k] >>> 32);
+                Configuration fig = children[i][(int) order[k]];
+                visited.put(fig, layer[i]);
+                frontier[k] = fig;
+            }
+
+            if (solution < layer.length) {
+                Configuration removed = layer[solution];
+                ArrayList<Configuration> fliplist = new ArrayList<Configuration>();
+                while (visited.get(removed) != removed) {
                     fliplist.add(removed);
-                    removed = map.get(removed);
+                    removed = visited.get(removed);
                 }
                 fliplist.add(removed);
                 for (int i = fliplist.size(); i-- > 0;){
                     shortestlist.add(fliplist.get(i));
                 }
+                status = Status.SOLVED;
                 break;
-            } else {
+            }
+            ExploredDepth += 1;
+            limits.layerDone(ExploredDepth, frontier.length);
+        }
+    }
+
+    /**
+     * BFS over a StateTable of encoded states. States get ids in the order
+     * they are first seen, which is the order the queue would hold them, so
+     * the queue is just the next id to expand. A state is only a
+     * Configuration while it is expanded or when it is on the path.
+     * @param Config starting configuration
+     * @param codec fixed-width encoding of the puzzle
+     * @param table the empty table, closed when the solve ends
+     */
+    private void encoded(Configuration Config, ConfigurationCodec codec, StateTable table) {
+        byte[] state = new byte[codec.width()];
+        try {
+            codec.encode(Config, state);
+            table.addIfAbsent(state, StateTable.NONE);
+            // one past the last id of the current layer
+            int layerEnd = 1;
+            for (int head = 0; head < table.size(); head++) {
+                if (limits.reached(UniqueConfigs)) {
+                    status = Status.CUT_OFF;
+                    break;
+                }
+                table.getState(head, state);
+                Configuration removed = codec.decode(state);
+                if (removed.isSolution()) {
+                    ArrayList<Configuration> fliplist = new ArrayList<Configuration>();
+                    fliplist.add(removed);
+                    for (int id = table.getParent(head); id != StateTable.NONE; id = table.getParent(id)) {
+                        table.getState(id, state);
+                        fliplist.add(codec.decode(state));
+                    }
+                    for (int i = fliplist.size(); i-- > 0;){
+                        shortestlist.add(fliplist.get(i));
+                    }
+                    status = Status.SOLVED;
+                    break;
+                }
                 for (Configuration fig: removed.getNeighbors()){
                     TotalConfigs += 1;
-                    if (!map.containsKey(fig)){
+                    codec.encode(fig, state);
+                    if (table.addIfAbsent(state, head) != StateTable.NONE){
                         UniqueConfigs += 1;
-                        queue.add(fig);
-                        map.put(fig, removed);
                     }
                 }
+                if (head + 1 == layerEnd) {
+                    ExploredDepth += 1;
+                    layerEnd = table.size();
+                    limits.layerDone(ExploredDepth, layerEnd - head - 1);
+                }
+            }
+        } finally {
+            table.close();
+        }
+    }
+
+    /**
+     * Walks the predecessor map back from the solution and stores the path
+     * from start to solution in the shortest list
+     * @param map predecessor map, where the start maps to null
+     * @param removed the solution configuration
+     */
+    private void buildPath(Map<Configuration, Configuration> map, Configuration removed) {
+        ArrayList<Configuration> fliplist = new ArrayList<Configuration>();
+        while (map.get(removed) != null){
+            fliplist.add(removed);
+            removed = map.get(removed);
+        }
+        fliplist.add(removed);
+        for (int i = fliplist.size(); i-- > 0;){
+            shortestlist.add(fliplist.get(i));
+        }
+        status = Status.SOLVED;
+    }
+
+    /**
+     * Splits a range of frontier indices in half until it is small enough,
+     * then runs the given step on every index of the range
+     */
+    @SuppressWarnings("serial")
+    private static class LayerTask extends RecursiveAction {
+        /** first index of the range */
+        private final int from;
+        /** one past the last index of the range */
+        private final int to;
+        /** work done for each index */
+        private final IntConsumer step;
+
+        /**
+         * Creates a task for a range of the frontier
+         * @param from first index
+         * @param to one past the last index
+         * @param step work done for each index
+         */
+        LayerTask(int from, int to, IntConsumer step) {
+            this.from = from;
+            this.to = to;
+            this.step = step;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from <= PARALLEL_THRESHOLD) {
+                for (int i = from; i < to; i++) {
+                    step.accept(i);
+                }
+            } else {
+                int mid = (from + to) >>> 1;
+                invokeAll(new LayerTask(from, mid, step), new LayerTask(mid, to, step));
             }
         }
     }
@@ -90,4 +523,20 @@ public class Solver {
         return UniqueConfigs;
     }
 
+    /**
+     * gets how the solve ended
+     * @return SOLVED, EXHAUSTED or CUT_OFF
+     */
+    public Status getStatus() {
+        return status;
+    }
+
+    /**
+     * gets the deepest layer whose configurations were all searched
+     * @return integer depth, -1 if not even the start was searched
+     */
+    public int getExploredDepth() {
+        return ExploredDepth;
+    }
+
 }
@@ -0,0 +1,176 @@
+package puzzles.common.solver;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+
+/**
+ * A BFS Solver on encoded states that finds duplicates by sorting instead of
+ * hashing. Every child of a layer goes into one long array, which is sorted
+ * with Arrays.parallelSort and swept once to drop repeats, then merged
+ * against the sorted layers a child could already be in: the current and
+ * previous layer for puzzles whose moves can be undone, such as Clock and
+ * Strings, and none for puzzles where every move goes one layer deeper, such
+ * as Chess and Hoppers. Memory is only ever read in order, and each layer is
+ * kept as a sorted long array, 8 bytes a state. The path is rebuilt backward
+ * by searching each earlier layer for a parent of the next state.
+ *
+ * @author Teju Rajbabu & Jamie Antal
+ */
+public class SortedLayerSolver {
+    /** every layer so far, each sorted */
+    private ArrayList<long[]> layers;
+    /** Array list of configurations, makes the list of the shortest path */
+    private ArrayList<Configuration> shortestlist;
+    /** Total number of configurations made */
+    private long TotalConfigs;
+    /** Total number of unique configurations made */
+    private long UniqueConfigs;
+
+    /**
+     * Starts up the sorting Solver on encoded states
+     * @param space encoding of the puzzle
+     * @param Config configuration of the puzzle to solve
+     * @param layered true if every move goes one layer deeper, so no earlier
+     *                layer can hold a child; false if moves can be undone
+     */
+    public SortedLayerSolver(LongStateSpace space, Configuration Config, boolean layered) {
+        layers = new ArrayList<long[]>();
+        shortestlist = new ArrayList<Configuration>();
+        long[] layer = {space.encode(Config)};
+        long[] figs = new long[space.maxSuccessors()];
+        TotalConfigs = 1;
+        UniqueConfigs = 1;
+        while (layer.length > 0) {
+            layers.add(layer);
+            for (long state : layer) {
+                if (space.isSolution(state)) {
+                    buildPath(space, state);
+                    return;
+                }
+            }
+            long[] children = new long[Math.max(16, layer.length * 4)];
+            int length = 0;
+            for (long state : layer) {
+                int count = space.successors(state, figs);
+                if (length + count > children.length) {
+                    children = Arrays.copyOf(children, Math.max(children.length * 2, length + count));
+                }
+                System.arraycopy(figs, 0, children, length, count);
+                length += count;
+            }
+            TotalConfigs += length;
+            Arrays.parallelSort(children, 0, length);
+            length = unique(children, length);
+            if (!layered) {
+                length = subtract(children, length, layer);
+                if (layers.size() > 1) {
+                    length = subtract(children, length, layers.get(layers.size() - 2));
+                }
+            }
+            layer = Arrays.copyOf(children, length);
+            UniqueConfigs += length;
+        }
+    }
+
+    /**
+     * Drops repeats from a sorted run, in place
+     * @param states the sorted states
+     * @param length number of states
+     * @return number of distinct states, now at the front
+     */
+    private static int unique(long[] states, int length) {
+        int kept = 0;
+        for (int i = 0; i < length; i++) {
+            if (kept == 0 || states[i] != states[kept - 1]) {
+                states[kept++] = states[i];
+            }
+        }
+        return kept;
+    }
+
+    /**
+     * Drops the states found in another sorted layer, in place, by walking both at once
+     * @param states the sorted distinct states
+     * @param length number of states
+     * @param other the sorted layer to take away
+     * @return number of states kept, now at the front
+     */
+    private static int subtract(long[] states, int length, long[] other) {
+        int kept = 0;
+        int j = 0;
+        for (int i = 0; i < length; i++) {
+            while (j < other.length && other[j] < states[i]) {
+                j++;
+            }
+            if (j == other.length || other[j] != states[i]) {
+                states[kept++] = states[i];
+            }
+        }
+        return kept;
+    }
+
+    /**
+     * Rebuilds the path backward: for each earlier layer, finds the first state
+     * that has the state after it as a neighbor
+     * @param space encoding of the puzzle
+     * @param solution the solution found in the last layer
+     */
+    private void buildPath(LongStateSpace space, long solution) {
+        ArrayList<Configuration> fliplist = new ArrayList<Configuration>();
+        long[] figs = new long[space.maxSuccessors()];
+        long removed = solution;
+        fliplist.add(space.decode(removed));
+        for (int d = layers.size() - 1; d-- > 0;) {
+            search:
+            for (long parent : layers.get(d)) {
+                int count = space.successors(parent, figs);
+                for (int i = 0; i < count; i++) {
+                    if (figs[i] == removed) {
+                        removed = parent;
+                        break search;
+                    }
+                }
+            }
+            fliplist.add(space.decode(removed));
+        }
+        for (int i = fliplist.size(); i-- > 0;){
+            shortestlist.add(fliplist.get(i));
+        }
+    }
+
+    /**
+     * gets the number of states in each layer, the layer census
+     * @return layer sizes, from the start's layer on
+     */
+    public ArrayList<Long> getLayerSizes() {
+        ArrayList<Long> sizes = new ArrayList<Long>();
+        for (long[] layer : layers) {
+            sizes.add((long) layer.length);
+        }
+        return sizes;
+    }
+
+    /**
+     * gets the list of shortest path to result
+     * @return ArrayList of configurations of shortest path
+     */
+    public ArrayList<Configuration> getShortestlist(){
+        return shortestlist;
+    }
+
+    /**
+     * gets number of total configurations
+     * @return total configurations made
+     */
+    public long getTotalConfigs() {
+        return TotalConfigs;
+    }
+
+    /**
+     * gets number of unique configurations
+     * @return unique configurations made
+     */
+    public long getUniqueConfigs(){
+        return UniqueConfigs;
+    }
+}
@@ -0,0 +1,47 @@
+package puzzles.common.solver;
+
+/**
+ * A visited table of fixed-width encoded states that hands out dense ids.
+ * Every state gets the next id and keeps the id of its parent, so a BFS can
+ * use the ids as its queue and walk the parents back for the path; only the
+ * states on the path ever have to become Configuration objects again.
+ *
+ * @author Teju Rajbabu & Jamie Antal
+ */
+public interface StateTable {
+    /** Id of no state, the parent of the start */
+    int NONE = -1;
+
+    /**
+     * Adds a state unless it is already held
+     * @param state buffer holding the encoded state
+     * @param parent id of its parent, or NONE
+     * @return the new id; NONE if the state was already there
+     */
+    int addIfAbsent(byte[] state, int parent);
+
+    /**
+     * Copies a stored state into a buffer
+     * @param id id of the state
+     * @param out buffer of width bytes
+     */
+    void getState(int id, byte[] out);
+
+    /**
+     * Gets the parent of a stored state
+     * @param id id of the state
+     * @return id of its parent, or NONE for the start
+     */
+    int getParent(int id);
+
+    /**
+     * gets the number of states held, which is also the next id
+     * @return integer states held
+     */
+    int size();
+
+    /**
+     * Lets go of whatever the table holds outside of the Java heap
+     */
+    void close();
+}
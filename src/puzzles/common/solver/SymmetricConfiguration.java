@@ -0,0 +1,17 @@
+package puzzles.common.solver;
+
+/**
+ * A configuration whose puzzle plays the same after some reflections or
+ * rotations of the board. Boards such a symmetry maps onto each other have
+ * searches that are images of each other, so the SYMMETRIC mode of the
+ * Solver only keeps one board of each class.
+ */
+public interface SymmetricConfiguration extends Configuration {
+    /**
+     * Get the board of this configuration's class that every board in the
+     * class agrees on: the smallest of its images under the symmetries of
+     * the puzzle. Equal canonical boards mean the boards are symmetric.
+     * @return the canonical board, which may be this one
+     */
+    Configuration canonical();
+}
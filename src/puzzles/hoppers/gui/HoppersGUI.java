@@ -14,6 +14,7 @@ import puzzles.common.Observer;
 import puzzles.hoppers.model.HoppersModel;
 
 import javafx.application.Application;
+import javafx.application.Platform;
 import javafx.stage.Stage;
 
 import java.io.File;
@@ -173,6 +174,11 @@ public class HoppersGUI extends Application implements Observer<HoppersModel, St
 
     @Override
     public void update(HoppersModel hoppersModel, String msg) {
+        // hints report from the solver thread
+        if (!Platform.isFxApplicationThread()) {
+            Platform.runLater(() -> update(hoppersModel, msg));
+            return;
+        }
         hoppersBoard();
         this.borderPane.setCenter(this.hoppersBoard);
         this.stage.sizeToScene();  // when a different sized puzzle is loaded
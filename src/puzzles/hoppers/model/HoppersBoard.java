@@ -0,0 +1,150 @@
+package puzzles.hoppers.model;
+
+import puzzles.common.solver.Configuration;
+import puzzles.common.solver.MoveBoard;
+
+/**
+ * A hoppers-related class that makes and takes back jumps in place on one board, for the DepthFirstSolver. Cells are
+ * numbered in the order getNeighbors() scans the board, and a move is its cell number times the number of jumps plus
+ * the jump, so moves come out in getNeighbors() order.
+ *
+ * @author Jamie Antal
+ */
+public class HoppersBoard implements MoveBoard {
+    /** An Int[][] representing every jump as {row, column} steps, in the order getNeighbors() tries them */
+    private static final int[][] JUMPS = {{0, 4}, {0, -4}, {4, 0}, {-4, 0}, {2, 2}, {-2, -2}, {2, -2}, {-2, 2}};
+
+    /** A HoppersConfig representing the loaded board, copied to make snapshots */
+    private final HoppersConfig template;
+    /** An Int representing the number of rows */
+    private final int rowDIM;
+    /** A Char[] representing the cells, column by column */
+    private final char[] cells;
+    /** An Int[][] representing, per cell and jump, the cell jumped over or -1 if the jump leaves the board */
+    private final int[][] over;
+    /** An Int[][] representing, per cell and jump, the cell landed on or -1 if the jump leaves the board */
+    private final int[][] to;
+    /** An Int representing the number of green frogs left */
+    private int greens;
+    /** A Long representing the Zobrist key of the cells, kept up to date by make and unmake */
+    private long key;
+
+    /**
+     * Sets up a board from a configuration and works out every jump between its cells
+     * @param config Must be HoppersConfig, represents the board to start from
+     */
+    public HoppersBoard(HoppersConfig config) {
+        this.template = new HoppersConfig(config);
+        char[][] grid = config.getGrid();
+        this.rowDIM = config.getRowDIM();
+        int columnDIM = config.getColumnDIM();
+        this.cells = new char[rowDIM * columnDIM];
+        this.over = new int[cells.length][JUMPS.length];
+        this.to = new int[cells.length][JUMPS.length];
+        for (int column = 0; column < columnDIM; column++) {
+            for (int row = 0; row < rowDIM; row++) {
+                int cell = column * rowDIM + row;
+                cells[cell] = grid[row][column];
+                if (cells[cell] == 'G') {
+                    greens += 1;
+                }
+                key ^= HoppersConfig.zobrist(cell, cells[cell]);
+                for (int j = 0; j < JUMPS.length; j++) {
+                    int toRow = row + JUMPS[j][0];
+                    int toColumn = column + JUMPS[j][1];
+                    boolean onBoard = toRow > -1 && toRow < rowDIM && toColumn > -1 && toColumn < columnDIM;
+                    over[cell][j] = onBoard ? (column + JUMPS[j][1] / 2) * rowDIM + row + JUMPS[j][0] / 2 : -1;
+                    to[cell][j] = onBoard ? toColumn * rowDIM + toRow : -1;
+                }
+            }
+        }
+    }
+
+    /**
+     * Copy constructor, the jump tables are shared since they never change
+     * @param other Must be HoppersBoard, represents the board to copy
+     */
+    private HoppersBoard(HoppersBoard other) {
+        this.template = other.template;
+        this.rowDIM = other.rowDIM;
+        this.cells = other.cells.clone();
+        this.over = other.over;
+        this.to = other.to;
+        this.greens = other.greens;
+        this.key = other.key;
+    }
+
+    @Override
+    public int moves(int[] out) {
+        int count = 0;
+        for (int cell = 0; cell < cells.length; cell++) {
+            if (cells[cell] == 'G' || cells[cell] == 'R') {
+                for (int j = 0; j < JUMPS.length; j++) {
+                    int landing = to[cell][j];
+                    if (landing != -1 && cells[over[cell][j]] == 'G' && cells[landing] == '.') {
+                        out[count++] = cell * JUMPS.length + j;
+                    }
+                }
+            }
+        }
+        return count;
+    }
+
+    @Override
+    public void make(int move) {
+        int cell = move / JUMPS.length;
+        int j = move % JUMPS.length;
+        key ^= HoppersConfig.zobrist(cell, cells[cell]) ^ HoppersConfig.zobrist(to[cell][j], cells[cell])
+                ^ HoppersConfig.zobrist(over[cell][j], 'G');
+        cells[to[cell][j]] = cells[cell];
+        cells[over[cell][j]] = '.';
+        cells[cell] = '.';
+        greens -= 1;
+    }
+
+    @Override
+    public void unmake(int move) {
+        int cell = move / JUMPS.length;
+        int j = move % JUMPS.length;
+        cells[cell] = cells[to[cell][j]];
+        cells[over[cell][j]] = 'G';
+        cells[to[cell][j]] = '.';
+        greens += 1;
+        key ^= HoppersConfig.zobrist(cell, cells[cell]) ^ HoppersConfig.zobrist(to[cell][j], cells[cell])
+                ^ HoppersConfig.zobrist(over[cell][j], 'G');
+    }
+
+    @Override
+    public boolean isSolution() {
+        return greens == 0;
+    }
+
+    @Override
+    public long key() {
+        return key;
+    }
+
+    @Override
+    public int maxMoves() {
+        return cells.length * JUMPS.length;
+    }
+
+    @Override
+    public int moveIds() {
+        return cells.length * JUMPS.length;
+    }
+
+    @Override
+    public MoveBoard copy() {
+        return new HoppersBoard(this);
+    }
+
+    @Override
+    public Configuration toConfiguration() {
+        HoppersConfig config = new HoppersConfig(template);
+        for (int cell = 0; cell < cells.length; cell++) {
+            config.set(cell % rowDIM, cell / rowDIM, cells[cell]);
+        }
+        return config;
+    }
+}
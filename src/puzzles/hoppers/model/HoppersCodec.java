@@ -0,0 +1,92 @@
+package puzzles.hoppers.model;
+
+import puzzles.common.solver.CodecFactory;
+import puzzles.common.solver.Configuration;
+import puzzles.common.solver.ConfigurationCodec;
+
+import java.io.IOException;
+
+/**
+ * A hoppers-related class that packs any board into bytes, two bits per lily pad in the order getNeighbors() scans
+ * the board: 0 for an empty pad, 1 for a green frog and 2 for a red frog. Unlike HoppersSpace it fits boards of any
+ * size.
+ *
+ * @author Jamie Antal
+ */
+public class HoppersCodec implements ConfigurationCodec {
+    /** A String representing the cell of each two-bit code */
+    private static final String CODES = ".GR";
+
+    /** A HoppersConfig representing the loaded board, copied to decode states */
+    private final HoppersConfig board;
+    /** An Int[] representing the row of each pad */
+    private final int[] padRow;
+    /** An Int[] representing the column of each pad */
+    private final int[] padColumn;
+
+    /**
+     * Numbers the lily pads of a board
+     * @param config Must be HoppersConfig, represents the loaded board
+     */
+    public HoppersCodec(HoppersConfig config) {
+        this.board = new HoppersConfig(config);
+        char[][] grid = config.getGrid();
+        int pads = 0;
+        for (char[] line : grid) {
+            for (char cell : line) {
+                if (cell != '*') {
+                    pads += 1;
+                }
+            }
+        }
+        this.padRow = new int[pads];
+        this.padColumn = new int[pads];
+        int pad = 0;
+        for (int column = 0; column < config.getColumnDIM(); column++) {
+            for (int row = 0; row < config.getRowDIM(); row++) {
+                if (grid[row][column] != '*') {
+                    padRow[pad] = row;
+                    padColumn[pad] = column;
+                    pad += 1;
+                }
+            }
+        }
+    }
+
+    @Override
+    public int width() {
+        return (padRow.length + 3) / 4;
+    }
+
+    @Override
+    public void encode(Configuration config, byte[] out) {
+        HoppersConfig hoppers = (HoppersConfig) config;
+        for (int i = 0; i < width(); i++) {
+            out[i] = 0;
+        }
+        for (int pad = 0; pad < padRow.length; pad++) {
+            int code = CODES.indexOf(hoppers.getCell(padRow[pad], padColumn[pad]));
+            out[pad >> 2] |= (byte) (code << ((pad & 3) * 2));
+        }
+    }
+
+    @Override
+    public Configuration decode(byte[] in) {
+        HoppersConfig config = new HoppersConfig(this.board);
+        for (int pad = 0; pad < padRow.length; pad++) {
+            int code = (in[pad >> 2] >> ((pad & 3) * 2)) & 3;
+            config.set(padRow[pad], padColumn[pad], CODES.charAt(code));
+        }
+        return config;
+    }
+
+    /**
+     * Sets up the codec in a worker process from the puzzle's file name
+     */
+    public static class Factory implements CodecFactory {
+        @Override
+        public ConfigurationCodec codec(String[] args) throws IOException {
+            return new HoppersCodec(new HoppersConfig(args[0]));
+        }
+    }
+}
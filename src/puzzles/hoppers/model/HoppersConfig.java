@@ -1,27 +1,64 @@
 package puzzles.hoppers.model;
 
+import puzzles.common.solver.BackwardConfiguration;
 import puzzles.common.solver.Configuration;
+import puzzles.common.solver.MoveBoard;
+import puzzles.common.solver.SymmetricConfiguration;
 import java.io.BufferedReader;
 import java.io.FileReader;
 import java.io.IOException;
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collection;
 import java.util.LinkedList;
+import java.util.function.Predicate;
 
 /**
  * A hoppers-related class that represents the actual status of the game. Whereabouts of red frog and green frogs,
  * lily-pads, etc. It also contains functions that provides fountains for Solver to receive and attempt to solve with
- * the information
+ * the information. A board with at most 64 lily pads is kept as two bitboards, a mask of the pads holding green frogs
+ * and one of the pads holding red frogs, and jumps come from tables of masks worked out when the game is loaded.
+ * Bigger boards keep a sorted list of their frogs and a Zobrist key, the xor of one random number per (cell, frog), so
+ * copying, hashing and jumping cost as much as the frogs on the board, not its size: a jump makes the list of the
+ * board it came from with one frog moved and one gone, and xors the three cells it changes into the key
  *
  * @author Jamie Antal
  */
-public class HoppersConfig implements Configuration{
+public class HoppersConfig implements BackwardConfiguration, SymmetricConfiguration {
     /** An Int representing the range of columns in the game */
     private static Integer columnDIM;
     /** An Int representing the range of rows in the game */
     private static Integer rowDIM;
-    /** An Char[][] representing the board and whereabouts of frogs in the game */
-    private char[][] grid;
+    /** An Int representing the number of green frogs on the board when the game was loaded */
+    private static int greenDIM;
+    /** An Int[][] representing every jump as {row, column} steps to the landing pad, in the order they are tried */
+    private static final int[][] JUMPS = {{0, 4}, {0, -4}, {4, 0}, {-4, 0}, {2, 2}, {-2, -2}, {2, -2}, {-2, 2}};
+    /** A Long[] representing the Zobrist number of every cell with a green frog, then with a red frog, on it */
+    private static long[] zobrist = new long[0];
+    /** An Int[][] representing, for each symmetry of the loaded board, the cell every cell goes to */
+    private static int[][] symmetries = new int[0][];
+    /** A Boolean representing if the loaded board has at most 64 lily pads, so boards are kept as bitboards */
+    private static boolean bitboard;
+    /** An Int[][] representing the pad number of each cell, column by column, or -1 for water */
+    private static int[][] padAt = new int[0][];
+    /** An Int[] representing the cell (column * rowDIM + row) of each pad */
+    private static int[] padCell = new int[0];
+    /** A Long[] representing, per pad and jump, the bit of the pad jumped over, or 0 if the jump cannot be made */
+    private static long[] overMask = new long[0];
+    /** A Long[] representing, per pad and jump, the bit of the pad landed on, or 0 if the jump cannot be made */
+    private static long[] landingMask = new long[0];
+    /** An Int[] representing, per pad and jump, the pad jumped over, or -1 if the jump cannot be made */
+    private static int[] overPad = new int[0];
+    /** An Int[] representing, per pad and jump, the pad landed on, or -1 if the jump cannot be made */
+    private static int[] landingPad = new int[0];
+    /** An Int[] representing the frogs of a frog list, each as its pad times two plus one if red, smallest first */
+    private int[] frogs;
+    /** A Long representing the Zobrist key of a frog list, kept up to date by set(); unused by a bitboard */
+    private long key;
+    /** A Long representing the pads holding green frogs of a bitboard */
+    private long green;
+    /** A Long representing the pads holding red frogs of a bitboard */
+    private long red;
 
     /**
      * When called, it will attempt to create a new game and board with given filename
@@ -29,23 +66,49 @@ public class HoppersConfig implements Configuration{
      * @throws IOException
      */
     public HoppersConfig(String filename) throws IOException {
+        char[][] grid;
         try (BufferedReader in = new BufferedReader(new FileReader(filename))) {
             String[] line = in.readLine().split("\\s+");
             columnDIM = Integer.valueOf(line[0]);
             rowDIM = Integer.valueOf(line[1]);
-            this.grid = new char[rowDIM][columnDIM];
+            grid = new char[rowDIM][columnDIM];
             int column = 0;
             int row = 0;
             while (in.ready()) {
                 line = in.readLine().split("\\s+");
                 for (String element : line) {
-                    this.grid[row][column] = element.charAt(0);
+                    grid[row][column] = element.charAt(0);
                     row += 1;
                 }
                 column += 1;
                 row = 0;
             }
         }
+        greenDIM = 0;
+        for (char[] line : grid) {
+            for (char cell : line) {
+                if (cell == 'G') {
+                    greenDIM += 1;
+                }
+            }
+        }
+        zobrist = new long[rowDIM * columnDIM * 2];
+        for (int i = 0; i < zobrist.length; i++) {
+            zobrist[i] = MoveBoard.mix(i);
+        }
+        symmetries = findSymmetries(grid);
+        bitboard = findJumps(grid);
+        this.frogs = new int[0];
+        for (int column = 0; column < columnDIM; column++) {
+            for (int row = 0; row < rowDIM; row++) {
+                if (grid[row][column] == 'G' || grid[row][column] == 'R') {
+                    set(row, column, grid[row][column]);
+                }
+            }
+        }
+        if (bitboard) {
+            this.frogs = null;
+        }
     }
 
     /**
@@ -53,132 +116,321 @@ public class HoppersConfig implements Configuration{
      * @param copy Must be HoppersConfig, represents a HoppersConfig to copy from
      */
     protected HoppersConfig(HoppersConfig copy) {
-        this.grid = new char[rowDIM][columnDIM];
-        for (int r = 0; r < rowDIM; r++) {
-            System.arraycopy(copy.grid[r], 0, this.grid[r], 0, columnDIM);
+        if (bitboard) {
+            this.green = copy.green;
+            this.red = copy.red;
+        } else {
+            // a frog list is never written to, set() and jumps make new ones
+            this.frogs = copy.frogs;
+            this.key = copy.key;
         }
     }
 
     /**
-     * Will check the frog at given coordinates of the board to see if it can jump in vertical way. If true, it will
-     * create new HopperConfigs and add them to collection and return the collection at the end of function
-     * @param frog Must be Char, represents either green frog or red frog
-     * @param row Must be Int, represents the where to go to on X axis of the board
-     * @param column Must be Int, represents the where to go to on Y axis of the board
-     * @return A collection of configurations representing possible steps to solve the puzzle!
+     * Numbers the lily pads of the loaded board column by column, the order getNeighbors() scans the board in, and
+     * works out every jump between them, as masks too if there are no more than 64
+     * @param grid Must be Char[][], represents the loaded board
+     * @return A Boolean representing if the board can be kept as bitboards
      */
-    private Collection<Configuration> isVerticalValid(Character frog, int row, int column) {
-        LinkedList<Configuration> verticalNeighbors = new LinkedList<>();
-        if (column + 4 < columnDIM && this.grid[row][column + 2] == 'G' && this.grid[row][column + 4] == '.') {
-            HoppersConfig hoppersConfig = new HoppersConfig(this);
-            hoppersConfig.grid[row][column] = '.';
-            hoppersConfig.grid[row][column + 4] = frog;
-            hoppersConfig.grid[row][column + 2] = '.';
-            verticalNeighbors.add(hoppersConfig);
-        }
-        if (column - 4 > -1 && this.grid[row][column - 2] == 'G' && this.grid[row][column - 4] == '.') {
-            HoppersConfig hoppersConfig = new HoppersConfig(this);
-            hoppersConfig.grid[row][column] = '.';
-            hoppersConfig.grid[row][column - 4] = frog;
-            hoppersConfig.grid[row][column - 2] = '.';
-            verticalNeighbors.add(hoppersConfig);
-        }
-        return verticalNeighbors;
+    private static boolean findJumps(char[][] grid) {
+        padAt = new int[rowDIM][columnDIM];
+        int pads = 0;
+        for (int column = 0; column < columnDIM; column++) {
+            for (int row = 0; row < rowDIM; row++) {
+                padAt[row][column] = grid[row][column] == '*' ? -1 : pads++;
+            }
+        }
+        padCell = new int[pads];
+        for (int column = 0; column < columnDIM; column++) {
+            for (int row = 0; row < rowDIM; row++) {
+                if (padAt[row][column] != -1) {
+                    padCell[padAt[row][column]] = column * rowDIM + row;
+                }
+            }
+        }
+        overPad = new int[pads * JUMPS.length];
+        landingPad = new int[pads * JUMPS.length];
+        Arrays.fill(overPad, -1);
+        Arrays.fill(landingPad, -1);
+        boolean fits = pads <= Long.SIZE;
+        overMask = new long[fits ? pads * JUMPS.length : 0];
+        landingMask = new long[fits ? pads * JUMPS.length : 0];
+        for (int column = 0; column < columnDIM; column++) {
+            for (int row = 0; row < rowDIM; row++) {
+                int pad = padAt[row][column];
+                for (int j = 0; pad != -1 && j < JUMPS.length; j++) {
+                    int toRow = row + JUMPS[j][0];
+                    int toColumn = column + JUMPS[j][1];
+                    if (toRow > -1 && toRow < rowDIM && toColumn > -1 && toColumn < columnDIM) {
+                        int over = padAt[row + JUMPS[j][0] / 2][column + JUMPS[j][1] / 2];
+                        int landing = padAt[toRow][toColumn];
+                        if (over != -1 && landing != -1) {
+                            overPad[pad * JUMPS.length + j] = over;
+                            landingPad[pad * JUMPS.length + j] = landing;
+                            if (fits) {
+                                overMask[pad * JUMPS.length + j] = 1L << over;
+                                landingMask[pad * JUMPS.length + j] = 1L << landing;
+                            }
+                        }
+                    }
+                }
+            }
+        }
+        return fits;
+    }
+
+    /**
+     * Gets the Zobrist number of what stands on a cell, the same numbers HoppersBoard uses
+     * @param cell Must be Int, represents column * rowDIM + row
+     * @param frog Must be Char, represents what stands on the cell
+     * @return A Long representing its number, 0 for anything but a frog
+     */
+    static long zobrist(int cell, char frog) {
+        if (frog == 'G') {
+            return zobrist[2 * cell];
+        } else if (frog == 'R') {
+            return zobrist[2 * cell + 1];
+        }
+        return 0;
     }
 
     /**
-     * Will check the frog at given coordinates of the board to see if it can jump in horizontal way. If true, it will
-     * create new HopperConfigs and add them to collection and return the collection at the end of function
-     * @param frog Must be Char, represents either green frog or red frog
-     * @param row Must be Int, represents the where to go to on X axis of the board
-     * @param column Must be Int, represents the where to go to on Y axis of the board
-     * @return A collection of configurations representing possible steps to solve the puzzle!
+     * Puts something on a cell and xors the change into the key
+     * @param row Must be Int, represents the row of the cell
+     * @param column Must be Int, represents the column of the cell
+     * @param cell Must be Char, represents the frog, lily pad or water to put there
      */
-    private Collection<Configuration> isHorizontalValid(Character frog, int row, int column) {
-        LinkedList<Configuration> horizontalNeighbors = new LinkedList<>();
-        if (row + 4 < rowDIM && this.grid[row + 2][column] == 'G' && this.grid[row + 4][column] == '.') {
-            HoppersConfig hoppersConfig = new HoppersConfig(this);
-            hoppersConfig.grid[row][column] = '.';
-            hoppersConfig.grid[row + 4][column] = frog;
-            hoppersConfig.grid[row + 2][column] = '.';
-            horizontalNeighbors.add(hoppersConfig);
-        }
-        if (row - 4 > -1 && this.grid[row - 2][column] == 'G' && this.grid[row - 4][column] == '.') {
-            HoppersConfig hoppersConfig = new HoppersConfig(this);
-            hoppersConfig.grid[row][column] = '.';
-            hoppersConfig.grid[row - 4][column] = frog;
-            hoppersConfig.grid[row - 2][column] = '.';
-            horizontalNeighbors.add(hoppersConfig);
-        }
-        return horizontalNeighbors;
+    void set(int row, int column, char cell) {
+        if (bitboard) {
+            int pad = padAt[row][column];
+            if (pad != -1) {
+                long bit = 1L << pad;
+                this.green = cell == 'G' ? this.green | bit : this.green & ~bit;
+                this.red = cell == 'R' ? this.red | bit : this.red & ~bit;
+            }
+            return;
+        }
+        int pad = padAt[row][column];
+        if (pad == -1) {
+            return;
+        }
+        int cellNumber = column * rowDIM + row;
+        this.key ^= zobrist(cellNumber, getCell(row, column)) ^ zobrist(cellNumber, cell);
+        int at = find(this.frogs, pad);
+        int[] list = this.frogs;
+        if (at >= 0) {
+            list = new int[this.frogs.length - 1];
+            System.arraycopy(this.frogs, 0, list, 0, at);
+            System.arraycopy(this.frogs, at + 1, list, at, list.length - at);
+        }
+        if (cell == 'G' || cell == 'R') {
+            list = insert(list, 2 * pad + (cell == 'R' ? 1 : 0));
+        }
+        this.frogs = list;
+    }
+
+    /**
+     * Finds the frog on a pad in a frog list
+     * @param frogs Must be Int[], represents a frog list
+     * @param pad Must be Int, represents the pad to look at
+     * @return A Int representing the index of the frog in the list, or a negative number if the pad holds no frog
+     */
+    private static int find(int[] frogs, int pad) {
+        int at = Arrays.binarySearch(frogs, 2 * pad);
+        if (at < 0 && -at - 1 < frogs.length && frogs[-at - 1] == 2 * pad + 1) {
+            return -at - 1;
+        }
+        return at < 0 ? -1 : at;
+    }
+
+    /**
+     * Makes a frog list with one more frog, still sorted
+     * @param frogs Must be Int[], represents a frog list without a frog on the frog's pad
+     * @param frog Must be Int, represents the frog as its pad times two plus one if red
+     * @return A Int[] representing the new frog list
+     */
+    private static int[] insert(int[] frogs, int frog) {
+        int at = -Arrays.binarySearch(frogs, frog) - 1;
+        int[] list = new int[frogs.length + 1];
+        System.arraycopy(frogs, 0, list, 0, at);
+        list[at] = frog;
+        System.arraycopy(frogs, at, list, at + 1, frogs.length - at);
+        return list;
+    }
+
+    /**
+     * Lists the frogs of this board in pad order, the way a frog list keeps them
+     * @return A Int[] representing each frog as its pad times two, plus one if it is red
+     */
+    private int[] frogList() {
+        if (!bitboard) {
+            return this.frogs;
+        }
+        int[] list = new int[Long.bitCount(this.green | this.red)];
+        int i = 0;
+        for (long left = this.green | this.red; left != 0; left &= left - 1) {
+            list[i++] = 2 * Long.numberOfTrailingZeros(left) + ((this.red & left & -left) != 0 ? 1 : 0);
+        }
+        return list;
+    }
+
+    /**
+     * Gets what stands on a cell
+     * @param row Must be Int, represents the row of the cell
+     * @param column Must be Int, represents the column of the cell
+     * @return A Char representing the frog, lily pad or water on the cell
+     */
+    public char getCell(int row, int column) {
+        int pad = padAt[row][column];
+        if (pad == -1) {
+            return '*';
+        } else if (!bitboard) {
+            int at = find(this.frogs, pad);
+            return at < 0 ? '.' : (this.frogs[at] & 1) == 0 ? 'G' : 'R';
+        } else if ((this.green >>> pad & 1) != 0) {
+            return 'G';
+        } else if ((this.red >>> pad & 1) != 0) {
+            return 'R';
+        }
+        return '.';
+    }
+
+    /**
+     * Works out which reflections and rotations map the water of the loaded board onto water. A square board can
+     * have all 8, any other board at most the 4 that keep its shape; every jump is still a jump after any of them
+     * @param grid Must be Char[][], represents the loaded board
+     * @return A Int[][] representing, per symmetry, the cell each cell goes to, the identity first
+     */
+    private static int[][] findSymmetries(char[][] grid) {
+        ArrayList<int[]> found = new ArrayList<>();
+        int transforms = rowDIM.equals(columnDIM) ? 8 : 4;
+        for (int t = 0; t < transforms; t++) {
+            int[] image = new int[rowDIM * columnDIM];
+            boolean keepsWater = true;
+            for (int column = 0; column < columnDIM; column++) {
+                for (int row = 0; row < rowDIM; row++) {
+                    int[] to = transform(t, row, column);
+                    image[column * rowDIM + row] = to[1] * rowDIM + to[0];
+                    if ((grid[row][column] == '*') != (grid[to[0]][to[1]] == '*')) {
+                        keepsWater = false;
+                    }
+                }
+            }
+            if (keepsWater) {
+                found.add(image);
+            }
+        }
+        return found.toArray(new int[0][]);
+    }
+
+    /**
+     * Moves a cell by one of the reflections and rotations of the board; the last 4 swap rows and columns, so they
+     * only fit square boards
+     * @param t Must be Int from 0 to 7, represents which reflection or rotation
+     * @param row Must be Int, represents the row of the cell
+     * @param column Must be Int, represents the column of the cell
+     * @return A Int[] representing the {row, column} the cell goes to
+     */
+    private static int[] transform(int t, int row, int column) {
+        int flippedRow = rowDIM - 1 - row;
+        int flippedColumn = columnDIM - 1 - column;
+        return switch (t) {
+            case 0 -> new int[]{row, column};
+            case 1 -> new int[]{row, flippedColumn};
+            case 2 -> new int[]{flippedRow, column};
+            case 3 -> new int[]{flippedRow, flippedColumn};
+            case 4 -> new int[]{column, row};
+            case 5 -> new int[]{column, flippedRow};
+            case 6 -> new int[]{flippedColumn, row};
+            default -> new int[]{flippedColumn, flippedRow};
+        };
+    }
+
+    /**
+     * Finds the image of this board under the symmetries of the loaded board with the smallest Zobrist key, worked
+     * out for all of them in one pass over the frogs. Images with the same key are told apart by their grids
+     * @return A Configuration representing the canonical board, this one if no image comes before it
+     */
+    @Override
+    public Configuration canonical() {
+        if (symmetries.length == 1) {
+            return this;
+        }
+        long[] keys = new long[symmetries.length];
+        for (int frog : frogList()) {
+            int cell = padCell[frog >> 1];
+            for (int s = 0; s < symmetries.length; s++) {
+                keys[s] ^= zobrist(symmetries[s][cell], (frog & 1) == 0 ? 'G' : 'R');
+            }
+        }
+        int best = 0;
+        for (int s = 1; s < symmetries.length; s++) {
+            if (keys[s] < keys[best]) {
+                best = s;
+            }
+        }
+        HoppersConfig canonical = best == 0 ? this : image(symmetries[best], keys[best]);
+        // only a board that is its own image, or a key collision, ties
+        for (int s = best + 1; s < symmetries.length; s++) {
+            if (keys[s] == keys[best]) {
+                HoppersConfig image = image(symmetries[s], keys[s]);
+                if (image.compareGrid(canonical) < 0) {
+                    canonical = image;
+                }
+            }
+        }
+        return canonical;
     }
 
     /**
-     * Will check the frog at given coordinates of the board to see if it can jump in NORTHWEST/SOUTHEAST diagonal way.
-     * If true,it will create new HopperConfigs and add them to collection and return the collection at the end of
-     * function
-     * @param frog Must be Char, represents either green frog or red frog
-     * @param row Must be Int, represents the where to go to on X axis of the board
-     * @param column Must be Int, represents the where to go to on Y axis of the board
-     * @return A collection of configurations representing possible steps to solve the puzzle!
+     * Makes the image of this board under one symmetry
+     * @param to Must be Int[], represents the cell each cell goes to
+     * @param key Must be Long, represents the Zobrist key of the image
+     * @return A HoppersConfig representing the moved board
      */
-    private Collection<Configuration> isNorthWestDiagonalValid(Character frog, int row, int column) {
-        LinkedList<Configuration> northWestDiagonalNeighbors = new LinkedList<>();
-        if (row + 2 < rowDIM && column + 2 < columnDIM && this.grid[row + 1][column + 1] == 'G' &&
-                this.grid[row + 2][column + 2] == '.') {
-            HoppersConfig hoppersConfig = new HoppersConfig(this);
-            hoppersConfig.grid[row][column] = '.';
-            hoppersConfig.grid[row + 2][column + 2] = frog;
-            hoppersConfig.grid[row + 1][column + 1] = '.';
-            northWestDiagonalNeighbors.add(hoppersConfig);
-        }
-        if (row - 2 > -1 && column - 2 > -1 && this.grid[row - 1][column - 1] == 'G' &&
-                this.grid[row - 2][column - 2] == '.') {
-            HoppersConfig hoppersConfig = new HoppersConfig(this);
-            hoppersConfig.grid[row][column] = '.';
-            hoppersConfig.grid[row - 2][column - 2] = frog;
-            hoppersConfig.grid[row - 1][column - 1] = '.';
-            northWestDiagonalNeighbors.add(hoppersConfig);
-        }
-        return northWestDiagonalNeighbors;
+    private HoppersConfig image(int[] to, long key) {
+        HoppersConfig image = new HoppersConfig(this);
+        image.green = 0;
+        image.red = 0;
+        image.frogs = bitboard ? null : new int[0];
+        for (int frog : frogList()) {
+            int cell = to[padCell[frog >> 1]];
+            image.set(cell % rowDIM, cell / rowDIM, (frog & 1) == 0 ? 'G' : 'R');
+        }
+        image.key = key;
+        return image;
     }
 
     /**
-     * Will check the frog at given coordinates of the board to see if it can jump in NORTHEAST/SOUTHWEST diagonal way.
-     * If true,it will create new HopperConfigs and add them to collection and return the collection at the end of
-     * function
-     * @param frog Must be Char, represents either green frog or red frog
-     * @param row Must be Int, represents the where to go to on X axis of the board
-     * @param column Must be Int, represents the where to go to on Y axis of the board
-     * @return A collection of configurations representing possible steps to solve the puzzle!
+     * Orders boards by their grids, row by row
+     * @param other Must be HoppersConfig, represents the board to compare with
+     * @return A Int representing less than, equal to or more than 0 as this board comes before, with or after other
      */
-    private Collection<Configuration> isNorthEastDiagonalValid(Character frog, int row, int column) {
-        LinkedList<Configuration> northEastDiagonalNeighbors = new LinkedList<>();
-        if (row + 2 < rowDIM && column - 2 > -1 && this.grid[row + 1][column - 1] == 'G' &&
-                this.grid[row + 2][column - 2] == '.') {
-            HoppersConfig hoppersConfig = new HoppersConfig(this);
-            hoppersConfig.grid[row][column] = '.';
-            hoppersConfig.grid[row + 2][column - 2] = frog;
-            hoppersConfig.grid[row + 1][column - 1] = '.';
-            northEastDiagonalNeighbors.add(hoppersConfig);
-        }
-        if (row - 2 > -1 && column + 2 < columnDIM && this.grid[row - 1][column + 1] == 'G' &&
-                this.grid[row - 2][column + 2] == '.') {
-            HoppersConfig hoppersConfig = new HoppersConfig(this);
-            hoppersConfig.grid[row][column] = '.';
-            hoppersConfig.grid[row - 2][column + 2] = frog;
-            hoppersConfig.grid[row - 1][column + 1] = '.';
-            northEastDiagonalNeighbors.add(hoppersConfig);
-        }
-        return northEastDiagonalNeighbors;
+    private int compareGrid(HoppersConfig other) {
+        for (int row = 0; row < rowDIM; row++) {
+            for (int column = 0; column < columnDIM; column++) {
+                int order = Character.compare(getCell(row, column), other.getCell(row, column));
+                if (order != 0) {
+                    return order;
+                }
+            }
+        }
+        return 0;
     }
 
     /**
-     * Gets the grid of HopperConfig and returns it
+     * Gets the grid of HopperConfig and returns it. The board is laid out in a new grid on every call; cells are
+     * changed with set(), never by writing to the grid
      * @return A Char[][] representing the current status of the board in game
      */
     public char[][] getGrid() {
-        return this.grid;
+        char[][] cells = new char[rowDIM][columnDIM];
+        for (int row = 0; row < rowDIM; row++) {
+            for (int column = 0; column < columnDIM; column++) {
+                cells[row][column] = getCell(row, column);
+            }
+        }
+        return cells;
     }
 
     /**
@@ -199,31 +451,196 @@ public class HoppersConfig implements Configuration{
 
     @Override
     public boolean isSolution() {
-        for (int column = 0; column < columnDIM; column++) {
-            for (int row = 0; row < rowDIM; row++) {
-                if (grid[row][column] == 'G') {
-                    return false;
-                }
+        if (bitboard) {
+            return this.green == 0;
+        }
+        for (int frog : this.frogs) {
+            if ((frog & 1) == 0) {
+                return false;
             }
         }
         return true;
     }
 
+    /**
+     * Every jump takes exactly one green frog off the board, so the green frogs left are the jumps left
+     * @return A Int representing the number of green frogs on the board
+     */
+    @Override
+    public int heuristic() {
+        if (bitboard) {
+            return Long.bitCount(this.green);
+        }
+        int greens = 0;
+        for (int frog : this.frogs) {
+            if ((frog & 1) == 0) {
+                greens += 1;
+            }
+        }
+        return greens;
+    }
+
     @Override
     public Collection<Configuration> getNeighbors() {
         LinkedList<Configuration> neighbors = new LinkedList<>();
-        for (int column = 0; column < columnDIM; column++) {
-            for (int row = 0; row < rowDIM; row++) {
-                if (this.grid[row][column] == 'G' || this.grid[row][column] == 'R') {
-                    Character frog = this.grid[row][column];
-                    neighbors.addAll(isVerticalValid(frog, row, column));
-                    neighbors.addAll(isHorizontalValid(frog, row, column));
-                    neighbors.addAll(isNorthWestDiagonalValid(frog, row, column));
-                    neighbors.addAll(isNorthEastDiagonalValid(frog, row, column));
+        forEachNeighbor(neighbors::add);
+        return neighbors;
+    }
+
+    /**
+     * Will check every frog on the board for every jump over a green frog onto an empty lily pad, and hand each
+     * resulting HoppersConfig to the visitor without collecting them
+     * @param visitor Must be Predicate, receives each neighbor and returns false to stop
+     * @return A Boolean representing if every neighbor was visited; false if the visitor stopped early
+     */
+    @Override
+    public boolean forEachNeighbor(Predicate<Configuration> visitor) {
+        return bitboard ? forEachJump(visitor) : forEachListJump(visitor);
+    }
+
+    /**
+     * Does forEachNeighbor() on a bitboard. Frogs come in pad order, which is the order the grid is scanned in, and
+     * a jump can be made if the pad jumped over holds a green frog and the pad landed on holds no frog
+     * @param visitor Must be Predicate, receives each neighbor and returns false to stop
+     * @return A Boolean representing if every neighbor was visited; false if the visitor stopped early
+     */
+    private boolean forEachJump(Predicate<Configuration> visitor) {
+        long frogs = this.green | this.red;
+        for (long left = frogs; left != 0; left &= left - 1) {
+            long from = left & -left;
+            int first = Long.numberOfTrailingZeros(left) * JUMPS.length;
+            for (int k = first; k < first + JUMPS.length; k++) {
+                long landing = landingMask[k];
+                if ((this.green & overMask[k]) != 0 && (frogs & landing) == 0) {
+                    HoppersConfig hoppersConfig = new HoppersConfig(this);
+                    if ((this.green & from) != 0) {
+                        hoppersConfig.green = (this.green & ~(from | overMask[k])) | landing;
+                    } else {
+                        hoppersConfig.green = this.green & ~overMask[k];
+                        hoppersConfig.red = (this.red & ~from) | landing;
+                    }
+                    if (!visitor.test(hoppersConfig)) {
+                        return false;
+                    }
                 }
             }
         }
-        return neighbors;
+        return true;
+    }
+
+    /**
+     * Does forEachNeighbor() on a frog list, looking up the pads jumped over and landed on in the list
+     * @param visitor Must be Predicate, receives each neighbor and returns false to stop
+     * @return A Boolean representing if every neighbor was visited; false if the visitor stopped early
+     */
+    private boolean forEachListJump(Predicate<Configuration> visitor) {
+        for (int i = 0; i < this.frogs.length; i++) {
+            int pad = this.frogs[i] >> 1;
+            char frog = (this.frogs[i] & 1) == 0 ? 'G' : 'R';
+            for (int k = pad * JUMPS.length; k < (pad + 1) * JUMPS.length; k++) {
+                int overAt = overPad[k] == -1 ? -1 : Arrays.binarySearch(this.frogs, 2 * overPad[k]);
+                if (overAt >= 0 && find(this.frogs, landingPad[k]) < 0) {
+                    int[] list = new int[this.frogs.length - 2];
+                    int n = 0;
+                    for (int f = 0; f < this.frogs.length; f++) {
+                        if (f != i && f != overAt) {
+                            list[n++] = this.frogs[f];
+                        }
+                    }
+                    HoppersConfig hoppersConfig = new HoppersConfig(this);
+                    hoppersConfig.frogs = insert(list, 2 * landingPad[k] + (this.frogs[i] & 1));
+                    hoppersConfig.key = this.key ^ zobrist(padCell[pad], frog) ^ zobrist(padCell[overPad[k]], 'G')
+                            ^ zobrist(padCell[landingPad[k]], frog);
+                    if (!visitor.test(hoppersConfig)) {
+                        return false;
+                    }
+                }
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Builds every board the puzzle can end on: each red frog of this board sitting on some lily pad and no green
+     * frogs left at all
+     * @return A collection of configurations representing all the goals of the puzzle
+     */
+    @Override
+    public Collection<Configuration> getGoals() {
+        LinkedList<Configuration> goals = new LinkedList<>();
+        HoppersConfig empty = new HoppersConfig(this);
+        int reds = 0;
+        for (int row = 0; row < rowDIM; row++) {
+            for (int column = 0; column < columnDIM; column++) {
+                if (empty.getCell(row, column) == 'R') {
+                    reds += 1;
+                }
+                if (empty.getCell(row, column) != '*') {
+                    empty.set(row, column, '.');
+                }
+            }
+        }
+        placeRedFrogs(empty, reds, 0, goals);
+        return goals;
+    }
+
+    /**
+     * Places the remaining red frogs on the lily pads from the given cell onward, adding every finished board to
+     * the collection
+     * @param board Must be HoppersConfig, represents the board being filled
+     * @param reds Must be Int, represents how many red frogs are still to be placed
+     * @param cell Must be Int, represents the first cell (row * columnDIM + column) still free to use
+     * @param goals Must be Collection, represents the finished boards
+     */
+    private void placeRedFrogs(HoppersConfig board, int reds, int cell, Collection<Configuration> goals) {
+        if (reds == 0) {
+            goals.add(new HoppersConfig(board));
+            return;
+        }
+        for (int next = cell; next < rowDIM * columnDIM; next++) {
+            int row = next / columnDIM;
+            int column = next % columnDIM;
+            if (board.getCell(row, column) == '.') {
+                board.set(row, column, 'R');
+                placeRedFrogs(board, reds - 1, next + 1, goals);
+                board.set(row, column, '.');
+            }
+        }
+    }
+
+    /**
+     * Undoes every jump that could have led to this board: a frog goes back to its take-off pad and the green frog
+     * it jumped over comes back. Boards with more green frogs than the loaded game are skipped
+     * @return A collection of configurations representing the boards one jump before this one
+     */
+    @Override
+    public Collection<Configuration> getPredecessors() {
+        LinkedList<Configuration> predecessors = new LinkedList<>();
+        if (heuristic() >= greenDIM) {
+            return predecessors;
+        }
+        for (int row = 0; row < rowDIM; row++) {
+            for (int column = 0; column < columnDIM; column++) {
+                char frog = getCell(row, column);
+                if (frog == 'G' || frog == 'R') {
+                    for (int[] jump : JUMPS) {
+                        int fromRow = row - jump[0];
+                        int fromColumn = column - jump[1];
+                        int overRow = row - jump[0] / 2;
+                        int overColumn = column - jump[1] / 2;
+                        if (fromRow > -1 && fromRow < rowDIM && fromColumn > -1 && fromColumn < columnDIM &&
+                                getCell(fromRow, fromColumn) == '.' && getCell(overRow, overColumn) == '.') {
+                            HoppersConfig hoppersConfig = new HoppersConfig(this);
+                            hoppersConfig.set(row, column, '.');
+                            hoppersConfig.set(overRow, overColumn, 'G');
+                            hoppersConfig.set(fromRow, fromColumn, frog);
+                            predecessors.add(hoppersConfig);
+                        }
+                    }
+                }
+            }
+        }
+        return predecessors;
     }
 
     @Override
@@ -237,7 +654,7 @@ public class HoppersConfig implements Configuration{
                 } else {
                     firstTime = true;
                 }
-                string.append(this.grid[r][c]);
+                string.append(getCell(r, c));
             }
             firstTime = false;
             string.append('\n');
@@ -247,14 +664,18 @@ public class HoppersConfig implements Configuration{
 
     @Override
     public int hashCode() {
-        return Arrays.deepHashCode(grid);
+        long hash = bitboard ? MoveBoard.mix(MoveBoard.mix(this.green) ^ this.red) : this.key;
+        return (int) (hash ^ (hash >>> 32));
     }
 
     @Override
     public boolean equals(Object other) {
         if (other instanceof Configuration) {
             HoppersConfig otherconfig = (HoppersConfig) other;
-            if (Arrays.deepEquals(otherconfig.grid, this.grid)){
+            if (bitboard) {
+                return otherconfig.green == this.green && otherconfig.red == this.red;
+            }
+            if (otherconfig.key == this.key && Arrays.equals(otherconfig.frogs, this.frogs)){
                 return true;
             } else {
                 return false;
@@ -1,22 +1,28 @@
 package puzzles.hoppers.model;
 
 import puzzles.common.Observer;
+import puzzles.common.solver.AsyncSolver;
 import puzzles.common.solver.Configuration;
 import puzzles.common.solver.Solver;
 
 import java.io.File;
 import java.io.IOException;
+import java.time.Instant;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.LinkedList;
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
 
 /**
- * A hoppers-related class that provides the fountains for general UI to work
+ * A hoppers-related class that provides the fountains for general UI to work. Hints are solved on another thread, so
+ * every method that reads or changes the board holds the lock of the model, and a jump makes a new board
  *
  * @author Jamie Antal
  */
 public class HoppersModel {
+    /** A Long representing the most seconds a hint may search before giving up */
+    private static final long HINT_SECONDS = 10;
     /** A collection of observers representing the observers of this model */
     private final List<Observer<HoppersModel, String>> observers = new LinkedList<>();
     /** A HopperConfig representing the current configuration */
@@ -29,6 +35,10 @@ public class HoppersModel {
     private int savedRow;
     /** A Int representing the first column input by the user */
     private int savedCol;
+    /** A CompletableFuture representing the hint being solved, done once the observers heard the result, or null */
+    private CompletableFuture<Void> solving;
+    /** A AsyncSolver.Solve representing the search of the hint being solved, or null */
+    private AsyncSolver.Solve search;
 
     /**
      * The view calls this to add itself as an observer.
@@ -63,23 +73,64 @@ public class HoppersModel {
     }
 
     /**
-     * When called, it will create new Solver and looks for next step in solving the current puzzle. If found, it will
-     * set the current Config to that and call alertObservers() with message. If it can't find any steps to solve the
-     * puzzle, it will call alertObservers() with message
+     * When called, it will start a Solver on another thread that looks for the next step in solving the current
+     * puzzle, and call alertObservers() with its progress. If found, it will set the current Config to that and call
+     * alertObservers() with message. If it can't find any steps to solve the puzzle, it will call alertObservers()
+     * with message. The search gives up after HINT_SECONDS, loading a board cancels it, and its result is dropped if
+     * the board changed meanwhile
+     * @return A CompletableFuture representing the hint, done once the observers heard the result
      */
-    public void hint() {
-        Solver solver = new Solver(this.currentConfig);
+    public synchronized CompletableFuture<Void> hint() {
+        if (this.currentConfig.isSolution()) {
+            alertObservers("Already solved!");
+            return CompletableFuture.completedFuture(null);
+        }
+        if (this.solving != null && !this.solving.isDone()) {
+            alertObservers("Already solving...");
+            return this.solving;
+        }
+        HoppersConfig start = this.currentConfig;
+        alertObservers("Solving...");
+        this.search = AsyncSolver.solve(start, Solver.Mode.SEQUENTIAL, 0, Instant.now().plusSeconds(HINT_SECONDS),
+                progress -> alertObservers("Solving... " + progress));
+        this.solving = this.search.thenAccept(solver -> hinted(start, solver));
+        return this.solving;
+    }
+
+    /**
+     * Cancels the hint being solved, if any, and waits for its search to stop, since loading a board rewrites the
+     * board tables it reads. Called without the lock, the search may still be reporting its progress
+     */
+    private void stopHint() {
+        AsyncSolver.Solve running;
+        synchronized (this) {
+            running = this.search;
+            this.search = null;
+        }
+        if (running != null) {
+            running.stop();
+        }
+    }
+
+    /**
+     * Called on the solver thread once a hint's Solver is done. If the board is still the one the hint started from,
+     * it will move to the next step and call alertObservers() with message
+     * @param start Must be HoppersConfig, represents the board the hint started from
+     * @param solver Must be Solver, represents the finished search
+     */
+    private synchronized void hinted(HoppersConfig start, Solver solver) {
+        if (this.currentConfig != start) {
+            return;
+        }
         ArrayList<Configuration> solverShortestList = solver.getShortestlist();
-        if (!this.currentConfig.isSolution()) {
-            if (solverShortestList.size() == 0) {
-                alertObservers("No solution!");
-            } else {
-                this.currentConfig = (HoppersConfig) solverShortestList.get(1);
-                this.grid = this.currentConfig.getGrid();
-                alertObservers("Next step!");
-            }
+        if (solver.getStatus() == Solver.Status.CUT_OFF) {
+            alertObservers("No hint found in time!");
+        } else if (solverShortestList.size() == 0) {
+            alertObservers("No solution!");
         } else {
-            alertObservers("Already solved!");
+            this.currentConfig = (HoppersConfig) solverShortestList.get(1);
+            this.grid = this.currentConfig.getGrid();
+            alertObservers("Next step!");
         }
     }
 
@@ -91,8 +142,11 @@ public class HoppersModel {
      * @throws IOException
      */
     public void load(String filename) throws IOException {
-        this.currentConfig = new HoppersConfig(filename);
-        this.grid = this.currentConfig.getGrid();
+        stopHint();
+        synchronized (this) {
+            this.currentConfig = new HoppersConfig(filename);
+            this.grid = this.currentConfig.getGrid();
+        }
         String[] file = filename.split("/");
         alertObservers("Loaded: " + file[2]);
     }
@@ -103,8 +157,11 @@ public class HoppersModel {
      * @throws IOException
      */
     public void load(File file) throws IOException {
-        this.currentConfig = new HoppersConfig(file.getPath());
-        this.grid = this.currentConfig.getGrid();
+        stopHint();
+        synchronized (this) {
+            this.currentConfig = new HoppersConfig(file.getPath());
+            this.grid = this.currentConfig.getGrid();
+        }
         alertObservers("Loaded: " + file.getName());
     }
 
@@ -126,7 +183,7 @@ public class HoppersModel {
      * @param row Must be Int, represents where to go at X axis of board in game
      * @param col Must be Int, represents where to go at Y axis of board in game
      */
-    public void select(int row, int col) {
+    public synchronized void select(int row, int col) {
         if (this.frog == null) {
             if (this.grid[row][col] == 'G' || this.grid[row][col] == 'R') {
                 this.frog = this.grid[row][col];
@@ -171,10 +228,9 @@ public class HoppersModel {
             // proceeds to create a test config and compare it to currentConfig's neighbors
             Collection<Configuration> neighbors = this.currentConfig.getNeighbors();
             HoppersConfig testHoppersConfig = new HoppersConfig(this.currentConfig);
-            char[][] testGrid = testHoppersConfig.getGrid();
-            testGrid[savedRow][savedCol] = '.';
-            testGrid[row][col] = this.frog;
-            testGrid[middleRow][middleCol] = '.';
+            testHoppersConfig.set(savedRow, savedCol, '.');
+            testHoppersConfig.set(row, col, this.frog);
+            testHoppersConfig.set(middleRow, middleCol, '.');
             if (neighbors.contains(testHoppersConfig)) {
                 this.currentConfig = testHoppersConfig;
                 this.grid = this.currentConfig.getGrid();
@@ -203,7 +259,7 @@ public class HoppersModel {
      * Gets and returns the grid of the game
      * @return A char[][] representing the current status of board in game
      */
-    public char[][] getGrid () {
+    public synchronized char[][] getGrid () {
         return this.grid;
     };
 
@@ -211,7 +267,7 @@ public class HoppersModel {
      * Gets and returns the romDIM of the game
      * @return A Int representing the range of rows in game
      */
-    public int getRowDIM() {
+    public synchronized int getRowDIM() {
         return this.currentConfig.getRowDIM();
     }
 
@@ -219,12 +275,12 @@ public class HoppersModel {
      * Gets and returns the columnDIM of the game
      * @return A Int representing the range of columns in game
      */
-    public int getColumnDIM() {
+    public synchronized int getColumnDIM() {
         return this.currentConfig.getColumnDIM();
     }
 
     @Override
-    public String toString() {
+    public synchronized String toString() {
         StringBuilder string = new StringBuilder();
         boolean firstTime = false;
         string.append("   ");
@@ -0,0 +1,140 @@
+package puzzles.hoppers.model;
+
+import puzzles.common.solver.Combinations;
+import puzzles.common.solver.Configuration;
+import puzzles.common.solver.ConfigurationRanker;
+
+/**
+ * A hoppers-related class that numbers boards densely for the RankedSolver. Jumps never add frogs or change the
+ * colour of one, so a board of the puzzle is a set of pads holding frogs, as many red frogs as the loaded board has
+ * plus at most as many green ones, and which of those frogs are red. Boards are grouped by their number of green
+ * frogs; within a group the rank is the rank of the set of occupied pads times the number of ways to pick the red
+ * ones, plus the rank of the red frogs among the occupied pads. The lily pads are numbered like in HoppersSpace.
+ *
+ * @author Jamie Antal
+ */
+public class HoppersRanker implements ConfigurationRanker {
+    /** A HoppersConfig representing the loaded board, copied to unrank boards */
+    private final HoppersConfig board;
+    /** An Int[] representing the row of each pad */
+    private final int[] padRow;
+    /** An Int[] representing the column of each pad */
+    private final int[] padColumn;
+    /** An Int representing the number of pads */
+    private final int pads;
+    /** An Int representing the number of red frogs */
+    private final int reds;
+    /** An Int representing the number of green frogs on the loaded board, the most any board can have */
+    private final int greens;
+    /** A Long[][] representing the binomial coefficients up to the number of pads */
+    private final long[][] binomials;
+    /** A Long[] representing the first rank of each number of green frogs, and the size at the end */
+    private final long[] offsets;
+
+    /**
+     * Numbers the lily pads of a board and counts the boards with each number of green frogs
+     * @param config Must be HoppersConfig, represents the loaded board
+     */
+    public HoppersRanker(HoppersConfig config) {
+        this.board = new HoppersConfig(config);
+        char[][] grid = config.getGrid();
+        int rowDIM = config.getRowDIM();
+        int columnDIM = config.getColumnDIM();
+        int count = 0;
+        int redCount = 0;
+        int greenCount = 0;
+        for (int column = 0; column < columnDIM; column++) {
+            for (int row = 0; row < rowDIM; row++) {
+                if (grid[row][column] != '*') {
+                    count += 1;
+                }
+                if (grid[row][column] == 'R') {
+                    redCount += 1;
+                } else if (grid[row][column] == 'G') {
+                    greenCount += 1;
+                }
+            }
+        }
+        this.pads = count;
+        this.reds = redCount;
+        this.greens = greenCount;
+        this.padRow = new int[pads];
+        this.padColumn = new int[pads];
+        int pad = 0;
+        for (int column = 0; column < columnDIM; column++) {
+            for (int row = 0; row < rowDIM; row++) {
+                if (grid[row][column] != '*') {
+                    padRow[pad] = row;
+                    padColumn[pad] = column;
+                    pad += 1;
+                }
+            }
+        }
+        this.binomials = Combinations.binomials(pads);
+        this.offsets = new long[greens + 2];
+        for (int green = 0; green <= greens; green++) {
+            int frogs = reds + green;
+            long group = Combinations.multiply(Combinations.choose(binomials, pads, frogs),
+                    Combinations.choose(binomials, frogs, reds));
+            offsets[green + 1] = Combinations.add(offsets[green], group);
+        }
+    }
+
+    @Override
+    public long size() {
+        return offsets[greens + 1];
+    }
+
+    @Override
+    public long rank(Configuration config) {
+        HoppersConfig hoppers = (HoppersConfig) config;
+        int[] occupied = new int[pads];
+        int[] redAt = new int[reds];
+        int frogs = 0;
+        int redCount = 0;
+        for (int pad = 0; pad < pads; pad++) {
+            char cell = hoppers.getCell(padRow[pad], padColumn[pad]);
+            if (cell == 'R') {
+                if (redCount == reds) {
+                    return NONE;
+                }
+                redAt[redCount++] = frogs;
+            }
+            if (cell == 'G' || cell == 'R') {
+                occupied[frogs++] = pad;
+            }
+        }
+        int green = frogs - redCount;
+        if (redCount != reds || green > greens) {
+            return NONE;
+        }
+        return offsets[green] + Combinations.rank(occupied, frogs, binomials) * Combinations.choose(binomials, frogs, reds)
+                + Combinations.rank(redAt, reds, binomials);
+    }
+
+    @Override
+    public Configuration unrank(long rank) {
+        int green = 0;
+        while (offsets[green + 1] <= rank) {
+            green += 1;
+        }
+        rank -= offsets[green];
+        int frogs = reds + green;
+        long redWays = Combinations.choose(binomials, frogs, reds);
+        int[] occupied = new int[frogs];
+        int[] redAt = new int[reds];
+        Combinations.unrank(rank / redWays, frogs, pads, binomials, occupied);
+        Combinations.unrank(rank % redWays, reds, frogs, binomials, redAt);
+        HoppersConfig config = new HoppersConfig(this.board);
+        for (int pad = 0; pad < pads; pad++) {
+            config.set(padRow[pad], padColumn[pad], '.');
+        }
+        for (int frog = 0; frog < frogs; frog++) {
+            config.set(padRow[occupied[frog]], padColumn[occupied[frog]], 'G');
+        }
+        for (int red = 0; red < reds; red++) {
+            config.set(padRow[occupied[redAt[red]]], padColumn[occupied[redAt[red]]], 'R');
+        }
+        return config;
+    }
+}
@@ -0,0 +1,219 @@
+package puzzles.hoppers.model;
+
+import puzzles.common.solver.Configuration;
+import puzzles.common.solver.LongStateSpace;
+
+import java.util.Arrays;
+
+/**
+ * A hoppers-related class that packs boards into longs for the LongSolver. The lily pads are numbered in the order
+ * getNeighbors() scans the board. The low bits of a state are a mask of the pads holding green frogs, and above them
+ * sit the pad numbers of the red frogs in 6 bits each, smallest first.
+ *
+ * @author Jamie Antal
+ */
+public class HoppersSpace implements LongStateSpace {
+    /** An Int representing the bits used for the pad number of one red frog */
+    private static final int RED_BITS = 6;
+    /** An Int[][] representing every jump as {row, column} steps, in the order getNeighbors() tries them */
+    private static final int[][] JUMPS = {{0, 4}, {0, -4}, {4, 0}, {-4, 0}, {2, 2}, {-2, -2}, {2, -2}, {-2, 2}};
+
+    /** A HoppersConfig representing the loaded board, copied to decode states */
+    private final HoppersConfig board;
+    /** An Int[] representing the row of each pad */
+    private final int[] padRow;
+    /** An Int[] representing the column of each pad */
+    private final int[] padColumn;
+    /** An Int[][] representing, per pad and jump, the pad jumped over or -1 if the jump leaves the board */
+    private final int[][] over;
+    /** An Int[][] representing, per pad and jump, the pad landed on or -1 if the jump leaves the board */
+    private final int[][] to;
+    /** An Int representing the number of red frogs */
+    private final int reds;
+    /** An Int representing the number of pads, which is also where the red frog numbers start */
+    private final int pads;
+
+    /**
+     * Numbers the lily pads of a board and works out every jump between them
+     * @param config Must be HoppersConfig, represents the loaded board
+     */
+    public HoppersSpace(HoppersConfig config) {
+        if (!fits(config)) {
+            throw new IllegalArgumentException("Board is too big to encode");
+        }
+        this.board = new HoppersConfig(config);
+        char[][] grid = config.getGrid();
+        int rowDIM = config.getRowDIM();
+        int columnDIM = config.getColumnDIM();
+        int[][] padAt = new int[rowDIM][columnDIM];
+        int count = 0;
+        int redCount = 0;
+        for (int column = 0; column < columnDIM; column++) {
+            for (int row = 0; row < rowDIM; row++) {
+                padAt[row][column] = grid[row][column] == '*' ? -1 : count++;
+                if (grid[row][column] == 'R') {
+                    redCount += 1;
+                }
+            }
+        }
+        this.pads = count;
+        this.reds = redCount;
+        this.padRow = new int[pads];
+        this.padColumn = new int[pads];
+        this.over = new int[pads][JUMPS.length];
+        this.to = new int[pads][JUMPS.length];
+        for (int column = 0; column < columnDIM; column++) {
+            for (int row = 0; row < rowDIM; row++) {
+                int pad = padAt[row][column];
+                if (pad != -1) {
+                    padRow[pad] = row;
+                    padColumn[pad] = column;
+                    for (int j = 0; j < JUMPS.length; j++) {
+                        int toRow = row + JUMPS[j][0];
+                        int toColumn = column + JUMPS[j][1];
+                        boolean onBoard = toRow > -1 && toRow < rowDIM && toColumn > -1 && toColumn < columnDIM;
+                        over[pad][j] = onBoard ? padAt[row + JUMPS[j][0] / 2][column + JUMPS[j][1] / 2] : -1;
+                        to[pad][j] = onBoard ? padAt[toRow][toColumn] : -1;
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * Checks if a board can be packed: the green mask and the red frog numbers must fit in 63 bits so states are
+     * never negative
+     * @param config Must be HoppersConfig, represents the loaded board
+     * @return A Boolean representing if the board fits in a long
+     */
+    public static boolean fits(HoppersConfig config) {
+        int pads = 0;
+        int reds = 0;
+        for (char[] line : config.getGrid()) {
+            for (char cell : line) {
+                if (cell != '*') {
+                    pads += 1;
+                }
+                if (cell == 'R') {
+                    reds += 1;
+                }
+            }
+        }
+        return pads + RED_BITS * reds <= 63;
+    }
+
+    @Override
+    public long encode(Configuration config) {
+        HoppersConfig hoppers = (HoppersConfig) config;
+        long state = 0;
+        int[] redPads = new int[reds];
+        int r = 0;
+        for (int pad = 0; pad < pads; pad++) {
+            char cell = hoppers.getCell(padRow[pad], padColumn[pad]);
+            if (cell == 'G') {
+                state |= 1L << pad;
+            } else if (cell == 'R') {
+                redPads[r++] = pad;
+            }
+        }
+        for (r = 0; r < reds; r++) {
+            state |= (long) redPads[r] << (pads + RED_BITS * r);
+        }
+        return state;
+    }
+
+    @Override
+    public Configuration decode(long state) {
+        HoppersConfig config = new HoppersConfig(this.board);
+        for (int pad = 0; pad < pads; pad++) {
+            config.set(padRow[pad], padColumn[pad], (state & 1L << pad) != 0 ? 'G' : '.');
+        }
+        for (int r = 0; r < reds; r++) {
+            int pad = redPad(state, r);
+            config.set(padRow[pad], padColumn[pad], 'R');
+        }
+        return config;
+    }
+
+    @Override
+    public boolean isSolution(long state) {
+        return (state & greenMask()) == 0;
+    }
+
+    @Override
+    public int successors(long state, long[] out) {
+        long greens = state & greenMask();
+        long frogs = greens;
+        for (int r = 0; r < reds; r++) {
+            frogs |= 1L << redPad(state, r);
+        }
+        int count = 0;
+        for (int pad = 0; pad < pads; pad++) {
+            if ((frogs & 1L << pad) == 0) {
+                continue;
+            }
+            boolean green = (greens & 1L << pad) != 0;
+            for (int j = 0; j < JUMPS.length; j++) {
+                int middle = over[pad][j];
+                int landing = to[pad][j];
+                if (landing != -1 && middle != -1 && (greens & 1L << middle) != 0 && (frogs & 1L << landing) == 0) {
+                    long child = state & ~(1L << middle);
+                    if (green) {
+                        child = (child & ~(1L << pad)) | 1L << landing;
+                    } else {
+                        child = moveRed(child, pad, landing);
+                    }
+                    out[count++] = child;
+                }
+            }
+        }
+        return count;
+    }
+
+    @Override
+    public int maxSuccessors() {
+        return pads * JUMPS.length;
+    }
+
+    /**
+     * Gets the mask of the bits holding green frogs
+     * @return A Long with the low pads bits set
+     */
+    private long greenMask() {
+        return (1L << pads) - 1;
+    }
+
+    /**
+     * Gets the pad number of a red frog
+     * @param state Must be Long, represents an encoded board
+     * @param r Must be Int, represents which red frog, smallest pad first
+     * @return A Int representing the pad the red frog sits on
+     */
+    private int redPad(long state, int r) {
+        return (int) (state >>> (pads + RED_BITS * r)) & ((1 << RED_BITS) - 1);
+    }
+
+    /**
+     * Moves a red frog and keeps the red frog numbers sorted
+     * @param state Must be Long, represents an encoded board
+     * @param from Must be Int, represents the pad the red frog leaves
+     * @param landing Must be Int, represents the pad the red frog lands on
+     * @return A Long representing the encoded board after the move
+     */
+    private long moveRed(long state, int from, int landing) {
+        if (reds == 1) {
+            return (state & greenMask()) | (long) landing << pads;
+        }
+        int[] redPads = new int[reds];
+        for (int r = 0; r < reds; r++) {
+            int pad = redPad(state, r);
+            redPads[r] = pad == from ? landing : pad;
+        }
+        Arrays.sort(redPads);
+        long child = state & greenMask();
+        for (int r = 0; r < reds; r++) {
+            child |= (long) redPads[r] << (pads + RED_BITS * r);
+        }
+        return child;
+    }
+}
@@ -75,7 +75,7 @@ public class HoppersPTUI implements Observer<HoppersModel, String> {
                 if (words[0].startsWith( "q" )) {
                     break;
                 } else if (words[0].startsWith("h")) {
-                    this.model.hint();
+                    this.model.hint().join();
                 } else if (words[0].startsWith("l")) {
                     try {
                         this.model.load(words[1]);
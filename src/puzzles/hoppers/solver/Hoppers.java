@@ -1,8 +1,11 @@
 package puzzles.hoppers.solver;
 
 import puzzles.common.solver.Configuration;
+import puzzles.common.solver.LongSolver;
+import puzzles.common.solver.QuerySolver;
 import puzzles.common.solver.Solver;
 import puzzles.hoppers.model.HoppersConfig;
+import puzzles.hoppers.model.HoppersSpace;
 
 import java.io.IOException;
 import java.util.ArrayList;
@@ -15,17 +18,32 @@ import java.util.ArrayList;
  */
 public class Hoppers {
     public static void main(String[] args) {
-        if (args.length != 1) {
-            System.out.println("Usage: java Hoppers filename");
+        if (args.length == 2 && (args[0].equals("--solvable") || args[0].equals("--distance"))) {
+            verdict(args[0], args[1]);
+        } else if (args.length != 1) {
+            System.out.println("Usage: java Hoppers [--solvable | --distance] filename");
         } else {
             try {
                 HoppersConfig hoppersConfig = new HoppersConfig(args[0]);
-                Solver solver = new Solver(hoppersConfig);
+                int totalConfigs;
+                int uniqueConfigs;
+                ArrayList<Configuration> shortList;
+                // boards that fit in a long are solved on encoded states
+                if (HoppersSpace.fits(hoppersConfig)) {
+                    LongSolver solver = new LongSolver(new HoppersSpace(hoppersConfig), hoppersConfig);
+                    totalConfigs = solver.getTotalConfigs();
+                    uniqueConfigs = solver.getUniqueConfigs();
+                    shortList = solver.getShortestlist();
+                } else {
+                    Solver solver = new Solver(hoppersConfig);
+                    totalConfigs = solver.getTotalConfigs();
+                    uniqueConfigs = solver.getUniqueConfigs();
+                    shortList = solver.getShortestlist();
+                }
                 System.out.println("File: " + args[0]);
                 System.out.println(hoppersConfig);
-                System.out.println("Total Configs: " + solver.getTotalConfigs());
-                System.out.println("Unique Configs: " + solver.getUniqueConfigs());
-                ArrayList<Configuration> shortList = solver.getShortestlist();
+                System.out.println("Total Configs: " + totalConfigs);
+                System.out.println("Unique Configs: " + uniqueConfigs);
                 if (shortList.isEmpty()) {
                     System.out.println("No Solution");
                 } else {
@@ -41,4 +59,21 @@ public class Hoppers {
             }
         }
     }
+
+    /**
+     * Will only answer if the puzzle can be solved, or in how many jumps, and print it on one line without the
+     * boards along the way
+     * @param flag Must be String, represents "--solvable" or "--distance"
+     * @param filename Must be String, represents a file to extract information from
+     */
+    private static void verdict(String flag, String filename) {
+        try {
+            HoppersConfig hoppersConfig = new HoppersConfig(filename);
+            QuerySolver solver = new QuerySolver(hoppersConfig,
+                    flag.equals("--solvable") ? QuerySolver.Query.SOLVABLE : QuerySolver.Query.DISTANCE);
+            System.out.println(filename + ": " + solver.getVerdict());
+        } catch (IOException e) {
+            System.out.println("IOException");
+        }
+    }
 }
@@ -1,8 +1,11 @@
 package puzzles.strings;
 
 import puzzles.common.solver.Configuration;
+import puzzles.common.solver.LongSolver;
 import puzzles.common.solver.Solver;
 
+import java.util.ArrayList;
+
 /**
  * The main program for the strings puzzle
  *
@@ -21,16 +24,30 @@ public class Strings {
             String str2 = args[1];
             Configuration starter = new StringsConfig(str1, str2);
             System.out.println(starter);
-            Solver solve = new Solver(starter);
+            int total;
+            int unique;
+            ArrayList<Configuration> shortestlist;
+            // strings of capital letters are solved on encoded states
+            if (StringsSpace.fits(str1)) {
+                LongSolver solve = new LongSolver(new StringsSpace(str1, str2), starter);
+                total = solve.getTotalConfigs();
+                unique = solve.getUniqueConfigs();
+                shortestlist = solve.getShortestlist();
+            } else {
+                Solver solve = new Solver(starter);
+                total = solve.getTotalConfigs();
+                unique = solve.getUniqueConfigs();
+                shortestlist = solve.getShortestlist();
+            }
             int step = 0;
-            System.out.println("Total configs: " + solve.getTotalConfigs() );
-            System.out.println("Unique total configs: " + solve.getUniqueConfigs());
-            for (Configuration config: solve.getShortestlist()){
+            System.out.println("Total configs: " + total );
+            System.out.println("Unique total configs: " + unique);
+            for (Configuration config: shortestlist){
                 StringsConfig conf = (StringsConfig) config;
                 System.out.println("Step " + step + ": " + conf.getStr1());
                 step += 1;
             }
-            if (solve.getShortestlist().isEmpty()){
+            if (shortestlist.isEmpty()){
                 System.out.println("No Solution");
             }
         }
@@ -1,17 +1,19 @@
 package puzzles.strings;
 
+import puzzles.common.solver.BackwardConfiguration;
 import puzzles.common.solver.Configuration;
 
 import java.util.Collection;
 import java.util.LinkedList;
+import java.util.function.Predicate;
 
 
 /**
- * The Strings configuration object for the strings puzzle. Implements Configuration
+ * The Strings configuration object for the strings puzzle. Implements BackwardConfiguration
  *
  * @author Teju Rajbabu
  */
-public class StringsConfig implements Configuration {
+public class StringsConfig implements BackwardConfiguration {
     /** Changing string */
 
     private String str1;
@@ -33,6 +35,25 @@ public class StringsConfig implements Configuration {
         return this.str1.equals(this.str2);
     }
 
+    /**
+     * Sum of the circular distances between the letters of both strings,
+     * each move changes one letter by one
+     * @return fewest moves left
+     */
+    @Override
+    public int heuristic() {
+        int moves = 0;
+        for (int i = 0; i < Math.min(str1.length(), str2.length()); i++) {
+            char letter = str1.charAt(i);
+            char goal = str2.charAt(i);
+            if (letter >= 'A' && letter <= 'Z' && goal >= 'A' && goal <= 'Z') {
+                int distance = Math.abs(letter - goal);
+                moves += Math.min(distance, 26 - distance);
+            }
+        }
+        return moves;
+    }
+
     @Override
     public Collection<Configuration> getNeighbors() {
         LinkedList<Configuration> successors = new LinkedList<Configuration>();
@@ -45,6 +66,33 @@ public class StringsConfig implements Configuration {
         return successors;
     }
 
+    @Override
+    public boolean forEachNeighbor(Predicate<Configuration> visitor) {
+        for (int i = 0 ; i < str1.length() ; i++){
+            if (!visitor.test(new StringsConfig(increment(i), str2)) ||
+                    !visitor.test(new StringsConfig(decrement(i), str2))) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    @Override
+    public Collection<Configuration> getGoals() {
+        LinkedList<Configuration> goals = new LinkedList<Configuration>();
+        goals.add(new StringsConfig(str2, str2));
+        return goals;
+    }
+
+    /**
+     * Every letter can go both ways, so the moves that lead here are the moves from here
+     * @return All the predecessors
+     */
+    @Override
+    public Collection<Configuration> getPredecessors() {
+        return getNeighbors();
+    }
+
     /**
      * Increases a character of string (chosen by pointer) by a letter.
      * If it is Z, then changes it to A.
@@ -0,0 +1,124 @@
+package puzzles.strings;
+
+import puzzles.common.solver.CodecFactory;
+import puzzles.common.solver.Configuration;
+import puzzles.common.solver.ConfigurationCodec;
+import puzzles.common.solver.LongCodec;
+import puzzles.common.solver.LongStateSpace;
+
+/**
+ * The strings puzzle as encoded states for the LongSolver. A state is the
+ * changing string read as a base-26 number, first letter most significant.
+ *
+ * @author Teju Rajbabu
+ */
+public class StringsSpace implements LongStateSpace {
+    /** Longest string whose base-26 value still fits in a long */
+    public static final int MAX_LENGTH = 13;
+    /** Matches no state, for an ending string that can't be encoded */
+    private static final long UNREACHABLE = -1L;
+
+    /** Ending string */
+    private final String str2;
+    /** Number of letters in every state */
+    private final int length;
+    /** 26 to the power of each letter's distance from the end of the string */
+    private final long[] place;
+    /** Encoded ending string */
+    private final long goal;
+
+    /**
+     * Creates the encoding of a strings puzzle
+     * @param str1 Starting string
+     * @param str2 Ending string
+     */
+    public StringsSpace(String str1, String str2) {
+        if (!fits(str1)) {
+            throw new IllegalArgumentException("Can't encode " + str1);
+        }
+        this.str2 = str2;
+        this.length = str1.length();
+        this.place = new long[length];
+        long power = 1;
+        for (int i = length; i-- > 0;) {
+            place[i] = power;
+            power *= 26;
+        }
+        this.goal = fits(str2) && str2.length() == length ? pack(str2) : UNREACHABLE;
+    }
+
+    /**
+     * Can the string be encoded? Only capital letters wrap around like the
+     * puzzle expects, and only 13 of them fit in a long.
+     * @param str the string
+     * @return true if it has at most 13 letters, all of them A to Z
+     */
+    public static boolean fits(String str) {
+        if (str.length() > MAX_LENGTH) {
+            return false;
+        }
+        for (char letter : str.toCharArray()) {
+            if (letter < 'A' || letter > 'Z') {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Packs a string of capital letters
+     * @param str the string
+     * @return its base-26 value
+     */
+    private long pack(String str) {
+        long state = 0;
+        for (int i = 0; i < length; i++) {
+            state += (str.charAt(i) - 'A') * place[i];
+        }
+        return state;
+    }
+
+    @Override
+    public long encode(Configuration config) {
+        return pack(((StringsConfig) config).getStr1());
+    }
+
+    @Override
+    public Configuration decode(long state) {
+        char[] list = new char[length];
+        for (int i = 0; i < length; i++) {
+            list[i] = (char) ('A' + (state / place[i]) % 26);
+        }
+        return new StringsConfig(new String(list), str2);
+    }
+
+    @Override
+    public boolean isSolution(long state) {
+        return state == goal;
+    }
+
+    @Override
+    public int successors(long state, long[] out) {
+        for (int i = 0; i < length; i++) {
+            long letter = (state / place[i]) % 26;
+            out[2 * i] = letter == 25 ? state - 25 * place[i] : state + place[i];
+            out[2 * i + 1] = letter == 0 ? state + 25 * place[i] : state - place[i];
+        }
+        return 2 * length;
+    }
+
+    @Override
+    public int maxSuccessors() {
+        return 2 * length;
+    }
+
+    /**
+     * Sets up the codec in a worker process from the starting and ending strings
+     */
+    public static class Factory implements CodecFactory {
+        @Override
+        public ConfigurationCodec codec(String[] args) {
+            return new LongCodec(new StringsSpace(args[0], args[1]));
+        }
+    }
+}